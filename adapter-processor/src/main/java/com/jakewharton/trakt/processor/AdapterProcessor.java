@@ -0,0 +1,439 @@
+package com.jakewharton.trakt.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a Gson {@code TypeAdapter} for every entity class, which reads JSON by assigning
+ * fields directly instead of through reflection, and a {@code GeneratedAdapterFactory} creating
+ * them. Writing is left to Gson's reflective adapter.
+ *
+ * <p>Entities are the concrete classes, including static nested ones, of the package given by the
+ * {@code trakt.adapterPackage} option, {@code com.jakewharton.trakt.entities} by default. Fields
+ * are bound like Gson binds them by default: all non-static, non-transient fields of the class and
+ * its superclasses, named by {@code @SerializedName} if present. Classes Gson has to bind
+ * reflectively, e.g. with private fields or without an accessible no-arg constructor, are
+ * skipped.</p>
+ *
+ * <p>The processor runs whenever a class annotated with {@code @AdaptedEntity} is compiled, and
+ * claims that annotation only. Adapters are written for the entities compiled in that run, the
+ * factory covers the entities of the whole package, so compiling only some of them keeps the
+ * adapters of the others.</p>
+ */
+@SupportedAnnotationTypes(AdapterProcessor.ADAPTED_ENTITY)
+@SupportedOptions(AdapterProcessor.OPTION_PACKAGE)
+public final class AdapterProcessor extends AbstractProcessor {
+
+    static final String ADAPTED_ENTITY = "com.jakewharton.trakt.AdaptedEntity";
+
+    static final String OPTION_PACKAGE = "trakt.adapterPackage";
+
+    private static final String DEFAULT_PACKAGE = "com.jakewharton.trakt.entities";
+
+    private static final String FACTORY_NAME = "GeneratedAdapterFactory";
+
+    private static final String ADAPTER_SUFFIX = "_JsonAdapter";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+    private boolean mGenerated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (mGenerated || annotations.isEmpty() || roundEnv.processingOver()) {
+            return true;
+        }
+        String packageName = processingEnv.getOptions().get(OPTION_PACKAGE);
+        if (packageName == null) {
+            packageName = DEFAULT_PACKAGE;
+        }
+        PackageElement entityPackage = processingEnv.getElementUtils()
+                .getPackageElement(packageName);
+        if (entityPackage == null) {
+            return true;
+        }
+        mGenerated = true;
+
+        // Entities compiled from source in this run, the others come from the class path and
+        // already have an adapter.
+        Set<Element> compiled = new HashSet<Element>(roundEnv.getRootElements());
+        List<TypeElement> entities = new ArrayList<TypeElement>();
+        for (TypeElement type : ElementFilter.typesIn(entityPackage.getEnclosedElements())) {
+            String name = type.getSimpleName().toString();
+            // Skip what an earlier run generated.
+            if (type.getKind() == ElementKind.CLASS && !name.equals(FACTORY_NAME)
+                    && !name.endsWith(ADAPTER_SUFFIX)) {
+                collect(type, entities);
+            }
+        }
+        // The package lists its members in no particular order, keep the factory stable.
+        Collections.sort(entities, new Comparator<TypeElement>() {
+            @Override
+            public int compare(TypeElement a, TypeElement b) {
+                return a.getQualifiedName().toString().compareTo(b.getQualifiedName().toString());
+            }
+        });
+
+        try {
+            List<TypeElement> adapted = new ArrayList<TypeElement>();
+            for (TypeElement entity : entities) {
+                Map<String, VariableElement> fields = bindableFields(entity);
+                if (fields == null) {
+                    continue;
+                }
+                if (compiled.contains(topLevel(entity))) {
+                    writeAdapter(packageName, entity, fields);
+                }
+                adapted.add(entity);
+            }
+            writeFactory(packageName, adapted);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write adapters: " + e);
+        }
+        return true;
+    }
+
+    private static Element topLevel(TypeElement type) {
+        Element element = type;
+        while (element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return element;
+    }
+
+    /**
+     * Adds the given class and its static nested classes, if they can be instantiated.
+     */
+    private void collect(TypeElement type, List<TypeElement> entities) {
+        Set<Modifier> modifiers = type.getModifiers();
+        boolean isInstantiable = !modifiers.contains(Modifier.ABSTRACT)
+                && !modifiers.contains(Modifier.PRIVATE)
+                && type.getTypeParameters().isEmpty()
+                && (type.getNestingKind() == NestingKind.TOP_LEVEL
+                || modifiers.contains(Modifier.STATIC))
+                && hasNoArgConstructor(type);
+        if (isInstantiable) {
+            entities.add(type);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            if (nested.getKind() == ElementKind.CLASS) {
+                collect(nested, entities);
+            }
+        }
+    }
+
+    private static boolean hasNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor
+                : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()
+                    && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fields Gson would bind by JSON name, or {@code null} if the adapter could not
+     * assign one of them.
+     */
+    private Map<String, VariableElement> bindableFields(TypeElement entity) {
+        Map<String, VariableElement> fields = new LinkedHashMap<String, VariableElement>();
+        TypeElement type = entity;
+        while (type != null && !type.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)
+                        || hasTypeVariable(field.asType())) {
+                    note(entity, "field " + field.getSimpleName() + " can not be assigned");
+                    return null;
+                }
+                if (fields.put(jsonName(field), field) != null) {
+                    note(entity, "JSON name " + jsonName(field) + " is declared twice");
+                    return null;
+                }
+            }
+            TypeMirror superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return fields;
+    }
+
+    private static boolean hasTypeVariable(TypeMirror type) {
+        if (type.getKind() == TypeKind.TYPEVAR || type.getKind() == TypeKind.WILDCARD) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                if (hasTypeVariable(argument)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String jsonName(VariableElement field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(SERIALIZED_NAME)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                        : annotation.getElementValues().entrySet()) {
+                    if (value.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) value.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    private void note(TypeElement entity, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "Not generating an adapter for " + entity.getQualifiedName() + ", " + reason,
+                entity);
+    }
+
+    /**
+     * Name of the generated adapter, e.g. {@code MediaBase_Stats_JsonAdapter}.
+     */
+    private String adapterName(String packageName, TypeElement entity) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+        return binaryName.substring(packageName.length() + 1).replace('$', '_') + ADAPTER_SUFFIX;
+    }
+
+    private void writeAdapter(String packageName, TypeElement entity,
+            Map<String, VariableElement> fields) throws IOException {
+        String adapterName = adapterName(packageName, entity);
+        String entityName = entity.getQualifiedName().toString();
+
+        // One adapter per distinct field type, read as its boxed type.
+        Map<String, String> adapterFields = new LinkedHashMap<String, String>();
+        for (VariableElement field : fields.values()) {
+            String fieldType = field.asType().toString();
+            if (!adapterFields.containsKey(fieldType)) {
+                adapterFields.put(fieldType, "mAdapter" + adapterFields.size());
+            }
+        }
+
+        // Fields by the hash code of their JSON name, to dispatch with a switch.
+        Map<Integer, List<String>> namesByHash = new LinkedHashMap<Integer, List<String>>();
+        for (String name : fields.keySet()) {
+            List<String> names = namesByHash.get(name.hashCode());
+            if (names == null) {
+                names = new ArrayList<String>();
+                namesByHash.put(name.hashCode(), names);
+            }
+            names.add(name);
+        }
+
+        Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName + "." + adapterName, entity)
+                .openWriter();
+        PrintWriter out = new PrintWriter(writer);
+        try {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import com.google.gson.Gson;");
+            out.println("import com.google.gson.JsonSyntaxException;");
+            out.println("import com.google.gson.TypeAdapter;");
+            out.println("import com.google.gson.reflect.TypeToken;");
+            out.println("import com.google.gson.stream.JsonReader;");
+            out.println("import com.google.gson.stream.JsonToken;");
+            out.println("import com.google.gson.stream.JsonWriter;");
+            out.println();
+            out.println("import java.io.IOException;");
+            out.println();
+            out.println("/**");
+            out.println(" * Reads {@link " + entityName + "} without reflection. Generated by "
+                    + AdapterProcessor.class.getSimpleName() + ", do not edit.");
+            out.println(" */");
+            out.println("final class " + adapterName + " extends TypeAdapter<" + entityName
+                    + "> {");
+            out.println();
+            out.println("    private final TypeAdapter<" + entityName + "> mDelegate;");
+            for (Map.Entry<String, String> adapter : adapterFields.entrySet()) {
+                out.println();
+                out.println("    private final TypeAdapter<" + boxed(adapter.getKey()) + "> "
+                        + adapter.getValue() + ";");
+            }
+            out.println();
+            out.println("    " + adapterName + "(Gson gson, TypeAdapter<" + entityName
+                    + "> delegate) {");
+            out.println("        mDelegate = delegate;");
+            for (Map.Entry<String, String> adapter : adapterFields.entrySet()) {
+                out.println("        " + adapter.getValue() + " = gson.getAdapter("
+                        + typeLiteral(adapter.getKey()) + ");");
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void write(JsonWriter out, " + entityName
+                    + " value) throws IOException {");
+            out.println("        mDelegate.write(out, value);");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + entityName + " read(JsonReader in) throws IOException {");
+            out.println("        if (in.peek() == JsonToken.NULL) {");
+            out.println("            in.nextNull();");
+            out.println("            return null;");
+            out.println("        }");
+            out.println("        " + entityName + " value = new " + entityName + "();");
+            out.println("        try {");
+            out.println("            in.beginObject();");
+            out.println("            while (in.hasNext()) {");
+            out.println("                String name = in.nextName();");
+            if (!namesByHash.isEmpty()) {
+                out.println("                switch (name.hashCode()) {");
+                for (Map.Entry<Integer, List<String>> hash : namesByHash.entrySet()) {
+                    out.println("                    case " + hash.getKey() + ":");
+                    for (String name : hash.getValue()) {
+                        VariableElement field = fields.get(name);
+                        String adapter = adapterFields.get(field.asType().toString());
+                        out.println("                        if (name.equals(\"" + name
+                                + "\")) {");
+                        if (field.asType().getKind().isPrimitive()) {
+                            // Like Gson, keep the default if the value is null.
+                            out.println("                            "
+                                    + boxed(field.asType().toString()) + " read = " + adapter
+                                    + ".read(in);");
+                            out.println("                            if (read != null) {");
+                            out.println("                                value."
+                                    + field.getSimpleName() + " = read;");
+                            out.println("                            }");
+                        } else {
+                            out.println("                            value." + field.getSimpleName()
+                                    + " = " + adapter + ".read(in);");
+                        }
+                        out.println("                            continue;");
+                        out.println("                        }");
+                    }
+                    out.println("                        break;");
+                }
+                out.println("                }");
+            }
+            out.println("                in.skipValue();");
+            out.println("            }");
+            out.println("            in.endObject();");
+            out.println("        } catch (IllegalStateException e) {");
+            out.println("            throw new JsonSyntaxException(e);");
+            out.println("        }");
+            out.println("        return value;");
+            out.println("    }");
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeFactory(String packageName, List<TypeElement> entities)
+            throws IOException {
+        Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName + "." + FACTORY_NAME,
+                        entities.toArray(new Element[entities.size()]))
+                .openWriter();
+        PrintWriter out = new PrintWriter(writer);
+        try {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import com.google.gson.Gson;");
+            out.println("import com.google.gson.TypeAdapter;");
+            out.println("import com.google.gson.TypeAdapterFactory;");
+            out.println("import com.google.gson.reflect.TypeToken;");
+            out.println();
+            out.println("import java.lang.reflect.Type;");
+            out.println();
+            out.println("/**");
+            out.println(" * Creates the generated adapters of the entities in this package.");
+            out.println(" * Generated by " + AdapterProcessor.class.getSimpleName()
+                    + ", do not edit.");
+            out.println(" */");
+            out.println("public final class " + FACTORY_NAME + " implements TypeAdapterFactory {");
+            out.println();
+            out.println("    @Override");
+            out.println("    @SuppressWarnings(\"unchecked\")");
+            out.println("    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {");
+            out.println("        Type rawType = type.getType();");
+            for (TypeElement entity : entities) {
+                String entityName = entity.getQualifiedName().toString();
+                out.println("        if (rawType == " + entityName + ".class) {");
+                out.println("            return (TypeAdapter<T>) (TypeAdapter<?>) new "
+                        + adapterName(packageName, entity) + "(gson,");
+                out.println("                    gson.getDelegateAdapter(this, TypeToken.get("
+                        + entityName + ".class)));");
+                out.println("        }");
+            }
+            out.println("        return null;");
+            out.println("    }");
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Returns the boxed type for primitive types, the type itself otherwise.
+     */
+    private String boxed(String type) {
+        for (TypeKind kind : TypeKind.values()) {
+            if (kind.isPrimitive() && kind.name().toLowerCase(Locale.US).equals(type)) {
+                PrimitiveType primitive = processingEnv.getTypeUtils().getPrimitiveType(kind);
+                return processingEnv.getTypeUtils().boxedClass(primitive)
+                        .getQualifiedName().toString();
+            }
+        }
+        return type;
+    }
+
+    /**
+     * Returns an expression for the {@code Class} or {@code TypeToken} of the given type.
+     */
+    private static String typeLiteral(String type) {
+        if (type.indexOf('<') < 0) {
+            return type + ".class";
+        }
+        return "new TypeToken<" + type + ">() {\n                }";
+    }
+}
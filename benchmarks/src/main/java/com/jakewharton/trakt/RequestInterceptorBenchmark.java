@@ -0,0 +1,106 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.util.Base64;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import retrofit.RequestInterceptor;
+
+/**
+ * Cost of intercepting a single request. Run with {@code -prof gc}: {@code gc.alloc.rate.norm}
+ * should be 0 B/op for {@link #precomputed()}, while {@link #encodePerRequest()} (the previous
+ * implementation) allocates the concatenated credentials, their bytes and the Base64 output.
+ *
+ * <p>Lives in the {@code com.jakewharton.trakt} package to reach the package-private
+ * interceptor.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestInterceptorBenchmark {
+
+    private static final String USERNAME = "sgtest";
+
+    private static final String PASSWORD_SHA_1 = "2a4d398c09ec9c6915d1f46710ceed9673fa4e3d";
+
+    private RequestInterceptor interceptor;
+
+    private BlackholeFacade facade;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        TraktConfiguration configuration = new TraktConfiguration.Builder()
+                .setApiKey("benchmark")
+                .setAuthentication(USERNAME, PASSWORD_SHA_1)
+                .build();
+        interceptor = new TraktRequestInterceptor(configuration);
+        facade = new BlackholeFacade(blackhole);
+    }
+
+    @Benchmark
+    public void precomputed() {
+        interceptor.intercept(facade);
+    }
+
+    @Benchmark
+    public void encodePerRequest() {
+        facade.addPathParam(TraktRequestInterceptor.PARAM_API_KEY, "benchmark");
+        String source = USERNAME + ":" + PASSWORD_SHA_1;
+        String authorization = "Basic " + Base64.encodeBytes(source.getBytes());
+        facade.addHeader(TraktRequestInterceptor.HEADER_AUTHORIZATION, authorization);
+    }
+
+    /**
+     * Consumes everything added to the request so nothing is optimized away, without allocating.
+     */
+    static final class BlackholeFacade implements RequestInterceptor.RequestFacade {
+
+        private final Blackhole blackhole;
+
+        BlackholeFacade(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            blackhole.consume(name);
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void addPathParam(String name, String value) {
+            blackhole.consume(name);
+            blackhole.consume(value);
+        }
+
+        @Override
+        public void addEncodedPathParam(String name, String value) {
+            addPathParam(name, value);
+        }
+
+        @Override
+        public void addQueryParam(String name, String value) {
+            addPathParam(name, value);
+        }
+
+        @Override
+        public void addEncodedQueryParam(String name, String value) {
+            addPathParam(name, value);
+        }
+    }
+}
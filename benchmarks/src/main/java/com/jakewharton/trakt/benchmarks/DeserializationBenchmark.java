@@ -0,0 +1,124 @@
+package com.jakewharton.trakt.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.jakewharton.trakt.TraktHelper;
+import com.jakewharton.trakt.entities.Activity;
+import com.jakewharton.trakt.entities.CalendarDate;
+import com.jakewharton.trakt.entities.Comment;
+import com.jakewharton.trakt.entities.Stats;
+import com.jakewharton.trakt.entities.TvShow;
+import com.jakewharton.trakt.entities.UserProfile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of recorded responses with the streaming adapters of {@link TraktHelper} versus the
+ * tree model deserializers they replaced, see {@link TreeModelTraktHelper}. Run with {@code -prof
+ * gc} to compare {@code gc.alloc.rate.norm} as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    /**
+     * Name of the fixture in {@code src/main/resources/fixtures}. In {@code
+     * library-shows-long-running} every show has 30 seasons, so most of the time goes to {@code
+     * TvShowSeason.Episodes}.
+     */
+    @Param({
+            "library-shows-extended", "library-shows-long-running", "activity-user",
+            "show-summary-extended"
+    })
+    public String fixture;
+
+    private String json;
+
+    private Type type;
+
+    private Gson streaming;
+
+    private Gson treeModel;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = readFixture(fixture);
+        type = fixtureType(fixture);
+        streaming = TraktHelper.getGsonBuilder().create();
+        treeModel = TreeModelTraktHelper.getGsonBuilder().create();
+    }
+
+    @Benchmark
+    public Object streamingAdapters() {
+        return streaming.fromJson(new StringReader(json), type);
+    }
+
+    @Benchmark
+    public Object treeModelDeserializers() {
+        return treeModel.fromJson(new StringReader(json), type);
+    }
+
+    /**
+     * Type the given fixture decodes to.
+     */
+    static Type fixtureType(String name) {
+        if (name.startsWith("library-")) {
+            return new TypeToken<List<TvShow>>() {
+            }.getType();
+        } else if (name.equals("activity-user")) {
+            return Activity.class;
+        } else if (name.equals("calendar-shows")) {
+            return new TypeToken<List<CalendarDate>>() {
+            }.getType();
+        } else if (name.equals("show-stats")) {
+            return Stats.class;
+        } else if (name.equals("show-comments")) {
+            return new TypeToken<List<Comment>>() {
+            }.getType();
+        } else if (name.equals("user-profile-extended")) {
+            return UserProfile.class;
+        }
+        return TvShow.class;
+    }
+
+    static String readFixture(String name) throws IOException {
+        InputStream in = DeserializationBenchmark.class.getResourceAsStream(
+                "/fixtures/" + name + ".json");
+        if (in == null) {
+            throw new IOException("Missing fixture " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.jakewharton.trakt.benchmarks;
+
+import com.google.gson.Gson;
+import com.jakewharton.trakt.TraktHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of decoding one response of every entity type with the Gson all {@link
+ * com.jakewharton.trakt.Trakt} instances share. Run before a release with {@code -prof gc} and
+ * compare {@code ops/s} and {@code gc.alloc.rate.norm} to the previous release to catch
+ * deserialization regressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityDecodingBenchmark {
+
+    /**
+     * Name of the fixture in {@code src/main/resources/fixtures}, see {@link
+     * DeserializationBenchmark#fixtureType(String)} for the type each decodes to.
+     */
+    @Param({
+            "library-shows-extended", "activity-user", "calendar-shows", "show-stats",
+            "show-comments", "user-profile-extended", "show-summary-extended"
+    })
+    public String fixture;
+
+    private String json;
+
+    private Type type;
+
+    private Gson gson;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = DeserializationBenchmark.readFixture(fixture);
+        type = DeserializationBenchmark.fixtureType(fixture);
+        gson = TraktHelper.getGson();
+    }
+
+    @Benchmark
+    public Object decode() {
+        return gson.fromJson(new StringReader(json), type);
+    }
+}
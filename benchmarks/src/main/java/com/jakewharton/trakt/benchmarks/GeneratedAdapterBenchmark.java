@@ -0,0 +1,84 @@
+package com.jakewharton.trakt.benchmarks;
+
+import com.google.gson.Gson;
+import com.jakewharton.trakt.TraktHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of recorded responses with the entity adapters generated by {@code adapter-processor}
+ * versus Gson's reflective adapters. Requires trakt-java installed with {@code
+ * -Pgenerated-adapters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratedAdapterBenchmark {
+
+    @Param({
+            "library-shows-extended", "library-shows-long-running", "activity-user",
+            "show-summary-extended"
+    })
+    public String fixture;
+
+    private String json;
+
+    private Type type;
+
+    private Gson generated;
+
+    private Gson reflective;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (!TraktHelper.hasGeneratedAdapters()) {
+            throw new IllegalStateException(
+                    "Install trakt-java with -Pgenerated-adapters to compare generated adapters.");
+        }
+        json = DeserializationBenchmark.readFixture(fixture);
+        type = DeserializationBenchmark.fixtureType(fixture);
+        generated = TraktHelper.getGsonBuilder(true).create();
+        reflective = TraktHelper.getGsonBuilder(false).create();
+    }
+
+    @Benchmark
+    public Object generatedAdapters() {
+        return generated.fromJson(new StringReader(json), type);
+    }
+
+    @Benchmark
+    public Object reflectiveAdapters() {
+        return reflective.fromJson(new StringReader(json), type);
+    }
+
+    /**
+     * Creating all adapters with a new Gson, which happens once per process, and decoding.
+     */
+    @Benchmark
+    public Object firstDecodeGenerated() {
+        return TraktHelper.getGsonBuilder(true).create().fromJson(new StringReader(json), type);
+    }
+
+    @Benchmark
+    public Object firstDecodeReflective() {
+        return TraktHelper.getGsonBuilder(false).create().fromJson(new StringReader(json), type);
+    }
+}
@@ -0,0 +1,524 @@
+package com.jakewharton.trakt.benchmarks;
+
+import com.jakewharton.trakt.HistogramReporter;
+import com.jakewharton.trakt.LatencyHistogram;
+import com.jakewharton.trakt.StubTraktServer;
+import com.jakewharton.trakt.Trakt;
+import com.jakewharton.trakt.TraktConfiguration;
+import com.jakewharton.trakt.Transport;
+import com.jakewharton.trakt.services.ShowService;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit.RetrofitError;
+
+/**
+ * Drives a mix of service calls through one shared {@link Trakt} instance against a {@link
+ * StubTraktServer}, from a number of worker threads at a target rate, and reports throughput,
+ * latency percentiles, errors, allocations and garbage collection.
+ *
+ * <p>Not a JMH benchmark, run it from the benchmarks jar:</p>
+ * <pre>
+ * java -Xmx512m -cp target/benchmarks.jar com.jakewharton.trakt.benchmarks.LoadTest \
+ *     --workers=32 --rate=2000 --duration=60 --latency=20-80
+ * </pre>
+ *
+ * <p>With a target rate the calls of each worker are scheduled at fixed intervals, and latency is
+ * measured from the scheduled time rather than the time the call was actually made. A client that
+ * falls behind therefore shows its backlog in the percentiles instead of hiding it by calling less
+ * often. Without a rate each worker calls as fast as it can.</p>
+ *
+ * <p>Options, all of the form {@code --name=value}:</p>
+ * <ul>
+ * <li>{@code workers}: concurrent worker threads, defaults to 16.</li>
+ * <li>{@code rate}: target calls per second of all workers together, 0 (the default) is
+ * unlimited.</li>
+ * <li>{@code duration}, {@code warmup}: seconds to measure, and to run before measuring. Default
+ * to 30 and 10.</li>
+ * <li>{@code mix}: relative weight of each operation, e.g. {@code summary:4,seen:1}. Defaults to
+ * {@code summary:40,library:15,activity:25,checkin:10,seen:10}.</li>
+ * <li>{@code latency}: server latency in milliseconds, e.g. {@code 20-80}.</li>
+ * <li>{@code bandwidth}: bytes per second the server writes each response at.</li>
+ * <li>{@code error-rate}: share of requests the server fails with a 503, e.g. {@code 0.01}.</li>
+ * <li>{@code throttle}: requests per second after which the server answers 429.</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Calls made by each worker, chosen at random by their weight.
+     */
+    enum Operation {
+        SUMMARY(40) {
+            @Override
+            void call(Trakt trakt) {
+                trakt.showService().summary("show-500");
+            }
+        },
+        LIBRARY(15) {
+            @Override
+            void call(Trakt trakt) {
+                trakt.userService().libraryShowsAll("user");
+            }
+        },
+        ACTIVITY(25) {
+            @Override
+            void call(Trakt trakt) {
+                trakt.activityService().user("user");
+            }
+        },
+        CHECKIN(10) {
+            @Override
+            void call(Trakt trakt) {
+                trakt.showService().checkin(
+                        new ShowService.ShowCheckin(500, 1, 1, "load-test", "2013-10-01"));
+            }
+        },
+        SEEN(10) {
+            @Override
+            void call(Trakt trakt) {
+                trakt.showService().episodeSeen(new ShowService.Episodes(500, 1, 1));
+            }
+        };
+
+        final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        abstract void call(Trakt trakt);
+    }
+
+    private final int mWorkers;
+
+    private final int mRate;
+
+    private final long mDurationNanos;
+
+    private final long mWarmupNanos;
+
+    private final Operation[] mMix;
+
+    private final StubTraktServer.Profile mProfile;
+
+    private final String mProfileDescription;
+
+    /**
+     * Statistics of the current phase, replaced once the warm-up is over.
+     */
+    private volatile Stats mStats = new Stats();
+
+    private LoadTest(Map<String, String> options) {
+        mWorkers = Integer.parseInt(option(options, "workers", "16"));
+        mRate = Integer.parseInt(option(options, "rate", "0"));
+        mDurationNanos = TimeUnit.SECONDS.toNanos(
+                Long.parseLong(option(options, "duration", "30")));
+        mWarmupNanos = TimeUnit.SECONDS.toNanos(
+                Long.parseLong(option(options, "warmup", "10")));
+        if (mWorkers <= 0) {
+            throw new IllegalArgumentException("workers <= 0");
+        }
+        if (mRate < 0) {
+            throw new IllegalArgumentException("rate < 0");
+        }
+        mMix = parseMix(options.remove("mix"));
+
+        StubTraktServer.Profile.Builder profile = new StubTraktServer.Profile.Builder();
+        StringBuilder description = new StringBuilder();
+        String latency = options.remove("latency");
+        if (latency != null) {
+            String[] range = latency.split("-");
+            profile.setLatency(Long.parseLong(range[0]),
+                    Long.parseLong(range[range.length - 1]), TimeUnit.MILLISECONDS);
+            description.append(", latency ").append(latency).append(" ms");
+        }
+        String bandwidth = options.remove("bandwidth");
+        if (bandwidth != null) {
+            profile.setBandwidth(Long.parseLong(bandwidth));
+            description.append(", bandwidth ").append(bandwidth).append(" B/s");
+        }
+        String errorRate = options.remove("error-rate");
+        if (errorRate != null) {
+            profile.setErrorRate(Double.parseDouble(errorRate));
+            description.append(", error rate ").append(errorRate);
+        }
+        String throttle = options.remove("throttle");
+        if (throttle != null) {
+            profile.setMaxRequestsPerSecond(Integer.parseInt(throttle));
+            description.append(", throttle ").append(throttle).append("/s");
+        }
+        mProfile = profile.build();
+        mProfileDescription = description.length() == 0 ? "none" : description.substring(2);
+
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new TreeMap<String, String>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but was " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        StubTraktServer server = new StubTraktServer().start();
+        server.setProfile(mProfile);
+        final Trakt trakt = new Trakt(new TraktConfiguration.Builder()
+                .setApiUrl(server.getUrl())
+                .setApiKey("load-test")
+                .setAuthentication("user", "sha1")
+                .setTransport(new Transport.Builder().setMaxIdleConnections(mWorkers).build())
+                .build());
+        System.out.printf("%d workers, target rate %s, server profile: %s%n", mWorkers,
+                mRate == 0 ? "unlimited" : mRate + " calls/s", mProfileDescription);
+
+        long start = System.nanoTime();
+        final long measureStart = start + mWarmupNanos;
+        final long end = measureStart + mDurationNanos;
+        final long intervalNanos = mRate == 0 ? 0 : TimeUnit.SECONDS.toNanos(mWorkers) / mRate;
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < mWorkers; i++) {
+            // Spread the first calls of the workers evenly over one interval.
+            final long first = start + intervalNanos * i / mWorkers;
+            final Random random = new Random(i);
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work(trakt, random, first, intervalNanos, end);
+                }
+            }, "load-test-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long[] threadIds = new long[workers.size()];
+        for (int i = 0; i < threadIds.length; i++) {
+            threadIds[i] = workers.get(i).getId();
+        }
+        waitUntil(measureStart, start, "warm-up");
+
+        // Start measuring: fresh statistics, a fresh reporter and GC baselines.
+        HistogramReporter reporter = new HistogramReporter();
+        trakt.setMetricsReporter(reporter);
+        mStats = new Stats();
+        Snapshot before = new Snapshot(threadIds);
+        waitUntil(end, measureStart, "measure");
+        Snapshot after = new Snapshot(threadIds);
+        Stats stats = mStats;
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        server.shutdown();
+        report(stats, reporter, before, after);
+    }
+
+    private void work(Trakt trakt, Random random, long first, long intervalNanos, long end) {
+        long next = first;
+        Stats phase = mStats;
+        while (true) {
+            // Calls are counted in the phase they were scheduled in.
+            Stats stats = mStats;
+            if (stats != phase) {
+                phase = stats;
+                // Do not carry a backlog of the cold client over into the measurement.
+                next = Math.max(next, System.nanoTime());
+            }
+            long scheduled;
+            if (intervalNanos == 0) {
+                scheduled = System.nanoTime();
+            } else {
+                scheduled = next;
+                next += intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            if (scheduled >= end) {
+                return;
+            }
+
+            Operation operation = mMix[random.nextInt(mMix.length)];
+            String error = null;
+            try {
+                operation.call(trakt);
+            } catch (RetrofitError e) {
+                error = describe(e);
+            } catch (RuntimeException e) {
+                error = e.getClass().getSimpleName();
+            }
+            stats.record(operation, System.nanoTime() - scheduled, error);
+        }
+    }
+
+    private void waitUntil(long deadline, long phaseStart, String phase)
+            throws InterruptedException {
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(PROGRESS_INTERVAL_NANOS, deadline - now));
+            now = System.nanoTime();
+            double seconds = (now - phaseStart) / 1e9;
+            Stats stats = mStats;
+            System.out.printf("%-8s %5.0f s  %8d calls  %8.1f calls/s  %6d errors%n", phase,
+                    seconds, stats.getCalls(), stats.getCalls() / seconds, stats.getErrors());
+        }
+    }
+
+    private void report(Stats stats, HistogramReporter reporter, Snapshot before,
+            Snapshot after) {
+        double seconds = (after.nanoTime - before.nanoTime) / 1e9;
+        long calls = stats.getCalls();
+        System.out.println();
+        System.out.printf("Throughput: %.1f calls/s, %d calls in %.1f s%n", calls / seconds, calls,
+                seconds);
+
+        System.out.println();
+        System.out.printf("%-10s %9s %8s %7s %9s %9s %9s %9s %9s%n", "operation", "calls",
+                "errors", "error%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            printLatency(operation.name().toLowerCase(Locale.US), stats.latencies.get(operation),
+                    stats.errors.get(operation).get());
+        }
+        printLatency("all", stats.all, stats.getErrors());
+
+        if (!stats.errorKinds.isEmpty()) {
+            System.out.println();
+            System.out.print("Errors:");
+            for (Map.Entry<String, AtomicLong> kind
+                    : new TreeMap<String, AtomicLong>(stats.errorKinds).entrySet()) {
+                System.out.printf(" %s %d", kind.getKey(), kind.getValue().get());
+            }
+            System.out.println();
+        }
+
+        // Where the time of successful and failed requests went, as seen by the client.
+        System.out.println();
+        System.out.printf("%-50s %9s %9s %9s %9s%n", "endpoint p99 ms", "1st byte", "download",
+                "decode", "total");
+        for (Map.Entry<String, HistogramReporter.Endpoint> entry
+                : new TreeMap<String, HistogramReporter.Endpoint>(reporter.getEndpoints())
+                .entrySet()) {
+            HistogramReporter.Endpoint endpoint = entry.getValue();
+            System.out.printf("%-50s %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    millis(endpoint.getFirstByte().getPercentile(99)),
+                    millis(endpoint.getDownload().getPercentile(99)),
+                    millis(endpoint.getDeserialization().getPercentile(99)),
+                    millis(endpoint.getTotal().getPercentile(99)));
+        }
+
+        System.out.println();
+        long allocated = after.allocatedBytes - before.allocatedBytes;
+        if (before.allocatedBytes >= 0 && calls > 0) {
+            System.out.printf("Allocated by workers: %.1f MB/s, %d bytes per call%n",
+                    allocated / seconds / (1 << 20), allocated / calls);
+        }
+        System.out.printf("Heap: %d MB used, %d MB peak, %d MB max%n",
+                after.heapUsed >> 20, after.heapPeak >> 20, after.heapMax >> 20);
+        for (Map.Entry<String, long[]> collector : after.collectors.entrySet()) {
+            long[] previous = before.collectors.get(collector.getKey());
+            long count = collector.getValue()[0] - previous[0];
+            long millis = collector.getValue()[1] - previous[1];
+            System.out.printf("GC %s: %d collections, %d ms, %.2f%% of the time%n",
+                    collector.getKey(), count, millis, millis / 10.0 / seconds);
+        }
+    }
+
+    private static void printLatency(String name, LatencyHistogram latencies, long errors) {
+        long calls = latencies.getCount();
+        System.out.printf("%-10s %9d %8d %7.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, calls,
+                errors, calls == 0 ? 0 : errors * 100.0 / calls,
+                millis(latencies.getPercentile(50)), millis(latencies.getPercentile(90)),
+                millis(latencies.getPercentile(99)), millis(latencies.getPercentile(99.9)),
+                millis(latencies.getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String describe(RetrofitError error) {
+        if (error.isNetworkError()) {
+            return "network";
+        }
+        retrofit.client.Response response = error.getResponse();
+        if (response == null) {
+            return "unexpected";
+        }
+        int status = response.getStatus();
+        return status >= 200 && status < 300 ? "conversion" : "http-" + status;
+    }
+
+    private static String option(Map<String, String> options, String name, String defaultValue) {
+        String value = options.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Expands the weights to an array to pick operations from uniformly.
+     */
+    private static Operation[] parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<Operation, Integer>(Operation.class);
+        if (mix == null) {
+            for (Operation operation : Operation.values()) {
+                weights.put(operation, operation.defaultWeight);
+            }
+        } else {
+            for (String entry : mix.split(",")) {
+                String[] weight = entry.split(":");
+                weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.US)),
+                        Integer.parseInt(weight[1].trim()));
+            }
+        }
+        List<Operation> expanded = new ArrayList<Operation>();
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                expanded.add(weight.getKey());
+            }
+        }
+        if (expanded.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operations.");
+        }
+        return expanded.toArray(new Operation[expanded.size()]);
+    }
+
+    /**
+     * Latencies and errors of one phase, recorded without locking.
+     */
+    private static final class Stats {
+
+        final Map<Operation, LatencyHistogram> latencies
+                = new EnumMap<Operation, LatencyHistogram>(Operation.class);
+
+        final Map<Operation, AtomicLong> errors
+                = new EnumMap<Operation, AtomicLong>(Operation.class);
+
+        final LatencyHistogram all = new LatencyHistogram();
+
+        final AtomicLong allErrors = new AtomicLong();
+
+        final ConcurrentMap<String, AtomicLong> errorKinds
+                = new ConcurrentHashMap<String, AtomicLong>();
+
+        Stats() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+                errors.put(operation, new AtomicLong());
+            }
+        }
+
+        void record(Operation operation, long nanos, String error) {
+            latencies.get(operation).record(nanos);
+            all.record(nanos);
+            if (error != null) {
+                errors.get(operation).incrementAndGet();
+                allErrors.incrementAndGet();
+                AtomicLong count = errorKinds.get(error);
+                if (count == null) {
+                    AtomicLong created = new AtomicLong();
+                    count = errorKinds.putIfAbsent(error, created);
+                    if (count == null) {
+                        count = created;
+                    }
+                }
+                count.incrementAndGet();
+            }
+        }
+
+        long getCalls() {
+            return all.getCount();
+        }
+
+        long getErrors() {
+            return allErrors.get();
+        }
+    }
+
+    /**
+     * Heap, collector and allocation counters at one point in time.
+     */
+    private static final class Snapshot {
+
+        final long nanoTime = System.nanoTime();
+
+        final long heapUsed;
+
+        final long heapMax;
+
+        /**
+         * Sum of the peaks of all heap pools since the previous snapshot.
+         */
+        final long heapPeak;
+
+        /**
+         * Collection count and time in milliseconds by collector name.
+         */
+        final Map<String, long[]> collectors = new TreeMap<String, long[]>();
+
+        /**
+         * Bytes allocated by the worker threads so far, -1 if the JVM does not tell.
+         */
+        final long allocatedBytes;
+
+        Snapshot(long[] threadIds) {
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            heapUsed = heap.getUsed();
+            heapMax = heap.getMax();
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                    pool.resetPeakUsage();
+                }
+            }
+            heapPeak = peak;
+            for (GarbageCollectorMXBean collector
+                    : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collectors.put(collector.getName(), new long[] {
+                        collector.getCollectionCount(), collector.getCollectionTime()
+                });
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long allocated = -1;
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                allocated = 0;
+                for (long bytes : ((com.sun.management.ThreadMXBean) threads)
+                        .getThreadAllocatedBytes(threadIds)) {
+                    allocated += Math.max(0, bytes);
+                }
+            }
+            allocatedBytes = allocated;
+        }
+    }
+}
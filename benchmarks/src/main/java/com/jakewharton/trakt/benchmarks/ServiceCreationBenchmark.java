@@ -0,0 +1,107 @@
+package com.jakewharton.trakt.benchmarks;
+
+import com.jakewharton.trakt.Trakt;
+import com.jakewharton.trakt.TraktHelper;
+import com.jakewharton.trakt.entities.TvShow;
+import com.jakewharton.trakt.services.ShowService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.RequestInterceptor;
+import retrofit.RestAdapter;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.converter.GsonConverter;
+import retrofit.mime.TypedByteArray;
+
+/**
+ * Per-call cost of obtaining a service from {@link Trakt} compared to creating a new retrofit
+ * proxy each time, which is what {@link Trakt} did before caching its proxies.
+ *
+ * <p>The {@code invoke*} benchmarks also call an endpoint against an in-memory {@link Client}, as a
+ * fresh proxy has to parse the annotations of the invoked method again on first use.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceCreationBenchmark {
+
+    private Trakt trakt;
+
+    private RestAdapter restAdapter;
+
+    private ShowService cachedShowService;
+
+    @Setup
+    public void setUp() {
+        trakt = new Trakt().setApiKey("benchmark");
+        // Warm the cache, the first call always has to create the proxy.
+        trakt.showService();
+
+        restAdapter = new RestAdapter.Builder()
+                .setServer("http://localhost")
+                .setClient(new EmptyListClient())
+                .setConverter(new GsonConverter(TraktHelper.getGsonBuilder().create()))
+                .setRequestInterceptor(new RequestInterceptor() {
+                    @Override
+                    public void intercept(RequestFacade requestFacade) {
+                        requestFacade.addPathParam("apikey", "benchmark");
+                    }
+                })
+                .build();
+        cachedShowService = restAdapter.create(ShowService.class);
+    }
+
+    @Benchmark
+    public ShowService createProxy() {
+        return restAdapter.create(ShowService.class);
+    }
+
+    @Benchmark
+    public ShowService cachedAccessor() {
+        return trakt.showService();
+    }
+
+    @Benchmark
+    public List<TvShow> invokeNewProxy() {
+        return restAdapter.create(ShowService.class).trending();
+    }
+
+    @Benchmark
+    public List<TvShow> invokeCachedProxy() {
+        return cachedShowService.trending();
+    }
+
+    /**
+     * Answers every request with an empty JSON array without touching the network.
+     */
+    static class EmptyListClient implements Client {
+
+        private static final byte[] BODY = "[]".getBytes();
+
+        @Override
+        public Response execute(Request request) throws IOException {
+            return new Response(200, "OK", Collections.<Header>emptyList(),
+                    new TypedByteArray("application/json", BODY));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jakewharton.trakt.benchmarks;
+
+import com.jakewharton.trakt.Transport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+/**
+ * Load test of sustained requests per second against a local stub server, with a pooled {@link
+ * Transport} reusing keep-alive connections versus one that opens a new connection per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final byte[] BODY = "{\"status\":\"success\",\"message\":\"ok\"}"
+            .getBytes();
+
+    /**
+     * Maximum number of idle connections, 0 disables pooling.
+     */
+    @Param({ "0", "8" })
+    public int maxIdleConnections;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private Client client;
+
+    private String url;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Otherwise Nagle's algorithm delays each keep-alive response by the delayed ACK timeout.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, BODY.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(BODY);
+                out.close();
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort()
+                + "/show/summary.json/benchmark/1";
+
+        client = new Transport.Builder()
+                .setMaxIdleConnections(maxIdleConnections)
+                .build()
+                .getClient();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.stop(0);
+        serverExecutor.shutdown();
+    }
+
+    @Benchmark
+    public int request() throws IOException {
+        Response response = client.execute(
+                new Request("GET", url, Collections.<Header>emptyList(), null));
+        // The body has to be consumed fully before the connection can be reused.
+        InputStream in = response.getBody().in();
+        try {
+            int total = 0;
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+            return total;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.jakewharton.trakt;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the top-level classes of the entity package. Compiling any of them with the {@code
+ * generated-adapters} profile runs the adapter processor, which generates readers for every
+ * entity of the package, annotated or not.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface AdaptedEntity {
+}
@@ -0,0 +1,438 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.ActionResponse;
+import com.jakewharton.trakt.entities.Movie;
+import com.jakewharton.trakt.entities.Response;
+import com.jakewharton.trakt.enumerations.Status;
+import com.jakewharton.trakt.services.MovieService;
+import com.jakewharton.trakt.services.ShowService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Marks large numbers of episodes or movies as seen or adds them to the library, e.g. when
+ * importing the history of a user. The list is split into chunks which are posted as separate
+ * requests, at most {@link Builder#setParallelism(int) parallelism} at a time, and their responses
+ * are merged into one {@link Result}. A failed chunk does not stop the others, the result tells
+ * which items to submit again.
+ *
+ * <p>Chunks are posted through the given services, so a {@link RateLimiter} or {@link Resilience}
+ * of the {@link Trakt} instance applies to each of them, and {@link Trakt#as(Credentials)} posts
+ * them on behalf of another user. An instance holds no state of its own and may be shared by any
+ * number of threads.</p>
+ */
+public final class BulkMutations {
+
+    private final int mChunkSize;
+
+    private final int mParallelism;
+
+    private final Executor mExecutor;
+
+    private BulkMutations(Builder builder) {
+        mChunkSize = builder.mChunkSize;
+        mParallelism = builder.mParallelism;
+        mExecutor = builder.mExecutor;
+    }
+
+    /**
+     * Like {@link ShowService#episodeSeen(ShowService.Episodes)}, in chunks.
+     */
+    public Result episodeSeen(final TraktServices services, ShowService.Episodes episodes) {
+        return episodes(episodes, new Mutation<ShowService.Episodes>() {
+            @Override
+            public Response post(ShowService.Episodes chunk) {
+                return services.showService().episodeSeen(chunk);
+            }
+        });
+    }
+
+    /**
+     * Like {@link ShowService#episodeLibrary(ShowService.Episodes)}, in chunks.
+     */
+    public Result episodeLibrary(final TraktServices services, ShowService.Episodes episodes) {
+        return episodes(episodes, new Mutation<ShowService.Episodes>() {
+            @Override
+            public Response post(ShowService.Episodes chunk) {
+                return services.showService().episodeLibrary(chunk);
+            }
+        });
+    }
+
+    /**
+     * Like {@link MovieService#seen(MovieService.Movies)}, in chunks.
+     */
+    public Result movieSeen(final TraktServices services, MovieService.Movies movies) {
+        return movies(movies, new Mutation<MovieService.Movies>() {
+            @Override
+            public Response post(MovieService.Movies chunk) {
+                return services.movieService().seen(chunk);
+            }
+        });
+    }
+
+    /**
+     * Like {@link MovieService#library(MovieService.Movies)}, in chunks.
+     */
+    public Result movieLibrary(final TraktServices services, MovieService.Movies movies) {
+        return movies(movies, new Mutation<MovieService.Movies>() {
+            @Override
+            public Response post(MovieService.Movies chunk) {
+                return services.movieService().library(chunk);
+            }
+        });
+    }
+
+    private Result episodes(final ShowService.Episodes episodes,
+            final Mutation<ShowService.Episodes> mutation) {
+        if (episodes == null || episodes.episodes == null) {
+            throw new IllegalArgumentException("Episodes must not be null.");
+        }
+        return run(episodes.episodes.size(), new Mutation<int[]>() {
+            @Override
+            public Response post(int[] range) {
+                ShowService.Episodes chunk = new ShowService.Episodes(0,
+                        new ArrayList<ShowService.Episodes.Episode>(
+                                episodes.episodes.subList(range[0], range[1])));
+                chunk.tvdb_id = episodes.tvdb_id;
+                chunk.imdb_id = episodes.imdb_id;
+                chunk.title = episodes.title;
+                chunk.year = episodes.year;
+                return mutation.post(chunk);
+            }
+        });
+    }
+
+    private Result movies(final MovieService.Movies movies,
+            final Mutation<MovieService.Movies> mutation) {
+        if (movies == null || movies.movies == null) {
+            throw new IllegalArgumentException("Movies must not be null.");
+        }
+        return run(movies.movies.size(), new Mutation<int[]>() {
+            @Override
+            public Response post(int[] range) {
+                return mutation.post(new MovieService.Movies(new ArrayList<MovieService.SeenMovie>(
+                        movies.movies.subList(range[0], range[1]))));
+            }
+        });
+    }
+
+    /**
+     * Posts the chunks of a list of the given size, each given as its range of item indices. The
+     * calling thread posts chunks as well, so at most {@code parallelism - 1} tasks are executed.
+     */
+    private Result run(final int itemCount, final Mutation<int[]> mutation) {
+        final int chunkCount = (itemCount + mChunkSize - 1) / mChunkSize;
+        final Response[] responses = new Response[chunkCount];
+        final Throwable[] exceptions = new Throwable[chunkCount];
+        final AtomicInteger next = new AtomicInteger();
+        final Runnable poster = new Runnable() {
+            @Override
+            public void run() {
+                int chunk;
+                while ((chunk = next.getAndIncrement()) < chunkCount) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        next.set(chunkCount);
+                        break;
+                    }
+                    int from = chunk * mChunkSize;
+                    int to = Math.min(itemCount, from + mChunkSize);
+                    try {
+                        responses[chunk] = mutation.post(new int[] { from, to });
+                    } catch (Throwable t) {
+                        // Reported like any other failure rather than lost on a helper thread.
+                        exceptions[chunk] = t;
+                    }
+                }
+            }
+        };
+
+        int helpers = Math.max(0, Math.min(mParallelism, chunkCount) - 1);
+        final CountDownLatch done = new CountDownLatch(helpers);
+        Executor executor = mExecutor != null ? mExecutor : Trakt.DefaultExecutorHolder.EXECUTOR;
+        for (int i = 0; i < helpers; i++) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            poster.run();
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The calling thread posts the chunks of this helper as well.
+                done.countDown();
+            }
+        }
+        poster.run();
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                // Post no further chunks, but wait for those in flight to report their outcome.
+                next.set(chunkCount);
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return new Result(itemCount, mChunkSize, responses, exceptions);
+    }
+
+    private interface Mutation<T> {
+
+        Response post(T chunk);
+    }
+
+    /**
+     * Outcome of all chunks of one bulk mutation.
+     */
+    public static final class Result {
+
+        private final int mItemCount;
+
+        private final int mChunkCount;
+
+        private final List<Response> mResponses;
+
+        private final List<Failure> mFailures;
+
+        private final List<Movie> mSkippedMovies;
+
+        private final int mInserted;
+
+        private final int mAlreadyExist;
+
+        private final int mSkipped;
+
+        Result(int itemCount, int chunkSize, Response[] responses, Throwable[] exceptions) {
+            List<Response> succeeded = new ArrayList<Response>();
+            List<Failure> failures = new ArrayList<Failure>();
+            List<Movie> skippedMovies = new ArrayList<Movie>();
+            int inserted = 0;
+            int alreadyExist = 0;
+            int skipped = 0;
+            for (int chunk = 0; chunk < responses.length; chunk++) {
+                int from = chunk * chunkSize;
+                int to = Math.min(itemCount, from + chunkSize);
+                Response response = responses[chunk];
+                if (exceptions[chunk] != null) {
+                    failures.add(new Failure(from, to, null, exceptions[chunk]));
+                } else if (response == null) {
+                    failures.add(new Failure(from, to, null, new CancellationException(
+                            "Interrupted before the chunk was posted.")));
+                } else if (Status.FAILURE.equals(response.status)) {
+                    failures.add(new Failure(from, to, response, null));
+                } else {
+                    succeeded.add(response);
+                    if (response instanceof ActionResponse) {
+                        ActionResponse action = (ActionResponse) response;
+                        inserted += action.inserted;
+                        alreadyExist += action.already_exist;
+                        skipped += action.skipped;
+                        if (action.skipped_movies != null) {
+                            skippedMovies.addAll(action.skipped_movies);
+                        }
+                    }
+                }
+            }
+            mItemCount = itemCount;
+            mChunkCount = responses.length;
+            mResponses = Collections.unmodifiableList(succeeded);
+            mFailures = Collections.unmodifiableList(failures);
+            mSkippedMovies = Collections.unmodifiableList(skippedMovies);
+            mInserted = inserted;
+            mAlreadyExist = alreadyExist;
+            mSkipped = skipped;
+        }
+
+        /**
+         * Whether every chunk was accepted.
+         */
+        public boolean isSuccessful() {
+            return mFailures.isEmpty();
+        }
+
+        /**
+         * Number of items in the submitted list.
+         */
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        /**
+         * Number of requests the list was split into.
+         */
+        public int getChunkCount() {
+            return mChunkCount;
+        }
+
+        /**
+         * Responses of the accepted chunks, in the order of the list.
+         */
+        public List<Response> getResponses() {
+            return mResponses;
+        }
+
+        /**
+         * Chunks which were not accepted, in the order of the list.
+         */
+        public List<Failure> getFailures() {
+            return mFailures;
+        }
+
+        /**
+         * Sum of {@link ActionResponse#inserted} of the accepted chunks. Always 0 for episodes,
+         * whose endpoints do not report counts.
+         */
+        public int getInserted() {
+            return mInserted;
+        }
+
+        /**
+         * Sum of {@link ActionResponse#already_exist} of the accepted chunks.
+         */
+        public int getAlreadyExist() {
+            return mAlreadyExist;
+        }
+
+        /**
+         * Sum of {@link ActionResponse#skipped} of the accepted chunks.
+         */
+        public int getSkipped() {
+            return mSkipped;
+        }
+
+        /**
+         * {@link ActionResponse#skipped_movies} of all accepted chunks.
+         */
+        public List<Movie> getSkippedMovies() {
+            return mSkippedMovies;
+        }
+    }
+
+    /**
+     * A chunk which was not accepted, either because its request failed or because trakt answered
+     * with a failure status. Submit the items from {@link #getFromIndex()} to {@link #getToIndex()}
+     * again to retry it.
+     */
+    public static final class Failure {
+
+        private final int mFromIndex;
+
+        private final int mToIndex;
+
+        private final Response mResponse;
+
+        private final Throwable mException;
+
+        Failure(int fromIndex, int toIndex, Response response, Throwable exception) {
+            mFromIndex = fromIndex;
+            mToIndex = toIndex;
+            mResponse = response;
+            mException = exception;
+        }
+
+        /**
+         * Index of the first item of the chunk in the submitted list.
+         */
+        public int getFromIndex() {
+            return mFromIndex;
+        }
+
+        /**
+         * Index after the last item of the chunk in the submitted list.
+         */
+        public int getToIndex() {
+            return mToIndex;
+        }
+
+        /**
+         * The failure response of trakt, or {@code null} if the request failed.
+         */
+        public Response getResponse() {
+            return mResponse;
+        }
+
+        /**
+         * Why the request failed, usually a {@link retrofit.RetrofitError}, or {@code null} if
+         * trakt answered with a failure status. A {@link CancellationException} if the chunk was
+         * not posted as the calling thread was interrupted. Errors thrown while posting the chunk
+         * are reported here as well.
+         */
+        public Throwable getException() {
+            return mException;
+        }
+
+        /**
+         * The error reported by trakt or the message of the exception.
+         */
+        public String getMessage() {
+            return mResponse != null ? mResponse.error : mException.getMessage();
+        }
+    }
+
+    /**
+     * Build a new {@link BulkMutations}. Builders are not thread-safe.
+     */
+    public static final class Builder {
+
+        private int mChunkSize = 100;
+
+        private int mParallelism = 4;
+
+        private Executor mExecutor;
+
+        /**
+         * Maximum number of items posted in one request. Defaults to 100, small enough for each
+         * request to complete well within the read timeout.
+         */
+        public Builder setChunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize <= 0");
+            }
+            mChunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of chunks posted at the same time. Defaults to 4, 1 posts all chunks one
+         * after another on the calling thread.
+         */
+        public Builder setParallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism <= 0");
+            }
+            mParallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Executor posting chunks besides the calling thread. Pass {@code null}, the default, to
+         * use the pool of daemon threads {@link Trakt#submit(java.util.concurrent.Callable)} uses
+         * if no HTTP executor is set.
+         */
+        public Builder setExecutor(Executor executor) {
+            mExecutor = executor;
+            return this;
+        }
+
+        public BulkMutations build() {
+            return new BulkMutations(this);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.jakewharton.trakt;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.converter.ConversionException;
+import retrofit.converter.Converter;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+/**
+ * Counts how GET responses of a client backed by an OkHttp response cache were served, and lets
+ * converters skip decoding bodies which were served from cache and were decoded before.
+ *
+ * <p>OkHttp stores the source of each response in the {@code OkHttp-Response-Source} header. A
+ * response revalidated by the server arrives as {@code CONDITIONAL_CACHE 304}, its body is read
+ * from disk. If the previously decoded instance for the same URL and validator ({@code ETag} or
+ * {@code Last-Modified}) is still known, {@link #wrap(Converter)} returns it without parsing.</p>
+ *
+ * <p>Retrofit converts a response on the thread which executed it, right after {@link
+ * #execute(Request)} returns, so the response source is passed to the converter in a thread
+ * local. Retrofit wraps the body before converting it, so the converter recognizes it by its mime
+ * type and length.</p>
+ */
+final class CachingClient implements Client {
+
+    private static final String HEADER_RESPONSE_SOURCE = "OkHttp-Response-Source";
+
+    private static final String HEADER_ETAG = "ETag";
+
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+    private static final int MAX_DECODED_ENTRIES = 256;
+
+    private static final ThreadLocal<CachedResponse> CACHED_RESPONSE
+            = new ThreadLocal<CachedResponse>();
+
+    private final Client mDelegate;
+
+    private final AtomicLong mHitCount = new AtomicLong();
+
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    private final AtomicLong mRevalidationCount = new AtomicLong();
+
+    private final ReentrantLock mDecodedLock = new ReentrantLock();
+
+    private final Map<DecodedKey, Decoded> mDecoded = new DecodedMap();
+
+    CachingClient(Client delegate) {
+        mDelegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        CACHED_RESPONSE.remove();
+        Response response = mDelegate.execute(request);
+        if (!"GET".equals(request.getMethod())) {
+            return response;
+        }
+
+        String source = null;
+        String validator = null;
+        for (Header header : response.getHeaders()) {
+            String name = header.getName();
+            if (name == null) {
+                continue;
+            }
+            if (HEADER_RESPONSE_SOURCE.equalsIgnoreCase(name)) {
+                source = header.getValue();
+            } else if (HEADER_ETAG.equalsIgnoreCase(name)) {
+                validator = header.getValue();
+            } else if (validator == null && HEADER_LAST_MODIFIED.equalsIgnoreCase(name)) {
+                validator = header.getValue();
+            }
+        }
+
+        boolean fromCache;
+        if (source != null && source.startsWith("CACHE")) {
+            mHitCount.incrementAndGet();
+            fromCache = true;
+        } else if (source != null && source.equals("CONDITIONAL_CACHE 304")) {
+            mRevalidationCount.incrementAndGet();
+            fromCache = true;
+        } else {
+            mMissCount.incrementAndGet();
+            fromCache = false;
+        }
+
+        int status = response.getStatus();
+        if (status >= 200 && status < 300 && validator != null && response.getBody() != null) {
+            CACHED_RESPONSE.set(new CachedResponse(response.getBody(), request.getUrl(),
+                    validator, fromCache));
+        }
+        return response;
+    }
+
+    /**
+     * Responses served from cache without contacting the server.
+     */
+    long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * Responses downloaded from the server, including those replacing a stale cache entry.
+     */
+    long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * Responses served from cache after the server confirmed them with a 304.
+     */
+    long getRevalidationCount() {
+        return mRevalidationCount.get();
+    }
+
+    /**
+     * Returns a converter reusing decoded instances of responses served from cache.
+     */
+    Converter wrap(Converter converter) {
+        return new DecodedCacheConverter(converter);
+    }
+
+    private final class DecodedCacheConverter implements Converter {
+
+        private final Converter mDelegate;
+
+        DecodedCacheConverter(Converter delegate) {
+            mDelegate = delegate;
+        }
+
+        @Override
+        public Object fromBody(TypedInput body, Type type) throws ConversionException {
+            CachedResponse cached = CACHED_RESPONSE.get();
+            // Streams are consumed by their caller and can not be reused.
+            if (cached == null || !cached.matches(body) || StreamingConverter.isStream(type)) {
+                return mDelegate.fromBody(body, type);
+            }
+            CACHED_RESPONSE.remove();
+
+            DecodedKey key = new DecodedKey(cached.url, type);
+            if (cached.fromCache) {
+                Decoded decoded;
+                mDecodedLock.lock();
+                try {
+                    decoded = mDecoded.get(key);
+                } finally {
+                    mDecodedLock.unlock();
+                }
+                if (decoded != null && decoded.validator.equals(cached.validator)) {
+                    try {
+                        body.in().close();
+                    } catch (IOException ignored) {
+                    }
+                    return decoded.value;
+                }
+            }
+
+            Object value = mDelegate.fromBody(body, type);
+            mDecodedLock.lock();
+            try {
+                mDecoded.put(key, new Decoded(cached.validator, value));
+            } finally {
+                mDecodedLock.unlock();
+            }
+            return value;
+        }
+
+        @Override
+        public TypedOutput toBody(Object object) {
+            return mDelegate.toBody(object);
+        }
+    }
+
+    private static final class CachedResponse {
+
+        final String mimeType;
+
+        final long length;
+
+        final String url;
+
+        final String validator;
+
+        final boolean fromCache;
+
+        CachedResponse(TypedInput body, String url, String validator, boolean fromCache) {
+            this.mimeType = body.mimeType();
+            this.length = body.length();
+            this.url = url;
+            this.validator = validator;
+            this.fromCache = fromCache;
+        }
+
+        boolean matches(TypedInput body) {
+            return length == body.length()
+                    && (mimeType != null ? mimeType.equals(body.mimeType())
+                    : body.mimeType() == null);
+        }
+    }
+
+    private static final class DecodedKey {
+
+        final String url;
+
+        final Type type;
+
+        DecodedKey(String url, Type type) {
+            this.url = url;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DecodedKey)) {
+                return false;
+            }
+            DecodedKey other = (DecodedKey) o;
+            return url.equals(other.url) && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * url.hashCode() + type.hashCode();
+        }
+    }
+
+    private static final class Decoded {
+
+        final String validator;
+
+        final Object value;
+
+        Decoded(String validator, Object value) {
+            this.validator = validator;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Keeps the most recently used decoded instances.
+     */
+    private static final class DecodedMap extends LinkedHashMap<DecodedKey, Decoded> {
+
+        private static final long serialVersionUID = 1L;
+
+        DecodedMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DecodedKey, Decoded> eldest) {
+            return size() > MAX_DECODED_ENTRIES;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.jakewharton.trakt;
+
+/**
+ * Observes, modifies or short-circuits calls to service methods before retrofit turns them into
+ * requests. Interceptors run on the calling thread, in the order {@link Trakt} was configured with.
+ */
+interface CallInterceptor {
+
+    Object intercept(Chain chain) throws Throwable;
+
+    interface Chain {
+
+        ServiceMethod method();
+
+        Object[] args();
+
+        /**
+         * Passes the call on to the next interceptor, or to retrofit if this is the last one.
+         */
+        Object proceed() throws Throwable;
+
+        /**
+         * Like {@link #proceed()}, but passes the given arguments on instead, e.g. to wrap the
+         * {@link retrofit.Callback} of an asynchronous call.
+         */
+        Object proceed(Object[] args) throws Throwable;
+    }
+}
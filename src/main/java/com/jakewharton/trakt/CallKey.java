@@ -0,0 +1,76 @@
+package com.jakewharton.trakt;
+
+import java.util.Arrays;
+
+/**
+ * Identifies a call by the server and API key it is made with, its service method, arguments and
+ * the user it is made on behalf of. Two calls with equal keys request the same resource and
+ * receive the same response, even if made by different {@link Trakt} instances.
+ */
+final class CallKey {
+
+    final String apiUrl;
+
+    final String apiKey;
+
+    final ServiceMethod method;
+
+    final Object[] args;
+
+    final String authorization;
+
+    private final int mHashCode;
+
+    private CallKey(String apiUrl, String apiKey, ServiceMethod method, Object[] args,
+            String authorization) {
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.method = method;
+        this.args = args;
+        this.authorization = authorization;
+        int hashCode = apiUrl.hashCode();
+        hashCode = 31 * hashCode + (apiKey != null ? apiKey.hashCode() : 0);
+        hashCode = 31 * hashCode + method.hashCode();
+        hashCode = 31 * hashCode + Arrays.hashCode(args);
+        hashCode = 31 * hashCode + (authorization != null ? authorization.hashCode() : 0);
+        mHashCode = hashCode;
+    }
+
+    /**
+     * Returns the key of the given call, made with the given configuration or with the
+     * credentials bound to the current thread.
+     */
+    static CallKey of(CallInterceptor.Chain chain, TraktConfiguration configuration) {
+        String authorization = TraktRequestInterceptor.boundAuthorization();
+        if (authorization == null) {
+            authorization = configuration.getAuthorization();
+        }
+        return new CallKey(configuration.getApiUrl(), configuration.getApiKey(), chain.method(),
+                chain.args(), authorization);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CallKey)) {
+            return false;
+        }
+        CallKey other = (CallKey) o;
+        return method == other.method
+                && apiUrl.equals(other.apiUrl)
+                && equal(apiKey, other.apiKey)
+                && Arrays.equals(args, other.args)
+                && equal(authorization, other.authorization);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a != null ? a.equals(b) : b == null;
+    }
+}
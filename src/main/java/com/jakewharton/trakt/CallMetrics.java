@@ -0,0 +1,164 @@
+package com.jakewharton.trakt;
+
+/**
+ * Timings of one completed service call, passed to a {@link MetricsReporter}. All durations are
+ * in nanoseconds.
+ *
+ * <p>The phases of a call follow each other: it waits in the queue until its request is first
+ * sent, then the connection is established and the request written, the server answers with the
+ * first byte, the body is downloaded and decoded. Download and decoding overlap as the decoder
+ * reads from the network, so time spent reading the body is counted as download and only the rest
+ * as deserialization.</p>
+ */
+public final class CallMetrics {
+
+    /**
+     * How a call ended.
+     */
+    public enum Outcome {
+        /** A 2xx response was decoded. */
+        SUCCESS,
+        /** The server answered with a status other than 2xx. */
+        HTTP_ERROR,
+        /** No response was received, e.g. the connection failed or timed out. */
+        NETWORK_ERROR,
+        /** The response body could not be decoded. */
+        CONVERSION_ERROR
+    }
+
+    private final String mEndpoint;
+
+    private final String mHttpMethod;
+
+    private final Outcome mOutcome;
+
+    private final int mStatus;
+
+    private final int mAttempts;
+
+    private final long mQueueNanos;
+
+    private final long mConnectNanos;
+
+    private final long mFirstByteNanos;
+
+    private final long mDownloadNanos;
+
+    private final long mDeserializationNanos;
+
+    private final long mTotalNanos;
+
+    private final long mResponseBytes;
+
+    CallMetrics(String endpoint, String httpMethod, Outcome outcome, int status, int attempts,
+            long queueNanos, long connectNanos, long firstByteNanos, long downloadNanos,
+            long deserializationNanos, long totalNanos, long responseBytes) {
+        mEndpoint = endpoint;
+        mHttpMethod = httpMethod;
+        mOutcome = outcome;
+        mStatus = status;
+        mAttempts = attempts;
+        mQueueNanos = queueNanos;
+        mConnectNanos = connectNanos;
+        mFirstByteNanos = firstByteNanos;
+        mDownloadNanos = downloadNanos;
+        mDeserializationNanos = deserializationNanos;
+        mTotalNanos = totalNanos;
+        mResponseBytes = responseBytes;
+    }
+
+    /**
+     * Path template of the called endpoint, e.g. {@code /show/summary.json/{apikey}/{title}}, or
+     * the URL path for requests matching no service method.
+     */
+    public String getEndpoint() {
+        return mEndpoint;
+    }
+
+    /**
+     * HTTP method, e.g. {@code GET}.
+     */
+    public String getHttpMethod() {
+        return mHttpMethod;
+    }
+
+    public Outcome getOutcome() {
+        return mOutcome;
+    }
+
+    /**
+     * HTTP status of the response, or -1 if none was received.
+     */
+    public int getStatus() {
+        return mStatus;
+    }
+
+    /**
+     * Number of times the request was sent, more than 1 if it was retried. 0 if the call was
+     * answered by an {@link EntityCache} or a {@link RequestCoalescer} without a request of its
+     * own, all timings but the total are 0 then.
+     */
+    public int getAttempts() {
+        return mAttempts;
+    }
+
+    /**
+     * Time from the call until its request was first sent: waiting for the HTTP executor of an
+     * asynchronous call and for the rate limiter.
+     */
+    public long getQueueNanos() {
+        return mQueueNanos;
+    }
+
+    /**
+     * Time to obtain a connection, fresh or from the pool, and send the request. 0 if the
+     * transport uses a custom client, its time is counted as time to first byte.
+     */
+    public long getConnectNanos() {
+        return mConnectNanos;
+    }
+
+    /**
+     * Time from sending the request until the response status and headers arrived.
+     */
+    public long getFirstByteNanos() {
+        return mFirstByteNanos;
+    }
+
+    /**
+     * Time spent reading the response body.
+     */
+    public long getDownloadNanos() {
+        return mDownloadNanos;
+    }
+
+    /**
+     * Time spent decoding the response body, excluding reading it.
+     */
+    public long getDeserializationNanos() {
+        return mDeserializationNanos;
+    }
+
+    /**
+     * Time from the call until its result was decoded or it failed. Includes retries.
+     */
+    public long getTotalNanos() {
+        return mTotalNanos;
+    }
+
+    /**
+     * Bytes of the response body read by the decoder, after decompression.
+     */
+    public long getResponseBytes() {
+        return mResponseBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CallMetrics[" + mHttpMethod + " " + mEndpoint + ", outcome=" + mOutcome
+                + ", status=" + mStatus + ", attempts=" + mAttempts + ", queue=" + mQueueNanos
+                + ", connect=" + mConnectNanos + ", firstByte=" + mFirstByteNanos
+                + ", download=" + mDownloadNanos + ", deserialization=" + mDeserializationNanos
+                + ", total=" + mTotalNanos + ", bytes=" + mResponseBytes + "]";
+    }
+}
@@ -0,0 +1,16 @@
+package com.jakewharton.trakt;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request to an endpoint whose circuit breaker is open, see {@link
+ * Resilience}. Retrofit reports it as a network error.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String url) {
+        super("Circuit breaker open, not sending request to " + url);
+    }
+}
@@ -0,0 +1,56 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.util.Base64;
+
+import java.nio.charset.Charset;
+
+/**
+ * Immutable trakt user credentials. The value of the HTTP basic authentication header is encoded
+ * once on creation, so instances should be kept around and reused, e.g. one per user.
+ *
+ * @see Trakt#as(Credentials)
+ */
+public final class Credentials {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String mUsername;
+
+    private final String mPasswordSha1;
+
+    private final String mAuthorization;
+
+    /**
+     * @param username     Username.
+     * @param passwordSha1 SHA1 of user password.
+     */
+    public Credentials(String username, String passwordSha1) {
+        if (username == null || passwordSha1 == null) {
+            throw new IllegalArgumentException("Username and password must not be null.");
+        }
+        mUsername = username;
+        mPasswordSha1 = passwordSha1;
+        String source = username + ":" + passwordSha1;
+        mAuthorization = "Basic " + Base64.encodeBytes(source.getBytes(UTF_8));
+    }
+
+    public String getUsername() {
+        return mUsername;
+    }
+
+    public String getPasswordSha1() {
+        return mPasswordSha1;
+    }
+
+    /**
+     * Value of the HTTP basic authentication header for these credentials.
+     */
+    public String getAuthorization() {
+        return mAuthorization;
+    }
+
+    @Override
+    public String toString() {
+        return "Credentials{username=" + mUsername + "}";
+    }
+}
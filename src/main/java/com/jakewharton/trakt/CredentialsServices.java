@@ -0,0 +1,70 @@
+package com.jakewharton.trakt;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Services of a {@link Trakt} instance which issue all requests with a fixed set of {@link
+ * Credentials}. Each call is forwarded to the shared service proxy of the {@link Trakt} instance
+ * while the credentials are bound to the calling thread.
+ */
+final class CredentialsServices extends TraktServices {
+
+    private final Trakt mTrakt;
+
+    private final Credentials mCredentials;
+
+    private final ConcurrentMap<Class<?>, Object> mServices
+            = new ConcurrentHashMap<Class<?>, Object>();
+
+    CredentialsServices(Trakt trakt, Credentials credentials) {
+        mTrakt = trakt;
+        mCredentials = credentials;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    <T> T getService(Class<T> service) {
+        Object proxy = mServices.get(service);
+        if (proxy == null) {
+            proxy = Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[] { service },
+                    new CredentialsHandler(service));
+            Object existing = mServices.putIfAbsent(service, proxy);
+            if (existing != null) {
+                proxy = existing;
+            }
+        }
+        return (T) proxy;
+    }
+
+    private final class CredentialsHandler implements InvocationHandler {
+
+        private final Class<?> mService;
+
+        CredentialsHandler(Class<?> service) {
+            mService = service;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+
+            // Look up the delegate on each call, so changes to the Trakt instance are picked up.
+            Object delegate = mTrakt.getService(mService);
+            Credentials previous = TraktRequestInterceptor.bindCredentials(mCredentials);
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                TraktRequestInterceptor.bindCredentials(previous);
+            }
+        }
+    }
+}
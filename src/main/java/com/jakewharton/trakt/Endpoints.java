@@ -0,0 +1,123 @@
+package com.jakewharton.trakt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps request URLs back to the path templates of the service methods which created them, e.g.
+ * {@code http://api.trakt.tv/show/summary.json/key/213221} to {@code
+ * /show/summary.json/{apikey}/{title}}. Lets layers below retrofit, which only see requests, keep
+ * state per endpoint.
+ */
+final class Endpoints {
+
+    /**
+     * Templates by HTTP method and number of path segments.
+     */
+    private static final Map<String, List<Template>> TEMPLATES = buildTemplates();
+
+    private Endpoints() {
+    }
+
+    /**
+     * Returns the path template of the endpoint the given request was made to, or {@code null} if
+     * it matches none. If a server path prefix is used, only the end of the URL path is matched.
+     */
+    static String match(String httpMethod, String url) {
+        String[] segments = segments(url);
+        Template best = null;
+        int bestLiterals = -1;
+        for (int count = segments.length; count > 0; count--) {
+            List<Template> templates = TEMPLATES.get(httpMethod + count);
+            if (templates == null) {
+                continue;
+            }
+            int offset = segments.length - count;
+            for (Template template : templates) {
+                int literals = template.match(segments, offset);
+                if (literals > bestLiterals) {
+                    best = template;
+                    bestLiterals = literals;
+                }
+            }
+            if (best != null) {
+                return best.path;
+            }
+        }
+        return null;
+    }
+
+    private static String[] segments(String url) {
+        int start = url.indexOf("://");
+        start = start < 0 ? 0 : url.indexOf('/', start + 3);
+        if (start < 0) {
+            return new String[0];
+        }
+        int end = url.indexOf('?', start);
+        String path = end < 0 ? url.substring(start + 1) : url.substring(start + 1, end);
+        return path.length() == 0 ? new String[0] : path.split("/");
+    }
+
+    private static Map<String, List<Template>> buildTemplates() {
+        Set<String> seen = new HashSet<String>();
+        Map<String, List<Template>> templates = new HashMap<String, List<Template>>();
+        for (ServiceMethod serviceMethod : ServiceMethod.all()) {
+            if (serviceMethod.path == null
+                    || !seen.add(serviceMethod.httpMethod + serviceMethod.path)) {
+                continue;
+            }
+            Template template = new Template(serviceMethod.path);
+            String key = serviceMethod.httpMethod + template.segments.length;
+            List<Template> list = templates.get(key);
+            if (list == null) {
+                list = new ArrayList<Template>();
+                templates.put(key, list);
+            }
+            list.add(template);
+        }
+        return templates;
+    }
+
+    private static final class Template {
+
+        final String path;
+
+        /**
+         * Literal segments, {@code null} for parameters.
+         */
+        final String[] segments;
+
+        Template(String path) {
+            this.path = path;
+            String[] segments = path.substring(1).split("/");
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].startsWith("{")) {
+                    segments[i] = null;
+                }
+            }
+            this.segments = segments;
+        }
+
+        /**
+         * Returns the number of literal segments matched, or -1 if the URL segments starting at
+         * {@code offset} do not match.
+         */
+        int match(String[] urlSegments, int offset) {
+            int literals = 0;
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i] == null) {
+                    continue;
+                }
+                if (!segments[i].equals(urlSegments[offset + i])) {
+                    return -1;
+                }
+                literals++;
+            }
+            return literals;
+        }
+    }
+}
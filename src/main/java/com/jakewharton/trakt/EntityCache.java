@@ -0,0 +1,418 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.Movie;
+import com.jakewharton.trakt.entities.Stats;
+import com.jakewharton.trakt.entities.TvEntity;
+import com.jakewharton.trakt.entities.TvShow;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import retrofit.Callback;
+import retrofit.RetrofitError;
+import retrofit.client.Response;
+
+/**
+ * In-memory cache of the decoded results of synchronous GET calls, keyed by service method,
+ * arguments and user, answering repeated calls without a request or JSON parsing. Callers share
+ * cached instances, so results must be treated as read-only.
+ */
+public final class EntityCache {
+
+    private static final int STRIPE_COUNT = 16;
+
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+
+    private static final long DEFAULT_TIME_TO_LIVE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Map<Class<?>, Long> mTimeToLiveNanos;
+
+    private final Stripe[] mStripes;
+
+    private final AtomicLong mHitCount = new AtomicLong();
+
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    private final AtomicLong mEvictionCount = new AtomicLong();
+
+    private EntityCache(Builder builder) {
+        mTimeToLiveNanos = new HashMap<Class<?>, Long>(builder.mTimeToLiveNanos);
+        int stripeCapacity = (builder.mMaxEntries + STRIPE_COUNT - 1) / STRIPE_COUNT;
+        mStripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            mStripes[i] = new Stripe(stripeCapacity, mEvictionCount);
+        }
+    }
+
+    /**
+     * Number of calls answered from the cache.
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * Number of cacheable calls which were not in the cache, or whose entry had expired.
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * Number of entries evicted to stay within the maximum number of entries.
+     */
+    public long getEvictionCount() {
+        return mEvictionCount.get();
+    }
+
+    /**
+     * Number of entries currently cached, including expired ones not yet removed.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : mStripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        for (Stripe stripe : mStripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Returns an interceptor answering cacheable calls made with the given configuration from
+     * this cache. Marking items as seen, adding them to or removing them from the library or the
+     * watchlist drops the cached library and watchlist of the user doing so.
+     */
+    CallInterceptor newInterceptor(final TraktConfiguration configuration) {
+        return new CallInterceptor() {
+            @Override
+            public Object intercept(Chain chain) throws Throwable {
+                if (!chain.method().isShareable()) {
+                    if (!isUserListMutation(chain.method())) {
+                        return chain.proceed();
+                    }
+                    String username = usernameOf(configuration);
+                    if (username == null) {
+                        return chain.proceed();
+                    }
+                    if (!chain.method().isSynchronous) {
+                        // Once the request completed, not while it is in flight.
+                        return chain.proceed(
+                                withInvalidatingCallback(chain.args(), configuration, username));
+                    }
+                    // Even a failed request may have been applied.
+                    try {
+                        return chain.proceed();
+                    } finally {
+                        invalidateUserLists(configuration, username);
+                    }
+                }
+                Long timeToLive = timeToLiveOf(chain.method());
+                if (timeToLive == null) {
+                    return chain.proceed();
+                }
+
+                CallKey key = CallKey.of(chain, configuration);
+                Stripe stripe = stripeFor(key);
+                Object value = stripe.get(key, System.nanoTime());
+                if (value != null) {
+                    mHitCount.incrementAndGet();
+                    return value;
+                }
+
+                mMissCount.incrementAndGet();
+                value = chain.proceed();
+                if (value != null) {
+                    stripe.put(key, value, System.nanoTime() + timeToLive);
+                }
+                return value;
+            }
+        };
+    }
+
+    private Long timeToLiveOf(ServiceMethod method) {
+        Type family = method.responseType;
+        if (family instanceof ParameterizedType
+                && ((ParameterizedType) family).getRawType() == List.class) {
+            family = ((ParameterizedType) family).getActualTypeArguments()[0];
+        }
+        return mTimeToLiveNanos.get(family);
+    }
+
+    /**
+     * Returns a copy of the arguments of an asynchronous call whose callback drops the lists of
+     * the given user before it is invoked.
+     */
+    @SuppressWarnings("unchecked")
+    private Object[] withInvalidatingCallback(Object[] args, TraktConfiguration configuration,
+            String username) {
+        Object[] wrapped = args.clone();
+        int last = wrapped.length - 1;
+        wrapped[last] = new InvalidatingCallback<Object>((Callback<Object>) wrapped[last],
+                configuration, username);
+        return wrapped;
+    }
+
+    /**
+     * Returns the name of the user calls with the given configuration are made on behalf of on
+     * the current thread, or {@code null} if they are anonymous.
+     */
+    private static String usernameOf(TraktConfiguration configuration) {
+        Credentials credentials = TraktRequestInterceptor.boundCredentials();
+        return credentials != null ? credentials.getUsername() : configuration.getUsername();
+    }
+
+    /**
+     * Removes the cached library and watchlist reads of the given user, whether read with their
+     * credentials or anonymously.
+     */
+    private void invalidateUserLists(TraktConfiguration configuration, String username) {
+        for (Stripe stripe : mStripes) {
+            stripe.removeUserLists(configuration.getApiUrl(), configuration.getApiKey(), username);
+        }
+    }
+
+    private static boolean isUserListMutation(ServiceMethod method) {
+        String path = method.path;
+        return "POST".equals(method.httpMethod) && path != null
+                && (path.startsWith("/movie/") || path.startsWith("/show/"))
+                && (path.contains("seen/") || path.contains("library/")
+                || path.contains("watchlist/"));
+    }
+
+    private static boolean isUserListRead(CallKey key, String apiUrl, String apiKey,
+            String username) {
+        String path = key.method.path;
+        if ((!path.startsWith("/user/library/") && !path.startsWith("/user/watchlist/"))
+                || key.args == null || !key.apiUrl.equals(apiUrl)
+                || (key.apiKey != null ? !key.apiKey.equals(apiKey) : apiKey != null)) {
+            return false;
+        }
+        for (Object arg : key.args) {
+            if (username.equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the lists of the user an asynchronous mutation was made for once it completed, before
+     * passing its result on.
+     */
+    private final class InvalidatingCallback<T> implements Callback<T> {
+
+        private final Callback<T> mDelegate;
+
+        private final TraktConfiguration mConfiguration;
+
+        private final String mUsername;
+
+        InvalidatingCallback(Callback<T> delegate, TraktConfiguration configuration,
+                String username) {
+            mDelegate = delegate;
+            mConfiguration = configuration;
+            mUsername = username;
+        }
+
+        @Override
+        public void success(T result, Response response) {
+            invalidateUserLists(mConfiguration, mUsername);
+            mDelegate.success(result, response);
+        }
+
+        @Override
+        public void failure(RetrofitError error) {
+            // Even a failed request may have been applied.
+            invalidateUserLists(mConfiguration, mUsername);
+            mDelegate.failure(error);
+        }
+    }
+
+    private Stripe stripeFor(CallKey key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return mStripes[hash & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * A least recently used map guarded by its own lock.
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock mLock = new ReentrantLock();
+
+        private final Map<CallKey, Entry> mEntries;
+
+        Stripe(int capacity, AtomicLong evictionCount) {
+            mEntries = new EntryMap(capacity, evictionCount);
+        }
+
+        Object get(CallKey key, long now) {
+            mLock.lock();
+            try {
+                Entry entry = mEntries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (now - entry.expiresAtNanos >= 0) {
+                    mEntries.remove(key);
+                    return null;
+                }
+                return entry.value;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        void removeUserLists(String apiUrl, String apiKey, String username) {
+            mLock.lock();
+            try {
+                Iterator<CallKey> keys = mEntries.keySet().iterator();
+                while (keys.hasNext()) {
+                    if (isUserListRead(keys.next(), apiUrl, apiKey, username)) {
+                        keys.remove();
+                    }
+                }
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        void put(CallKey key, Object value, long expiresAtNanos) {
+            mLock.lock();
+            try {
+                mEntries.put(key, new Entry(value, expiresAtNanos));
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        int size() {
+            mLock.lock();
+            try {
+                return mEntries.size();
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        void clear() {
+            mLock.lock();
+            try {
+                mEntries.clear();
+            } finally {
+                mLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used entry once it holds more than its capacity.
+     */
+    private static final class EntryMap extends LinkedHashMap<CallKey, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int mCapacity;
+
+        private final AtomicLong mEvictionCount;
+
+        EntryMap(int capacity, AtomicLong evictionCount) {
+            super(16, 0.75f, true);
+            mCapacity = capacity;
+            mEvictionCount = evictionCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CallKey, Entry> eldest) {
+            if (size() > mCapacity) {
+                mEvictionCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry {
+
+        final Object value;
+
+        final long expiresAtNanos;
+
+        Entry(Object value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Build a new {@link EntityCache}. Builders are not thread-safe.
+     */
+    public static class Builder {
+
+        private int mMaxEntries = DEFAULT_MAX_ENTRIES;
+
+        private final Map<Class<?>, Long> mTimeToLiveNanos = new HashMap<Class<?>, Long>();
+
+        public Builder() {
+            mTimeToLiveNanos.put(TvShow.class, DEFAULT_TIME_TO_LIVE_NANOS);
+            mTimeToLiveNanos.put(Movie.class, DEFAULT_TIME_TO_LIVE_NANOS);
+            mTimeToLiveNanos.put(TvEntity.class, DEFAULT_TIME_TO_LIVE_NANOS);
+            mTimeToLiveNanos.put(Stats.class, DEFAULT_TIME_TO_LIVE_NANOS);
+        }
+
+        /**
+         * Maximum number of cached results, rounded up to a multiple of 16. Defaults to 1024.
+         *
+         * <p>Each of the 16 stripes holds an equal share, so fewer results may be cached when
+         * keys spread unevenly, but never more than the rounded maximum.</p>
+         */
+        public Builder setMaxEntries(int maxEntries) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("maxEntries <= 0");
+            }
+            mMaxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Time results of methods returning the given type, or a list of it, are cached for. By
+         * default {@link TvShow}, {@link Movie}, {@link TvEntity} and {@link Stats} results are
+         * kept for 10 minutes. A duration of 0 stops caching that type.
+         */
+        public Builder setTimeToLive(Class<?> resultType, long duration, TimeUnit unit) {
+            if (resultType == null) {
+                throw new IllegalArgumentException("Result type must not be null.");
+            }
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration < 0");
+            }
+            if (duration == 0) {
+                mTimeToLiveNanos.remove(resultType);
+            } else {
+                mTimeToLiveNanos.put(resultType, unit.toNanos(duration));
+            }
+            return this;
+        }
+
+        public EntityCache build() {
+            return new EntityCache(this);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.jakewharton.trakt;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+/**
+ * Asks for gzip compressed responses, decompresses them while they are read and counts the bytes
+ * received per endpoint before and after decompression.
+ *
+ * <p>OkHttp negotiates gzip on its own, but then hides the compressed size. Setting {@code
+ * Accept-Encoding} explicitly turns that off, so this client sees the compressed body. It is
+ * inflated by a {@link GZIPInputStream} wrapped around the network stream, which the converter
+ * reads from directly, so the body is never buffered. Compressed responses therefore report an
+ * unknown length.</p>
+ *
+ * <p>Bodies are counted by the endpoint path template their URL matches, which is looked up once
+ * per URL and kept for up to {@value #MAX_CACHED_URLS} URLs. Empty bodies, e.g. of {@code 304 Not
+ * Modified} responses, are passed on as they are.</p>
+ *
+ * <p>Request bodies of at least {@value #MIN_COMPRESSED_REQUEST_SIZE} bytes can be compressed as
+ * well. This is off by default because servers must support {@code Content-Encoding: gzip} on
+ * requests.</p>
+ */
+final class GzipClient implements Client {
+
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * Smaller bodies are sent as they are, compressing them saves next to nothing.
+     */
+    static final int MIN_COMPRESSED_REQUEST_SIZE = 1024;
+
+    /**
+     * The URL cache is cleared once it holds more URLs, e.g. one per show summary looked up.
+     */
+    static final int MAX_CACHED_URLS = 1024;
+
+    private final Client mDelegate;
+
+    private final boolean mCompressRequests;
+
+    private final ConcurrentMap<String, Counter> mCounters
+            = new ConcurrentHashMap<String, Counter>();
+
+    /**
+     * Counters by HTTP method and URL, to not match the endpoint of repeated requests again.
+     */
+    private final ConcurrentMap<String, Counter> mCountersByUrl
+            = new ConcurrentHashMap<String, Counter>();
+
+    GzipClient(Client delegate, boolean compressRequests) {
+        mDelegate = delegate;
+        mCompressRequests = compressRequests;
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        Response response = mDelegate.execute(compress(request));
+        TypedInput body = response.getBody();
+        int status = response.getStatus();
+        if (body == null || body.length() == 0 || status == 204 || status == 304) {
+            return response;
+        }
+
+        Counter counter = counter(request);
+        List<Header> headers = response.getHeaders();
+        if (!isGzip(headers)) {
+            return new Response(response.getStatus(), response.getReason(), headers,
+                    new CountingTypedInput(body, counter, false));
+        }
+
+        List<Header> inflatedHeaders = new ArrayList<Header>(headers.size());
+        for (Header header : headers) {
+            String name = header.getName();
+            if (!HEADER_CONTENT_ENCODING.equalsIgnoreCase(name)
+                    && !HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                inflatedHeaders.add(header);
+            }
+        }
+        return new Response(response.getStatus(), response.getReason(), inflatedHeaders,
+                new CountingTypedInput(body, counter, true));
+    }
+
+    /**
+     * Returns a snapshot of the bytes received so far, by endpoint path template.
+     */
+    Map<String, Transport.ResponseBytes> getResponseBytes() {
+        Map<String, Transport.ResponseBytes> snapshot
+                = new LinkedHashMap<String, Transport.ResponseBytes>();
+        for (Map.Entry<String, Counter> entry : mCounters.entrySet()) {
+            Counter counter = entry.getValue();
+            snapshot.put(entry.getKey(), new Transport.ResponseBytes(
+                    counter.compressed.get(), counter.uncompressed.get()));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private Request compress(Request request) {
+        boolean acceptsEncoding = false;
+        boolean hasContentEncoding = false;
+        for (Header header : request.getHeaders()) {
+            String name = header.getName();
+            if (HEADER_ACCEPT_ENCODING.equalsIgnoreCase(name)) {
+                acceptsEncoding = true;
+            } else if (HEADER_CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                hasContentEncoding = true;
+            }
+        }
+
+        TypedOutput body = request.getBody();
+        boolean compressBody = mCompressRequests && !hasContentEncoding && body != null
+                && body.length() >= MIN_COMPRESSED_REQUEST_SIZE;
+        if (acceptsEncoding && !compressBody) {
+            return request;
+        }
+
+        List<Header> headers = new ArrayList<Header>(request.getHeaders().size() + 2);
+        headers.addAll(request.getHeaders());
+        if (!acceptsEncoding) {
+            headers.add(new Header(HEADER_ACCEPT_ENCODING, GZIP));
+        }
+        if (compressBody) {
+            headers.add(new Header(HEADER_CONTENT_ENCODING, GZIP));
+            body = new GzipTypedOutput(body);
+        }
+        return new Request(request.getMethod(), request.getUrl(), headers, body);
+    }
+
+    private Counter counter(Request request) {
+        String url = request.getMethod() + " " + request.getUrl();
+        Counter counter = mCountersByUrl.get(url);
+        if (counter != null) {
+            return counter;
+        }
+
+        String key = Endpoints.match(request.getMethod(), request.getUrl());
+        if (key == null) {
+            key = URI.create(request.getUrl()).getPath();
+        }
+        counter = mCounters.get(key);
+        if (counter == null) {
+            Counter created = new Counter();
+            counter = mCounters.putIfAbsent(key, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        if (mCountersByUrl.size() >= MAX_CACHED_URLS) {
+            mCountersByUrl.clear();
+        }
+        mCountersByUrl.put(url, counter);
+        return counter;
+    }
+
+    private static boolean isGzip(List<Header> headers) {
+        for (Header header : headers) {
+            if (HEADER_CONTENT_ENCODING.equalsIgnoreCase(header.getName())) {
+                return GZIP.equalsIgnoreCase(header.getValue());
+            }
+        }
+        return false;
+    }
+
+    private static final class Counter {
+
+        final AtomicLong compressed = new AtomicLong();
+
+        final AtomicLong uncompressed = new AtomicLong();
+    }
+
+    /**
+     * Counts the bytes read from a response body, inflating it first if it is compressed.
+     */
+    private static final class CountingTypedInput implements TypedInput {
+
+        private final TypedInput mDelegate;
+
+        private final Counter mCounter;
+
+        private final boolean mGzip;
+
+        CountingTypedInput(TypedInput delegate, Counter counter, boolean gzip) {
+            mDelegate = delegate;
+            mCounter = counter;
+            mGzip = gzip;
+        }
+
+        @Override
+        public String mimeType() {
+            return mDelegate.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return mGzip ? -1 : mDelegate.length();
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            if (!mGzip) {
+                return new CountingInputStream(mDelegate.in(), mCounter.compressed,
+                        mCounter.uncompressed);
+            }
+            PushbackInputStream compressed = new PushbackInputStream(
+                    new CountingInputStream(mDelegate.in(), mCounter.compressed, null));
+            // A body of unknown length may still be empty, which has no gzip header to read.
+            int first = compressed.read();
+            if (first == -1) {
+                return compressed;
+            }
+            compressed.unread(first);
+            return new CountingInputStream(new GZIPInputStream(compressed), mCounter.uncompressed,
+                    null);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong mCount;
+
+        private final AtomicLong mOtherCount;
+
+        CountingInputStream(InputStream in, AtomicLong count, AtomicLong otherCount) {
+            super(in);
+            mCount = count;
+            mOtherCount = otherCount;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                add(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                add(skipped);
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void add(long count) {
+            mCount.addAndGet(count);
+            if (mOtherCount != null) {
+                mOtherCount.addAndGet(count);
+            }
+        }
+    }
+
+    /**
+     * Compresses a request body while it is written. Its compressed length is unknown, so it is
+     * sent chunked.
+     */
+    private static final class GzipTypedOutput implements TypedOutput {
+
+        private final TypedOutput mDelegate;
+
+        GzipTypedOutput(TypedOutput delegate) {
+            mDelegate = delegate;
+        }
+
+        @Override
+        public String fileName() {
+            return mDelegate.fileName();
+        }
+
+        @Override
+        public String mimeType() {
+            return mDelegate.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            GZIPOutputStream gzip = new GZIPOutputStream(out);
+            mDelegate.writeTo(gzip);
+            gzip.finish();
+        }
+    }
+}
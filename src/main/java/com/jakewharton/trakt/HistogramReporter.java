@@ -0,0 +1,141 @@
+package com.jakewharton.trakt;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Aggregates the timings of all calls into a {@link LatencyHistogram} per endpoint and phase, and
+ * counts bytes and outcomes per endpoint. Recording does not lock and, once an endpoint was seen,
+ * does not allocate.
+ */
+public final class HistogramReporter implements MetricsReporter {
+
+    private final ConcurrentMap<String, Endpoint> mEndpoints
+            = new ConcurrentHashMap<String, Endpoint>();
+
+    @Override
+    public void report(CallMetrics metrics) {
+        Endpoint endpoint = mEndpoints.get(metrics.getEndpoint());
+        if (endpoint == null) {
+            Endpoint created = new Endpoint();
+            endpoint = mEndpoints.putIfAbsent(metrics.getEndpoint(), created);
+            if (endpoint == null) {
+                endpoint = created;
+            }
+        }
+        endpoint.record(metrics);
+    }
+
+    /**
+     * Returns the metrics of the endpoint with the given path template, e.g. {@code
+     * /show/summary.json/{apikey}/{title}}, or {@code null} if it was not called so far.
+     */
+    public Endpoint getEndpoint(String endpoint) {
+        return mEndpoints.get(endpoint);
+    }
+
+    /**
+     * Returns the metrics of all endpoints called so far, by path template.
+     */
+    public Map<String, Endpoint> getEndpoints() {
+        return Collections.unmodifiableMap(new LinkedHashMap<String, Endpoint>(mEndpoints));
+    }
+
+    /**
+     * Metrics of one endpoint, updated as calls complete.
+     */
+    public static final class Endpoint {
+
+        private final LatencyHistogram mQueue = new LatencyHistogram();
+
+        private final LatencyHistogram mConnect = new LatencyHistogram();
+
+        private final LatencyHistogram mFirstByte = new LatencyHistogram();
+
+        private final LatencyHistogram mDownload = new LatencyHistogram();
+
+        private final LatencyHistogram mDeserialization = new LatencyHistogram();
+
+        private final LatencyHistogram mTotal = new LatencyHistogram();
+
+        private final AtomicLong mResponseBytes = new AtomicLong();
+
+        private final AtomicLongArray mOutcomes
+                = new AtomicLongArray(CallMetrics.Outcome.values().length);
+
+        Endpoint() {
+        }
+
+        void record(CallMetrics metrics) {
+            mQueue.record(metrics.getQueueNanos());
+            mConnect.record(metrics.getConnectNanos());
+            mFirstByte.record(metrics.getFirstByteNanos());
+            mDownload.record(metrics.getDownloadNanos());
+            mDeserialization.record(metrics.getDeserializationNanos());
+            mTotal.record(metrics.getTotalNanos());
+            mResponseBytes.addAndGet(metrics.getResponseBytes());
+            mOutcomes.incrementAndGet(metrics.getOutcome().ordinal());
+        }
+
+        /**
+         * See {@link CallMetrics#getQueueNanos()}.
+         */
+        public LatencyHistogram getQueue() {
+            return mQueue;
+        }
+
+        /**
+         * See {@link CallMetrics#getConnectNanos()}.
+         */
+        public LatencyHistogram getConnect() {
+            return mConnect;
+        }
+
+        /**
+         * See {@link CallMetrics#getFirstByteNanos()}.
+         */
+        public LatencyHistogram getFirstByte() {
+            return mFirstByte;
+        }
+
+        /**
+         * See {@link CallMetrics#getDownloadNanos()}.
+         */
+        public LatencyHistogram getDownload() {
+            return mDownload;
+        }
+
+        /**
+         * See {@link CallMetrics#getDeserializationNanos()}.
+         */
+        public LatencyHistogram getDeserialization() {
+            return mDeserialization;
+        }
+
+        /**
+         * See {@link CallMetrics#getTotalNanos()}. Its count is the number of completed calls.
+         */
+        public LatencyHistogram getTotal() {
+            return mTotal;
+        }
+
+        /**
+         * Sum of {@link CallMetrics#getResponseBytes()} of all calls.
+         */
+        public long getResponseBytes() {
+            return mResponseBytes.get();
+        }
+
+        /**
+         * Number of calls which ended with the given outcome.
+         */
+        public long getCount(CallMetrics.Outcome outcome) {
+            return mOutcomes.get(outcome.ordinal());
+        }
+    }
+}
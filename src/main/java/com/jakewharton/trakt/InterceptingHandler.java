@@ -0,0 +1,72 @@
+package com.jakewharton.trakt;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Passes every call to a service proxy through a list of {@link CallInterceptor}s before invoking
+ * the retrofit proxy.
+ */
+final class InterceptingHandler implements InvocationHandler {
+
+    private final Object mDelegate;
+
+    private final CallInterceptor[] mInterceptors;
+
+    InterceptingHandler(Object delegate, List<CallInterceptor> interceptors) {
+        mDelegate = delegate;
+        mInterceptors = interceptors.toArray(new CallInterceptor[interceptors.size()]);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(this, args);
+        }
+        return new RealChain(ServiceMethod.get(method), args, 0).proceed();
+    }
+
+    private final class RealChain implements CallInterceptor.Chain {
+
+        private final ServiceMethod mMethod;
+
+        private final Object[] mArgs;
+
+        private final int mIndex;
+
+        RealChain(ServiceMethod method, Object[] args, int index) {
+            mMethod = method;
+            mArgs = args;
+            mIndex = index;
+        }
+
+        @Override
+        public ServiceMethod method() {
+            return mMethod;
+        }
+
+        @Override
+        public Object[] args() {
+            return mArgs;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            return proceed(mArgs);
+        }
+
+        @Override
+        public Object proceed(Object[] args) throws Throwable {
+            if (mIndex < mInterceptors.length) {
+                return mInterceptors[mIndex].intercept(new RealChain(mMethod, args, mIndex + 1));
+            }
+            try {
+                return mMethod.method.invoke(mDelegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
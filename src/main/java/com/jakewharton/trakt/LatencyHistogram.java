@@ -0,0 +1,118 @@
+package com.jakewharton.trakt;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, with a relative error of at most 12.5%.
+ *
+ * <p>Every power of two is split into 8 equally wide buckets, so recording a value takes a few
+ * shifts and an atomic increment and never allocates. Values of more than about 2.4 hours are
+ * counted in the last bucket. Percentiles are read while values are recorded and are therefore
+ * only approximately consistent with {@link #getCount()}.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest power of two with its own buckets, values below 2^43 ns are about 2.4 hours.
+     */
+    private static final int MAX_EXPONENT = 42;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong mCount = new AtomicLong();
+
+    private final AtomicLong mSum = new AtomicLong();
+
+    private final AtomicLong mMax = new AtomicLong();
+
+    /**
+     * Records a duration, negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        mCounts.incrementAndGet(index(nanos));
+        mCount.incrementAndGet();
+        mSum.addAndGet(nanos);
+        long max;
+        while (nanos > (max = mMax.get()) && !mMax.compareAndSet(max, nanos)) {
+        }
+    }
+
+    /**
+     * Number of recorded values.
+     */
+    public long getCount() {
+        return mCount.get();
+    }
+
+    /**
+     * Largest recorded value, 0 if none.
+     */
+    public long getMax() {
+        return mMax.get();
+    }
+
+    /**
+     * Mean of the recorded values, 0 if none.
+     */
+    public long getMean() {
+        long count = mCount.get();
+        return count == 0 ? 0 : mSum.get() / count;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of values lie, e.g. 99 for the
+     * 99th percentile. 0 if no values were recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile not in [0, 100]");
+        }
+        long count = mCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mCounts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), mMax.get());
+            }
+        }
+        return mMax.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Largest value counted in the given bucket.
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
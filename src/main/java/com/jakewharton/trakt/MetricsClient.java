@@ -0,0 +1,377 @@
+package com.jakewharton.trakt;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit.RetrofitError;
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.converter.ConversionException;
+import retrofit.converter.Converter;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+/**
+ * Times every request and the conversion of its response, and passes the result to a {@link
+ * MetricsReporter}. Wraps the client of a {@link Trakt} instance outside of rate limiting and
+ * retries.
+ *
+ * <p>The {@link TraktRequestInterceptor} stamps each request with the time of the call in the
+ * {@value #HEADER_CALLED_AT} header. Retrofit intercepts on the calling thread, so the stamp
+ * carries the start of an asynchronous call over to the HTTP executor. The header is removed
+ * before the request is executed.</p>
+ *
+ * <p>Like {@link CachingClient}, the recording of a call is kept in a thread local between
+ * executing the request and converting its response, both happen on the same thread. {@link
+ * TimedOkClient} adds connect and first byte times to it. Once a call completed its recording is
+ * copied into {@link CallMetrics} and not changed any more.</p>
+ *
+ * <p>Synchronous calls are reported by the interceptor returned by {@link
+ * #newInterceptor(MetricsReporter)} once they return, so calls answered by an {@link EntityCache}
+ * or a {@link RequestCoalescer} without a request of their own are reported as well. Calls
+ * returning a {@link ResponseStream} are reported when the stream is closed.</p>
+ */
+final class MetricsClient implements Client {
+
+    static final String HEADER_CALLED_AT = "Trakt-Called-At";
+
+    private static final ThreadLocal<Recording> RECORDING = new ThreadLocal<Recording>();
+
+    /**
+     * Metrics of the synchronous call made on the current thread, reported by its interceptor.
+     */
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<Scope>();
+
+    private final Client mDelegate;
+
+    private final MetricsReporter mReporter;
+
+    MetricsClient(Client delegate, MetricsReporter reporter) {
+        mDelegate = delegate;
+        mReporter = reporter;
+    }
+
+    /**
+     * Returns an interceptor reporting each synchronous call once it returns. Must come before any
+     * interceptor which may answer calls itself.
+     */
+    static CallInterceptor newInterceptor(final MetricsReporter reporter) {
+        return new CallInterceptor() {
+            @Override
+            public Object intercept(Chain chain) throws Throwable {
+                ServiceMethod method = chain.method();
+                // Asynchronous calls complete on another thread, streams once they are closed.
+                if (!method.isSynchronous || method.isStreaming) {
+                    return chain.proceed();
+                }
+                Scope previous = SCOPE.get();
+                Scope scope = new Scope();
+                SCOPE.set(scope);
+                long calledAt = System.nanoTime();
+                Throwable failure = null;
+                try {
+                    return chain.proceed();
+                } catch (Throwable t) {
+                    failure = t;
+                    throw t;
+                } finally {
+                    if (previous != null) {
+                        SCOPE.set(previous);
+                    } else {
+                        SCOPE.remove();
+                    }
+                    reporter.report(scope.metrics != null ? scope.metrics
+                            : answered(method, calledAt, failure));
+                }
+            }
+        };
+    }
+
+    /**
+     * Metrics of a call which completed without a request of its own.
+     */
+    private static CallMetrics answered(ServiceMethod method, long calledAt, Throwable failure) {
+        CallMetrics.Outcome outcome = CallMetrics.Outcome.SUCCESS;
+        int status = -1;
+        if (failure instanceof RetrofitError) {
+            RetrofitError error = (RetrofitError) failure;
+            Response response = error.getResponse();
+            if (error.isNetworkError() || response == null) {
+                outcome = CallMetrics.Outcome.NETWORK_ERROR;
+            } else {
+                status = response.getStatus();
+                outcome = status >= 200 && status < 300 ? CallMetrics.Outcome.CONVERSION_ERROR
+                        : CallMetrics.Outcome.HTTP_ERROR;
+            }
+        } else if (failure != null) {
+            outcome = CallMetrics.Outcome.NETWORK_ERROR;
+        }
+        return new CallMetrics(method.path, method.httpMethod, outcome, status, 0, 0, 0, 0, 0, 0,
+                System.nanoTime() - calledAt, 0);
+    }
+
+    /**
+     * Returns the recording of the call executing on the current thread, or {@code null} if it is
+     * not timed.
+     */
+    static Recording current() {
+        return RECORDING.get();
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        long now = System.nanoTime();
+        long calledAt = now;
+        List<Header> headers = request.getHeaders();
+        for (int i = 0; i < headers.size(); i++) {
+            if (HEADER_CALLED_AT.equals(headers.get(i).getName())) {
+                calledAt = Long.parseLong(headers.get(i).getValue());
+                List<Header> stripped = new ArrayList<Header>(headers);
+                stripped.remove(i);
+                request = new Request(request.getMethod(), request.getUrl(), stripped,
+                        request.getBody());
+                break;
+            }
+        }
+
+        String endpoint = Endpoints.match(request.getMethod(), request.getUrl());
+        if (endpoint == null) {
+            endpoint = URI.create(request.getUrl()).getPath();
+        }
+        Recording recording = new Recording(endpoint, request.getMethod(), calledAt, now);
+        RECORDING.set(recording);
+        Response response;
+        try {
+            response = mDelegate.execute(request);
+        } catch (IOException e) {
+            RECORDING.remove();
+            complete(recording, CallMetrics.Outcome.NETWORK_ERROR, -1, 0, System.nanoTime());
+            throw e;
+        } catch (RuntimeException e) {
+            RECORDING.remove();
+            complete(recording, CallMetrics.Outcome.NETWORK_ERROR, -1, 0, System.nanoTime());
+            throw e;
+        }
+        // A custom client was not timed, count all of it as time to first byte.
+        if (recording.attempts == 0) {
+            recording.attempts = 1;
+            recording.firstByteNanos = System.nanoTime() - now;
+        }
+
+        int status = response.getStatus();
+        TypedInput body = response.getBody();
+        if (status < 200 || status >= 300 || body == null) {
+            // Retrofit does not convert these, report right away.
+            RECORDING.remove();
+            complete(recording, body == null && status >= 200 && status < 300
+                    ? CallMetrics.Outcome.SUCCESS : CallMetrics.Outcome.HTTP_ERROR, status, 0,
+                    System.nanoTime());
+            return response;
+        }
+        recording.status = status;
+        return new Response(status, response.getReason(), response.getHeaders(),
+                new TimedTypedInput(body, recording));
+    }
+
+    /**
+     * Returns a converter timing the conversion of responses executed by this client.
+     */
+    Converter wrap(final Converter converter) {
+        return new Converter() {
+            @Override
+            public Object fromBody(TypedInput body, Type type) throws ConversionException {
+                final Recording recording = RECORDING.get();
+                if (recording == null) {
+                    return converter.fromBody(body, type);
+                }
+                RECORDING.remove();
+
+                final long downloadBefore = recording.downloadNanos;
+                long start = System.nanoTime();
+                Object value = null;
+                boolean converted = false;
+                try {
+                    value = converter.fromBody(body, type);
+                    converted = true;
+                    return value;
+                } finally {
+                    long end = System.nanoTime();
+                    final long converting = end - start;
+                    if (value instanceof ResponseStream) {
+                        // Decoded while iterating, report once done.
+                        ((ResponseStream<?>) value).setCloseListener(
+                                new ResponseStream.CloseListener() {
+                                    @Override
+                                    public void onClose(long decodingNanos, boolean isFailed) {
+                                        mReporter.report(recording.complete(isFailed
+                                                ? CallMetrics.Outcome.CONVERSION_ERROR
+                                                : CallMetrics.Outcome.SUCCESS, recording.status,
+                                                converting + decodingNanos
+                                                        - (recording.downloadNanos
+                                                        - downloadBefore), System.nanoTime()));
+                                    }
+                                });
+                    } else {
+                        complete(recording, converted ? CallMetrics.Outcome.SUCCESS
+                                : CallMetrics.Outcome.CONVERSION_ERROR, recording.status,
+                                converting - (recording.downloadNanos - downloadBefore), end);
+                    }
+                }
+            }
+
+            @Override
+            public TypedOutput toBody(Object object) {
+                return converter.toBody(object);
+            }
+        };
+    }
+
+    /**
+     * Hands the metrics of a completed call to the interceptor of the synchronous call on the
+     * current thread, or reports them right away.
+     */
+    private void complete(Recording recording, CallMetrics.Outcome outcome, int status,
+            long deserializationNanos, long end) {
+        CallMetrics metrics = recording.complete(outcome, status, deserializationNanos, end);
+        Scope scope = SCOPE.get();
+        if (scope != null && scope.metrics == null) {
+            scope.metrics = metrics;
+        } else {
+            mReporter.report(metrics);
+        }
+    }
+
+    private static final class Scope {
+
+        CallMetrics metrics;
+    }
+
+    /**
+     * Mutable timings of one call, only accessed by the thread executing it and then by the thread
+     * reading its stream, if any. Not changed once completed.
+     */
+    static final class Recording {
+
+        final String endpoint;
+
+        final String httpMethod;
+
+        final long calledAt;
+
+        /**
+         * When the request was first sent, or when this client started executing it if the
+         * transport does not report attempts.
+         */
+        long sentAt;
+
+        int attempts;
+
+        int status = -1;
+
+        long connectNanos;
+
+        long firstByteNanos;
+
+        long downloadNanos;
+
+        long responseBytes;
+
+        boolean isComplete;
+
+        Recording(String endpoint, String httpMethod, long calledAt, long executedAt) {
+            this.endpoint = endpoint;
+            this.httpMethod = httpMethod;
+            this.calledAt = calledAt;
+            this.sentAt = executedAt;
+        }
+
+        /**
+         * Called by the transport when it sent a request and received the response headers.
+         * Retries overwrite the times of previous attempts.
+         */
+        void onAttempt(long start, long connected, long firstByte) {
+            if (isComplete) {
+                return;
+            }
+            if (attempts++ == 0) {
+                sentAt = start;
+            }
+            connectNanos = connected - start;
+            firstByteNanos = firstByte - connected;
+        }
+
+        /**
+         * Returns the metrics of the completed call and stops recording.
+         */
+        CallMetrics complete(CallMetrics.Outcome outcome, int status, long deserializationNanos,
+                long end) {
+            isComplete = true;
+            return new CallMetrics(endpoint, httpMethod, outcome, status, attempts,
+                    sentAt - calledAt, connectNanos, firstByteNanos, downloadNanos,
+                    Math.max(0, deserializationNanos), end - calledAt, responseBytes);
+        }
+    }
+
+    /**
+     * Adds the time spent reading the body and the bytes read to a recording.
+     */
+    private static final class TimedTypedInput implements TypedInput {
+
+        private final TypedInput mDelegate;
+
+        private final Recording mRecording;
+
+        TimedTypedInput(TypedInput delegate, Recording recording) {
+            mDelegate = delegate;
+            mRecording = recording;
+        }
+
+        @Override
+        public String mimeType() {
+            return mDelegate.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return mDelegate.length();
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            return new FilterInputStream(mDelegate.in()) {
+                @Override
+                public int read() throws IOException {
+                    long start = System.nanoTime();
+                    int b = super.read();
+                    if (!mRecording.isComplete) {
+                        mRecording.downloadNanos += System.nanoTime() - start;
+                        if (b != -1) {
+                            mRecording.responseBytes++;
+                        }
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    long start = System.nanoTime();
+                    int read = super.read(buffer, offset, length);
+                    if (!mRecording.isComplete) {
+                        mRecording.downloadNanos += System.nanoTime() - start;
+                        if (read > 0) {
+                            mRecording.responseBytes += read;
+                        }
+                    }
+                    return read;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.jakewharton.trakt;
+
+/**
+ * Receives the timings of every completed service call, see {@link
+ * Trakt#setMetricsReporter(MetricsReporter)}. {@link HistogramReporter} aggregates them into
+ * histograms per endpoint; other implementations may forward them to a metrics library.
+ *
+ * <p>Reporters are called on the thread which executed the request, right after it completed, and
+ * possibly from many threads at once. They must be thread-safe, fast and must not throw.</p>
+ */
+public interface MetricsReporter {
+
+    void report(CallMetrics metrics);
+}
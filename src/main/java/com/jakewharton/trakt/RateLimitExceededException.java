@@ -0,0 +1,16 @@
+package com.jakewharton.trakt;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request which would have to wait longer than the maximum wait of
+ * its {@link RateLimiter} for a token. Retrofit reports it as a network error.
+ */
+public class RateLimitExceededException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RateLimitExceededException(String url) {
+        super("Rate limit exceeded, not sending request to " + url);
+    }
+}
@@ -0,0 +1,329 @@
+package com.jakewharton.trakt;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+/**
+ * Client-side rate limiting with a token bucket per API key, or per API key and user. A request
+ * finding its bucket empty waits for a token, in arrival order, instead of being sent and rejected
+ * by the API.
+ */
+public final class RateLimiter {
+
+    private final int mCapacity;
+
+    private final double mTokensPerNano;
+
+    private final boolean mIsPerUser;
+
+    private final long mMaxWaitNanos;
+
+    /**
+     * Time an empty bucket takes to refill completely, and so the time after which any bucket not
+     * used since is idle.
+     */
+    private final long mIdleNanos;
+
+    private final ConcurrentMap<String, Bucket> mBuckets = new ConcurrentHashMap<String, Bucket>();
+
+    private final AtomicLong mSweptAtNanos = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong mThrottledCount = new AtomicLong();
+
+    private final AtomicLong mThrottledNanos = new AtomicLong();
+
+    private final AtomicLong mRejectedCount = new AtomicLong();
+
+    private RateLimiter(Builder builder) {
+        mCapacity = builder.mCapacity;
+        mTokensPerNano = (double) builder.mRefillTokens / builder.mRefillPeriodNanos;
+        mIsPerUser = builder.mIsPerUser;
+        mMaxWaitNanos = builder.mMaxWaitNanos;
+        mIdleNanos = (long) Math.ceil(mCapacity / mTokensPerNano);
+    }
+
+    /**
+     * Number of requests which had to wait for a token.
+     */
+    public long getThrottledCount() {
+        return mThrottledCount.get();
+    }
+
+    /**
+     * Total time requests spent waiting for a token, in milliseconds.
+     */
+    public long getThrottledTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mThrottledNanos.get());
+    }
+
+    /**
+     * Number of requests which failed as they would have waited longer than the maximum wait.
+     */
+    public long getRejectedCount() {
+        return mRejectedCount.get();
+    }
+
+    /**
+     * Number of buckets currently held, one per API key or per API key and recently active user.
+     */
+    public int getBucketCount() {
+        return mBuckets.size();
+    }
+
+    /**
+     * Returns a client taking a token from the bucket of the given configuration's API key, and of
+     * the request's user if limiting per user, before executing each request.
+     */
+    Client wrap(final Client client, TraktConfiguration configuration) {
+        final String apiKey = String.valueOf(configuration.getApiKey());
+        return new Client() {
+            @Override
+            public Response execute(Request request) throws IOException {
+                String key = apiKey;
+                if (mIsPerUser) {
+                    String authorization = authorizationOf(request);
+                    if (authorization != null) {
+                        key = apiKey + '\n' + authorization;
+                    }
+                }
+                acquire(key, request.getUrl());
+                return client.execute(request);
+            }
+        };
+    }
+
+    private void acquire(String key, String url) throws IOException {
+        long now = System.nanoTime();
+        removeIdleBuckets(now);
+
+        long waitNanos;
+        while (true) {
+            Bucket bucket = mBuckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(mCapacity);
+                Bucket existing = mBuckets.putIfAbsent(key, bucket);
+                if (existing != null) {
+                    bucket = existing;
+                }
+            }
+            waitNanos = bucket.reserve(now, mCapacity, mTokensPerNano, mMaxWaitNanos);
+            if (waitNanos != Bucket.REMOVED) {
+                break;
+            }
+            // Dropped as idle after it was looked up, start over with a new one.
+            mBuckets.remove(key, bucket);
+        }
+
+        if (waitNanos == Bucket.REJECTED) {
+            mRejectedCount.incrementAndGet();
+            throw new RateLimitExceededException(url);
+        }
+        if (waitNanos == 0) {
+            return;
+        }
+        mThrottledCount.incrementAndGet();
+        mThrottledNanos.addAndGet(waitNanos);
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for rate limit.");
+        }
+    }
+
+    /**
+     * Drops the buckets which are full again, at most once per refill period of a whole bucket. A
+     * full bucket is no different from a new one.
+     */
+    private void removeIdleBuckets(long now) {
+        long sweptAt = mSweptAtNanos.get();
+        if (now - sweptAt < mIdleNanos || !mSweptAtNanos.compareAndSet(sweptAt, now)) {
+            return;
+        }
+        for (Map.Entry<String, Bucket> entry : mBuckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (bucket.removeIfFull(now, mCapacity, mTokensPerNano)) {
+                mBuckets.remove(entry.getKey(), bucket);
+            }
+        }
+    }
+
+    /**
+     * Returns the authorization header of a request, encoded once per {@link Credentials}, or
+     * {@code null} if it is anonymous.
+     */
+    private static String authorizationOf(Request request) {
+        for (Header header : request.getHeaders()) {
+            if (TraktRequestInterceptor.HEADER_AUTHORIZATION.equals(header.getName())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tokens available to one key. The count goes negative when tokens are reserved ahead of their
+     * refill.
+     */
+    private static final class Bucket {
+
+        /**
+         * Returned by {@link #reserve} if the bucket was dropped as idle.
+         */
+        static final long REMOVED = -1;
+
+        /**
+         * Returned by {@link #reserve} if the token would be due after the maximum wait.
+         */
+        static final long REJECTED = -2;
+
+        /**
+         * Fair, so concurrent requests reserve tokens in arrival order.
+         */
+        private final ReentrantLock mLock = new ReentrantLock(true);
+
+        private double mTokens;
+
+        private long mRefilledAtNanos;
+
+        private boolean mIsRemoved;
+
+        Bucket(int capacity) {
+            mTokens = capacity;
+            mRefilledAtNanos = System.nanoTime();
+        }
+
+        /**
+         * Takes a token and returns how long to wait until it is due. Takes none and returns
+         * {@link #REJECTED} if that is longer than the given maximum.
+         */
+        long reserve(long now, int capacity, double tokensPerNano, long maxWaitNanos) {
+            mLock.lock();
+            try {
+                if (mIsRemoved) {
+                    return REMOVED;
+                }
+                refill(now, capacity, tokensPerNano);
+                if (mTokens >= 1) {
+                    mTokens -= 1;
+                    return 0;
+                }
+                long waitNanos = (long) Math.ceil((1 - mTokens) / tokensPerNano);
+                if (waitNanos > maxWaitNanos) {
+                    return REJECTED;
+                }
+                mTokens -= 1;
+                return waitNanos;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Marks the bucket as removed if it holds its full capacity.
+         */
+        boolean removeIfFull(long now, int capacity, double tokensPerNano) {
+            mLock.lock();
+            try {
+                refill(now, capacity, tokensPerNano);
+                if (mTokens < capacity) {
+                    return false;
+                }
+                mIsRemoved = true;
+                return true;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        private void refill(long now, int capacity, double tokensPerNano) {
+            if (now > mRefilledAtNanos) {
+                mTokens = Math.min(capacity, mTokens + (now - mRefilledAtNanos) * tokensPerNano);
+                mRefilledAtNanos = now;
+            }
+        }
+    }
+
+    /**
+     * Build a new {@link RateLimiter}. Builders are not thread-safe.
+     */
+    public static class Builder {
+
+        private int mCapacity = 10;
+
+        private int mRefillTokens = 1;
+
+        private long mRefillPeriodNanos = TimeUnit.SECONDS.toNanos(1);
+
+        private boolean mIsPerUser;
+
+        private long mMaxWaitNanos = TimeUnit.MINUTES.toNanos(1);
+
+        /**
+         * Maximum number of tokens a bucket holds, the largest burst sent without waiting.
+         * Defaults to 10.
+         */
+        public Builder setCapacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity <= 0");
+            }
+            mCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Rate at which tokens are refilled, {@code tokens} per {@code period}. Defaults to one
+         * token per second.
+         */
+        public Builder setRefill(int tokens, long period, TimeUnit unit) {
+            if (tokens <= 0) {
+                throw new IllegalArgumentException("tokens <= 0");
+            }
+            if (period <= 0) {
+                throw new IllegalArgumentException("period <= 0");
+            }
+            mRefillTokens = tokens;
+            mRefillPeriodNanos = unit.toNanos(period);
+            return this;
+        }
+
+        /**
+         * Whether each user of an API key gets a bucket of their own. Defaults to {@code false},
+         * all requests of an API key share one bucket. Users are told apart by their credentials,
+         * and buckets which have been refilled completely are dropped.
+         */
+        public Builder setPerUser(boolean isPerUser) {
+            mIsPerUser = isPerUser;
+            return this;
+        }
+
+        /**
+         * Longest time a request waits for a token. A request whose token would be due later
+         * fails with a {@link RateLimitExceededException} without taking one. Defaults to one
+         * minute, 0 fails every request finding the bucket empty. Requests wait on the thread
+         * executing them, asynchronous calls on the HTTP executor.
+         */
+        public Builder setMaxWait(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration < 0");
+            }
+            mMaxWaitNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jakewharton.trakt;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit.RetrofitError;
+
+/**
+ * Single-flight coalescing of identical synchronous GET calls: threads making a call already in
+ * flight for the same user wait for it and receive its result instead of issuing their own
+ * request. Coalesced callers share the decoded instance, so results must be treated as read-only.
+ */
+public final class RequestCoalescer {
+
+    private final ConcurrentMap<CallKey, FutureTask<Object>> mInFlight
+            = new ConcurrentHashMap<CallKey, FutureTask<Object>>();
+
+    private final AtomicLong mIssuedCount = new AtomicLong();
+
+    private final AtomicLong mCoalescedCount = new AtomicLong();
+
+    /**
+     * Number of calls which were passed on to retrofit, and so issued a request.
+     */
+    public long getIssuedCount() {
+        return mIssuedCount.get();
+    }
+
+    /**
+     * Number of calls which received the result of an identical call already in flight, and so
+     * issued no request of their own.
+     */
+    public long getCoalescedCount() {
+        return mCoalescedCount.get();
+    }
+
+    /**
+     * Number of distinct calls currently in flight.
+     */
+    public int getInFlightCount() {
+        return mInFlight.size();
+    }
+
+    /**
+     * Returns an interceptor coalescing calls made with the given configuration.
+     */
+    CallInterceptor newInterceptor(final TraktConfiguration configuration) {
+        return new CallInterceptor() {
+            @Override
+            public Object intercept(Chain chain) throws Throwable {
+                if (!chain.method().isShareable()) {
+                    return chain.proceed();
+                }
+                return execute(CallKey.of(chain, configuration), chain);
+            }
+        };
+    }
+
+    private Object execute(CallKey key, final CallInterceptor.Chain chain) throws Throwable {
+        FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                try {
+                    return chain.proceed();
+                } catch (Exception e) {
+                    throw e;
+                } catch (Throwable t) {
+                    // Only Errors are left, service methods declare no checked exceptions.
+                    throw (Error) t;
+                }
+            }
+        });
+
+        FutureTask<Object> inFlight = mInFlight.putIfAbsent(key, task);
+        if (inFlight == null) {
+            mIssuedCount.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                mInFlight.remove(key, task);
+            }
+            inFlight = task;
+        } else {
+            mCoalescedCount.incrementAndGet();
+        }
+
+        try {
+            return inFlight.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw RetrofitError.unexpectedError(key.method.path, e);
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.jakewharton.trakt;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+
+/**
+ * Retries requests failing with an {@link IOException}, a 5xx status or 429, and stops sending
+ * requests to an endpoint which keeps failing with a circuit breaker, both configured per endpoint
+ * by a {@link Policy}.
+ */
+public final class Resilience {
+
+    /**
+     * State of a circuit breaker.
+     */
+    public enum State {
+        /** Requests are sent. */
+        CLOSED,
+        /** Requests fail immediately. */
+        OPEN,
+        /** A single trial request is sent to decide whether to close again. */
+        HALF_OPEN
+    }
+
+    private static final String UNKNOWN_ENDPOINT = "";
+
+    private static final Random RANDOM = new Random();
+
+    private final Policy mDefaultPolicy;
+
+    private final Map<String, Policy> mPolicies;
+
+    private final ConcurrentMap<String, Breaker> mBreakers
+            = new ConcurrentHashMap<String, Breaker>();
+
+    private final AtomicLong mRetryCount = new AtomicLong();
+
+    private final AtomicLong mRejectedCount = new AtomicLong();
+
+    private Resilience(Builder builder) {
+        mDefaultPolicy = builder.mDefaultPolicy;
+        mPolicies = new HashMap<String, Policy>(builder.mPolicies);
+    }
+
+    /**
+     * Number of requests sent again after a failure.
+     */
+    public long getRetryCount() {
+        return mRetryCount.get();
+    }
+
+    /**
+     * Number of requests which failed immediately because their endpoint's breaker was open.
+     */
+    public long getRejectedCount() {
+        return mRejectedCount.get();
+    }
+
+    /**
+     * Returns the breaker state of the endpoint with the given path template, e.g. {@code
+     * /show/summary.json/{apikey}/{title}}.
+     */
+    public State getState(String endpoint) {
+        Breaker breaker = mBreakers.get(endpoint);
+        return breaker != null ? breaker.getState() : State.CLOSED;
+    }
+
+    /**
+     * Returns the breaker states of all endpoints which were called so far, by path template.
+     */
+    public Map<String, State> getStates() {
+        Map<String, State> states = new LinkedHashMap<String, State>();
+        for (Map.Entry<String, Breaker> entry : mBreakers.entrySet()) {
+            if (!UNKNOWN_ENDPOINT.equals(entry.getKey())) {
+                states.put(entry.getKey(), entry.getValue().getState());
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Returns a client retrying failed requests and failing fast for endpoints whose breaker is
+     * open.
+     */
+    Client wrap(final Client client) {
+        return new Client() {
+            @Override
+            public Response execute(Request request) throws IOException {
+                String endpoint = Endpoints.match(request.getMethod(), request.getUrl());
+                if (endpoint == null) {
+                    endpoint = UNKNOWN_ENDPOINT;
+                }
+                Policy policy = mPolicies.get(endpoint);
+                if (policy == null) {
+                    policy = mDefaultPolicy;
+                }
+                return Resilience.this.execute(client, request, breakerFor(endpoint, policy),
+                        policy);
+            }
+        };
+    }
+
+    private Response execute(Client client, Request request, Breaker breaker, Policy policy)
+            throws IOException {
+        // Only failures of the endpoint count, not requests rejected or interrupted locally.
+        boolean isRetryable = policy.mRetryAllMethods || "GET".equals(request.getMethod());
+        for (int attempt = 0; ; attempt++) {
+            if (!breaker.allowRequest(System.nanoTime())) {
+                mRejectedCount.incrementAndGet();
+                throw new CircuitOpenException(request.getUrl());
+            }
+
+            boolean isLastAttempt = !isRetryable || attempt >= policy.mMaxRetries;
+            try {
+                Response response = client.execute(request);
+                if (!isFailure(response.getStatus())) {
+                    breaker.onSuccess();
+                    return response;
+                }
+                // Once the breaker opened, report this failure rather than the breaker's.
+                if (!breaker.onFailure(System.nanoTime()) || isLastAttempt) {
+                    return response;
+                }
+                discard(response);
+            } catch (RateLimitExceededException e) {
+                breaker.onAbort();
+                throw e;
+            } catch (CircuitOpenException e) {
+                breaker.onAbort();
+                throw e;
+            } catch (InterruptedIOException e) {
+                breaker.onAbort();
+                throw e;
+            } catch (IOException e) {
+                if (!breaker.onFailure(System.nanoTime()) || isLastAttempt) {
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                breaker.onFailure(System.nanoTime());
+                throw e;
+            }
+
+            mRetryCount.incrementAndGet();
+            sleep(policy.delayMillis(attempt));
+        }
+    }
+
+    private Breaker breakerFor(String endpoint, Policy policy) {
+        Breaker breaker = mBreakers.get(endpoint);
+        if (breaker == null) {
+            breaker = new Breaker(policy);
+            Breaker existing = mBreakers.putIfAbsent(endpoint, breaker);
+            if (existing != null) {
+                breaker = existing;
+            }
+        }
+        return breaker;
+    }
+
+    private static boolean isFailure(int status) {
+        return status >= 500 || status == 429;
+    }
+
+    private static void discard(Response response) {
+        TypedInput body = response.getBody();
+        if (body != null) {
+            try {
+                body.in().close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry.");
+        }
+    }
+
+    /**
+     * Circuit breaker of one endpoint. After a number of consecutive failures it opens and requests
+     * fail with a {@link CircuitOpenException}. Once the open duration has passed a single trial
+     * request is let through, closing the breaker again if it succeeds.
+     */
+    private static final class Breaker {
+
+        private final ReentrantLock mLock = new ReentrantLock();
+
+        private final int mFailureThreshold;
+
+        private final long mOpenNanos;
+
+        private State mState = State.CLOSED;
+
+        private int mConsecutiveFailures;
+
+        private long mOpenedAtNanos;
+
+        private boolean mIsTrialInFlight;
+
+        Breaker(Policy policy) {
+            mFailureThreshold = policy.mFailureThreshold;
+            mOpenNanos = TimeUnit.MILLISECONDS.toNanos(policy.mOpenMillis);
+        }
+
+        State getState() {
+            mLock.lock();
+            try {
+                return mState;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        boolean allowRequest(long now) {
+            mLock.lock();
+            try {
+                switch (mState) {
+                    case OPEN:
+                        if (now - mOpenedAtNanos < mOpenNanos) {
+                            return false;
+                        }
+                        mState = State.HALF_OPEN;
+                        mIsTrialInFlight = true;
+                        return true;
+                    case HALF_OPEN:
+                        if (mIsTrialInFlight) {
+                            return false;
+                        }
+                        mIsTrialInFlight = true;
+                        return true;
+                    default:
+                        return true;
+                }
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        void onSuccess() {
+            mLock.lock();
+            try {
+                mState = State.CLOSED;
+                mConsecutiveFailures = 0;
+                mIsTrialInFlight = false;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Records a request which did not reach the endpoint, neither a success nor a failure.
+         */
+        void onAbort() {
+            mLock.lock();
+            try {
+                mIsTrialInFlight = false;
+            } finally {
+                mLock.unlock();
+            }
+        }
+
+        /**
+         * Records a failure and returns whether the breaker is still closed.
+         */
+        boolean onFailure(long now) {
+            mLock.lock();
+            try {
+                mIsTrialInFlight = false;
+                mConsecutiveFailures++;
+                if (mState == State.HALF_OPEN
+                        || mFailureThreshold > 0 && mConsecutiveFailures >= mFailureThreshold) {
+                    mState = State.OPEN;
+                    mOpenedAtNanos = now;
+                }
+                return mState == State.CLOSED;
+            } finally {
+                mLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Retry and circuit breaker settings of an endpoint. Instances are immutable.
+     */
+    public static final class Policy {
+
+        private final int mMaxRetries;
+
+        private final long mBaseDelayMillis;
+
+        private final long mMaxDelayMillis;
+
+        private final boolean mRetryAllMethods;
+
+        private final int mFailureThreshold;
+
+        private final long mOpenMillis;
+
+        private Policy(Builder builder) {
+            mMaxRetries = builder.mMaxRetries;
+            mBaseDelayMillis = builder.mBaseDelayMillis;
+            mMaxDelayMillis = builder.mMaxDelayMillis;
+            mRetryAllMethods = builder.mRetryAllMethods;
+            mFailureThreshold = builder.mFailureThreshold;
+            mOpenMillis = builder.mOpenMillis;
+        }
+
+        /**
+         * Full jitter: a random delay up to the exponentially growing, capped backoff.
+         */
+        long delayMillis(int attempt) {
+            long backoff = mMaxDelayMillis;
+            if (attempt < 62 && mBaseDelayMillis <= (mMaxDelayMillis >> attempt)) {
+                backoff = mBaseDelayMillis << attempt;
+            }
+            return (long) (RANDOM.nextDouble() * backoff);
+        }
+
+        /**
+         * Build a new {@link Policy}. Builders are not thread-safe.
+         */
+        public static class Builder {
+
+            private int mMaxRetries = 3;
+
+            private long mBaseDelayMillis = 200;
+
+            private long mMaxDelayMillis = TimeUnit.SECONDS.toMillis(10);
+
+            private boolean mRetryAllMethods;
+
+            private int mFailureThreshold = 5;
+
+            private long mOpenMillis = TimeUnit.SECONDS.toMillis(30);
+
+            /**
+             * Maximum number of retries after the first attempt. Defaults to 3, 0 disables
+             * retries.
+             */
+            public Builder setMaxRetries(int maxRetries) {
+                if (maxRetries < 0) {
+                    throw new IllegalArgumentException("maxRetries < 0");
+                }
+                mMaxRetries = maxRetries;
+                return this;
+            }
+
+            /**
+             * Delay before the first retry, doubled for every further retry up to {@code
+             * maxDelay}. Defaults to 200 milliseconds and 10 seconds.
+             */
+            public Builder setBackoff(long baseDelay, long maxDelay, TimeUnit unit) {
+                if (baseDelay <= 0) {
+                    throw new IllegalArgumentException("baseDelay <= 0");
+                }
+                if (maxDelay < baseDelay) {
+                    throw new IllegalArgumentException("maxDelay < baseDelay");
+                }
+                mBaseDelayMillis = unit.toMillis(baseDelay);
+                mMaxDelayMillis = unit.toMillis(maxDelay);
+                return this;
+            }
+
+            /**
+             * Whether requests other than GET are retried as well. Defaults to {@code false}, as
+             * retrying e.g. a check in which did reach the server performs it twice.
+             */
+            public Builder setRetryAllMethods(boolean retryAllMethods) {
+                mRetryAllMethods = retryAllMethods;
+                return this;
+            }
+
+            /**
+             * Consecutive failures after which the breaker opens, and how long it stays open.
+             * Defaults to 5 failures and 30 seconds. A threshold of 0 disables the breaker.
+             */
+            public Builder setCircuitBreaker(int failureThreshold, long openDuration,
+                    TimeUnit unit) {
+                if (failureThreshold < 0) {
+                    throw new IllegalArgumentException("failureThreshold < 0");
+                }
+                if (openDuration <= 0) {
+                    throw new IllegalArgumentException("openDuration <= 0");
+                }
+                mFailureThreshold = failureThreshold;
+                mOpenMillis = unit.toMillis(openDuration);
+                return this;
+            }
+
+            public Policy build() {
+                return new Policy(this);
+            }
+        }
+    }
+
+    /**
+     * Build a new {@link Resilience}. Builders are not thread-safe.
+     */
+    public static class Builder {
+
+        private Policy mDefaultPolicy = new Policy.Builder().build();
+
+        private final Map<String, Policy> mPolicies = new HashMap<String, Policy>();
+
+        /**
+         * Policy of all endpoints without a policy of their own.
+         */
+        public Builder setDefaultPolicy(Policy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("Policy must not be null.");
+            }
+            mDefaultPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Policy of the endpoint with the given path template, as declared on its service method,
+         * e.g. {@code /show/summary.json/{apikey}/{title}}.
+         */
+        public Builder setPolicy(String endpoint, Policy policy) {
+            if (endpoint == null || policy == null) {
+                throw new IllegalArgumentException("Endpoint and policy must not be null.");
+            }
+            mPolicies.put(endpoint, policy);
+            return this;
+        }
+
+        public Resilience build() {
+            return new Resilience(this);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.jakewharton.trakt;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Elements of a JSON array response, decoded one at a time while iterating instead of all at once.
+ * Only the element being decoded is held in memory, which keeps large responses like a user's
+ * extended library cheap.
+ *
+ * <p>Returned by the {@code ...Stream} variants of service methods. The response body stays open
+ * until all elements were read or the stream is closed, so always close it, e.g. in a {@code
+ * finally} block. Errors while reading are thrown as unchecked Gson exceptions. A stream can only be
+ * iterated once and is not thread-safe.</p>
+ *
+ * <p>With debug logging enabled retrofit reads the whole response into memory before it is
+ * decoded.</p>
+ */
+public final class ResponseStream<T> implements Iterator<T>, Closeable {
+
+    private final JsonReader mReader;
+
+    private final TypeAdapter<T> mAdapter;
+
+    private boolean mIsClosed;
+
+    private boolean mIsFailed;
+
+    private long mDecodingNanos;
+
+    private CloseListener mCloseListener;
+
+    ResponseStream(JsonReader reader, TypeAdapter<T> adapter) throws IOException {
+        mReader = reader;
+        mAdapter = adapter;
+        if (!moveToArray(reader)) {
+            close();
+        }
+    }
+
+    /**
+     * Positions the reader on the first element of the response's array: the top-level array, or
+     * the first array valued property of a top-level object, e.g. the activities of an {@link
+     * com.jakewharton.trakt.entities.Activity}. Returns {@code false} if there is none.
+     */
+    private static boolean moveToArray(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            return true;
+        }
+        if (token == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                reader.nextName();
+                if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    return true;
+                }
+                reader.skipValue();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (mIsClosed) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            if (mReader.hasNext()) {
+                return true;
+            }
+        } catch (IOException e) {
+            mIsFailed = true;
+            throw new JsonIOException(e);
+        } finally {
+            mDecodingNanos += System.nanoTime() - start;
+        }
+        closeQuietly();
+        return false;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long start = System.nanoTime();
+        boolean isRead = false;
+        try {
+            T element = mAdapter.read(mReader);
+            isRead = true;
+            return element;
+        } catch (IOException e) {
+            mIsFailed = true;
+            closeQuietly();
+            throw new JsonIOException(e);
+        } finally {
+            mDecodingNanos += System.nanoTime() - start;
+            mIsFailed |= !isRead;
+        }
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Closes the response body. Remaining elements are not read.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!mIsClosed) {
+            mIsClosed = true;
+            try {
+                mReader.close();
+            } finally {
+                if (mCloseListener != null) {
+                    mCloseListener.onClose(mDecodingNanos, mIsFailed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the listener notified once the stream is closed, right away if it already is.
+     */
+    void setCloseListener(CloseListener listener) {
+        mCloseListener = listener;
+        if (mIsClosed) {
+            listener.onClose(mDecodingNanos, mIsFailed);
+        }
+    }
+
+    /**
+     * Notified once a stream is closed, with the time spent decoding its elements and whether
+     * reading them failed.
+     */
+    interface CloseListener {
+
+        void onClose(long decodingNanos, boolean isFailed);
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+        }
+    }
+}
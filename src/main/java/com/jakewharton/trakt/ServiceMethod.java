@@ -0,0 +1,140 @@
+package com.jakewharton.trakt;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import retrofit.Callback;
+import retrofit.http.RestMethod;
+
+/**
+ * HTTP method and path template of a service interface method, parsed once from its retrofit
+ * annotations.
+ */
+final class ServiceMethod {
+
+    private static final ConcurrentMap<Method, ServiceMethod> CACHE
+            = new ConcurrentHashMap<Method, ServiceMethod>();
+
+    final Method method;
+
+    /**
+     * HTTP method, e.g. {@code GET}.
+     */
+    final String httpMethod;
+
+    /**
+     * Relative path template, e.g. {@code /show/summary.json/{apikey}/{title}}.
+     */
+    final String path;
+
+    /**
+     * Whether the method returns its result instead of passing it to a {@link Callback}.
+     */
+    final boolean isSynchronous;
+
+    /**
+     * Whether the method returns a {@link ResponseStream}.
+     */
+    final boolean isStreaming;
+
+    /**
+     * Type a response is decoded to: the return type, the type argument of the {@link Callback},
+     * or the element type of a {@link ResponseStream}.
+     */
+    final Type responseType;
+
+    private ServiceMethod(Method method) {
+        this.method = method;
+
+        String httpMethod = null;
+        String path = null;
+        for (Annotation annotation : method.getAnnotations()) {
+            RestMethod restMethod = annotation.annotationType().getAnnotation(RestMethod.class);
+            if (restMethod != null) {
+                httpMethod = restMethod.value();
+                try {
+                    path = (String) annotation.annotationType().getMethod("value")
+                            .invoke(annotation);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to read path of " + method, e);
+                }
+                break;
+            }
+        }
+        this.httpMethod = httpMethod;
+        this.path = path;
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.isSynchronous = parameterTypes.length == 0
+                || parameterTypes[parameterTypes.length - 1] != Callback.class;
+        this.isStreaming = method.getReturnType() == ResponseStream.class;
+
+        Type responseType;
+        if (isSynchronous) {
+            responseType = method.getGenericReturnType();
+        } else {
+            Type[] genericParameterTypes = method.getGenericParameterTypes();
+            responseType = genericParameterTypes[genericParameterTypes.length - 1];
+        }
+        if ((isStreaming || !isSynchronous) && responseType instanceof ParameterizedType) {
+            responseType = ((ParameterizedType) responseType).getActualTypeArguments()[0];
+        }
+        this.responseType = responseType;
+    }
+
+    /**
+     * Returns the methods of every service reachable from {@link TraktServices}.
+     */
+    static List<ServiceMethod> all() {
+        List<ServiceMethod> methods = new ArrayList<ServiceMethod>();
+        for (Method accessor : TraktServices.class.getMethods()) {
+            Class<?> service = accessor.getReturnType();
+            if (!service.isInterface()) {
+                continue;
+            }
+            for (Method method : service.getMethods()) {
+                methods.add(get(method));
+            }
+        }
+        return methods;
+    }
+
+    static ServiceMethod get(Method method) {
+        ServiceMethod serviceMethod = CACHE.get(method);
+        if (serviceMethod == null) {
+            serviceMethod = new ServiceMethod(method);
+            ServiceMethod existing = CACHE.putIfAbsent(method, serviceMethod);
+            if (existing != null) {
+                serviceMethod = existing;
+            }
+        }
+        return serviceMethod;
+    }
+
+    /**
+     * Whether calling this method any number of times has the same effect as calling it once. Only
+     * synchronous GET requests are considered idempotent.
+     */
+    boolean isIdempotent() {
+        return isSynchronous && "GET".equals(httpMethod);
+    }
+
+    /**
+     * Whether the result of a call may be handed to other callers making the same call. Streams
+     * can only be consumed once.
+     */
+    boolean isShareable() {
+        return isIdempotent() && !isStreaming;
+    }
+
+    @Override
+    public String toString() {
+        return httpMethod + " " + path;
+    }
+}
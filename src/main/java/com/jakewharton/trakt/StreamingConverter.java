@@ -0,0 +1,74 @@
+package com.jakewharton.trakt;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import retrofit.converter.ConversionException;
+import retrofit.converter.Converter;
+import retrofit.mime.MimeUtil;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+/**
+ * Returns a {@link ResponseStream} over the response body for methods declaring it as their return
+ * type, and delegates all other conversions.
+ */
+final class StreamingConverter implements Converter {
+
+    private final Gson mGson;
+
+    private final Converter mDelegate;
+
+    StreamingConverter(Gson gson, Converter delegate) {
+        mGson = gson;
+        mDelegate = delegate;
+    }
+
+    /**
+     * Whether the given type is a {@link ResponseStream}.
+     */
+    static boolean isStream(Type type) {
+        return type instanceof ParameterizedType
+                && ((ParameterizedType) type).getRawType() == ResponseStream.class;
+    }
+
+    @Override
+    public Object fromBody(TypedInput body, Type type) throws ConversionException {
+        if (!isStream(type)) {
+            return mDelegate.fromBody(body, type);
+        }
+        Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+        TypeAdapter<?> adapter = mGson.getAdapter(TypeToken.get(elementType));
+        String charset = body.mimeType() != null ? MimeUtil.parseCharset(body.mimeType()) : "UTF-8";
+        JsonReader reader = null;
+        try {
+            reader = new JsonReader(new InputStreamReader(body.in(), charset));
+            return newStream(reader, adapter);
+        } catch (IOException e) {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                }
+            }
+            throw new ConversionException(e);
+        }
+    }
+
+    private static <T> ResponseStream<T> newStream(JsonReader reader, TypeAdapter<T> adapter)
+            throws IOException {
+        return new ResponseStream<T>(reader, adapter);
+    }
+
+    @Override
+    public TypedOutput toBody(Object object) {
+        return mDelegate.toBody(object);
+    }
+}
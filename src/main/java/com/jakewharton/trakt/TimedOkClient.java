@@ -0,0 +1,113 @@
+package com.jakewharton.trakt;
+
+import com.squareup.okhttp.OkHttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+/**
+ * Executes requests with OkHttp like retrofit's {@code OkClient}, but connects explicitly before
+ * waiting for the response, so a {@link MetricsClient} can tell connect time from time to first
+ * byte. Only reads the clock if the call is timed.
+ */
+final class TimedOkClient implements Client {
+
+    private final OkHttpClient mClient;
+
+    TimedOkClient(OkHttpClient client) {
+        mClient = client;
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        MetricsClient.Recording recording = MetricsClient.current();
+        long start = recording != null ? System.nanoTime() : 0;
+
+        HttpURLConnection connection = mClient.open(new URL(request.getUrl()));
+        connection.setRequestMethod(request.getMethod());
+        connection.setDoInput(true);
+        for (Header header : request.getHeaders()) {
+            connection.addRequestProperty(header.getName(), header.getValue());
+        }
+        TypedOutput body = request.getBody();
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.addRequestProperty("Content-Type", body.mimeType());
+            long length = body.length();
+            if (length != -1) {
+                connection.addRequestProperty("Content-Length", String.valueOf(length));
+            }
+            OutputStream out = connection.getOutputStream();
+            body.writeTo(out);
+        } else {
+            connection.connect();
+        }
+        long connected = recording != null ? System.nanoTime() : 0;
+
+        int status = connection.getResponseCode();
+        if (recording != null) {
+            recording.onAttempt(start, connected, System.nanoTime());
+        }
+        return readResponse(connection, status);
+    }
+
+    private static Response readResponse(HttpURLConnection connection, int status)
+            throws IOException {
+        String reason = connection.getResponseMessage();
+        List<Header> headers = new ArrayList<Header>();
+        for (Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+            String name = field.getKey();
+            for (String value : field.getValue()) {
+                headers.add(new Header(name, value));
+            }
+        }
+        InputStream stream = status >= 400 ? connection.getErrorStream()
+                : connection.getInputStream();
+        TypedInput body = new StreamTypedInput(connection.getContentType(),
+                connection.getContentLength(), stream);
+        return new Response(status, reason, headers, body);
+    }
+
+    private static final class StreamTypedInput implements TypedInput {
+
+        private final String mMimeType;
+
+        private final long mLength;
+
+        private final InputStream mStream;
+
+        StreamTypedInput(String mimeType, long length, InputStream stream) {
+            mMimeType = mimeType;
+            mLength = length;
+            mStream = stream;
+        }
+
+        @Override
+        public String mimeType() {
+            return mMimeType;
+        }
+
+        @Override
+        public long length() {
+            return mLength;
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            return mStream;
+        }
+    }
+}
@@ -1,66 +1,110 @@
 package com.jakewharton.trakt;
 
-import com.jakewharton.trakt.services.AccountService;
-import com.jakewharton.trakt.services.ActivityService;
-import com.jakewharton.trakt.services.CalendarService;
-import com.jakewharton.trakt.services.CommentService;
-import com.jakewharton.trakt.services.GenreService;
-import com.jakewharton.trakt.services.ListService;
-import com.jakewharton.trakt.services.MovieService;
-import com.jakewharton.trakt.services.NetworkService;
-import com.jakewharton.trakt.services.RateService;
-import com.jakewharton.trakt.services.RecommendationsService;
-import com.jakewharton.trakt.services.SearchService;
-import com.jakewharton.trakt.services.ShowService;
-import com.jakewharton.trakt.services.UserService;
-import com.jakewharton.trakt.util.Base64;
-
-import retrofit.RequestInterceptor;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import retrofit.RestAdapter;
+import retrofit.client.Client;
+import retrofit.converter.Converter;
 import retrofit.converter.GsonConverter;
 
-public class Trakt {
+/**
+ * Factory for all trakt services. An instance may be shared by any number of threads: settings are
+ * held in an immutable {@link TraktConfiguration} which is swapped atomically when changed, and
+ * requests only ever read the configuration their {@link RestAdapter} was built from.
+ */
+public class Trakt extends TraktServices {
 
     /**
-     * trakt API URL.
+     * Guards changes to {@link #mConfiguration} and building a new {@link #mGeneration}. Never held
+     * while making a request.
      */
-    private static final String API_URL = "http://api.trakt.tv";
+    private final Lock mLock = new ReentrantLock();
 
     /**
-     * API key path parameter name.
+     * Current settings.
      */
-    private static final String PARAM_API_KEY = "apikey";
+    private volatile TraktConfiguration mConfiguration;
 
     /**
-     * API key.
+     * RestAdapter and service proxies for the configuration they were built from. Outdated once
+     * {@link #mConfiguration} changes.
      */
-    private String mApiKey;
+    private volatile Generation mGeneration;
+
 
     /**
-     * Whether to return more detailed log output.
+     * Create a new manager instance.
      */
-    private boolean mIsDebug;
+    public Trakt() {
+        this(new TraktConfiguration.Builder().build());
+    }
 
     /**
-     * User password.
+     * Create a new manager instance using the given settings.
      */
-    private String mPasswordSha1;
+    public Trakt(TraktConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("Configuration must not be null.");
+        }
+        mConfiguration = configuration;
+    }
 
     /**
-     * User email.
+     * Returns the settings currently used by this instance.
      */
-    private String mUsername;
+    public TraktConfiguration getConfiguration() {
+        return mConfiguration;
+    }
 
     /**
-     * Currently valid instance of RestAdapter.
+     * Replaces all settings at once. Requests already in flight complete with the previous
+     * settings.
      */
-    private RestAdapter mRestAdapter;
-
+    public Trakt setConfiguration(TraktConfiguration configuration) {
+        if (configuration == null) {
+            throw new IllegalArgumentException("Configuration must not be null.");
+        }
+        // Not while another setter builds on the previous configuration, or one update is lost.
+        mLock.lock();
+        try {
+            mConfiguration = configuration;
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
 
     /**
-     * Create a new manager instance.
+     * Changes several settings at once, based on the current ones. The given configurator is called
+     * with a builder of the current configuration while no other thread can change it, so no
+     * concurrent update is lost.
      */
-    public Trakt() {
+    public Trakt updateConfiguration(Configurator configurator) {
+        if (configurator == null) {
+            throw new IllegalArgumentException("Configurator must not be null.");
+        }
+        mLock.lock();
+        try {
+            TraktConfiguration.Builder builder = mConfiguration.newBuilder();
+            configurator.configure(builder);
+            mConfiguration = builder.build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
     }
 
     /**
@@ -71,9 +115,28 @@ public class Trakt {
      * @param passwordSha1 SHA1 of user password.
      */
     public Trakt setAuthentication(String username, String passwordSha1) {
-        mUsername = username;
-        mPasswordSha1 = passwordSha1;
-        mRestAdapter = null;
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setAuthentication(username, passwordSha1)
+                    .build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Make requests against the given URL, see {@link
+     * TraktConfiguration.Builder#setApiUrl(String)}.
+     */
+    public Trakt setApiUrl(String apiUrl) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder().setApiUrl(apiUrl).build();
+        } finally {
+            mLock.unlock();
+        }
         return this;
     }
 
@@ -83,99 +146,332 @@ public class Trakt {
      * @param key trakt API key value.
      */
     public Trakt setApiKey(String key) {
-        mApiKey = key;
-        mRestAdapter = null;
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder().setApiKey(key).build();
+        } finally {
+            mLock.unlock();
+        }
         return this;
     }
 
-    public Trakt setIsDebug(boolean isDebug) {
-        mIsDebug = isDebug;
-        mRestAdapter = null;
+    /**
+     * Execute requests using the given transport, e.g. to share its connection pool with other
+     * instances. Pass {@code null} to use {@link Transport#getDefault()}.
+     */
+    public Trakt setTransport(Transport transport) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder().setTransport(transport).build();
+        } finally {
+            mLock.unlock();
+        }
         return this;
     }
 
     /**
-     * If no instance exists yet, builds a new {@link RestAdapter} using the currently set
-     * authentication information, API key and debug flag.
+     * Executors used by the asynchronous service methods, see {@link
+     * TraktConfiguration.Builder#setExecutors(Executor, Executor)}.
      */
-    private RestAdapter buildRestAdapter() {
-        if (mRestAdapter == null) {
-            RestAdapter.Builder builder = new RestAdapter.Builder()
-                    .setServer(API_URL)
-                    .setConverter(new GsonConverter(TraktHelper.getGsonBuilder().create()));
-
-            // if available, send mUsername and password in header
-            builder.setRequestInterceptor(new RequestInterceptor() {
-                @Override
-                public void intercept(RequestFacade requestFacade) {
-                    requestFacade.addPathParam(PARAM_API_KEY, mApiKey);
-                    if ((mUsername != null) && (mPasswordSha1 != null)) {
-                        String source = mUsername + ":" + mPasswordSha1;
-                        String authorization = "Basic " + Base64.encodeBytes(source.getBytes());
-                        requestFacade.addHeader("Authorization", authorization);
-                    }
-                }
-            });
+    public Trakt setExecutors(Executor httpExecutor, Executor callbackExecutor) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setExecutors(httpExecutor, callbackExecutor)
+                    .build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
 
-            if (mIsDebug) {
-                builder.setLogLevel(RestAdapter.LogLevel.FULL);
-            }
+    /**
+     * Coalesce concurrent identical GET calls, see {@link RequestCoalescer}. Pass {@code null} to
+     * disable coalescing again.
+     */
+    public Trakt setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setRequestCoalescer(requestCoalescer)
+                    .build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
+    }
 
-            mRestAdapter = builder.build();
+    /**
+     * Answer cacheable calls from the given cache, see {@link EntityCache}. Pass {@code null} to
+     * disable caching again.
+     */
+    public Trakt setEntityCache(EntityCache entityCache) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setEntityCache(entityCache)
+                    .build();
+        } finally {
+            mLock.unlock();
         }
+        return this;
+    }
 
-        return mRestAdapter;
+    /**
+     * Limit the rate of requests with the given limiter, see {@link RateLimiter}. Pass {@code null}
+     * to stop limiting.
+     */
+    public Trakt setRateLimiter(RateLimiter rateLimiter) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setRateLimiter(rateLimiter)
+                    .build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
     }
 
-    public AccountService accountService() {
-        return buildRestAdapter().create(AccountService.class);
+    /**
+     * Retry failed requests and stop calling failing endpoints, see {@link Resilience}. Pass {@code
+     * null} to disable again.
+     */
+    public Trakt setResilience(Resilience resilience) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setResilience(resilience)
+                    .build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
     }
 
-    public ActivityService activityService() {
-        return buildRestAdapter().create(ActivityService.class);
+    /**
+     * Report the timings of every call per endpoint to the given reporter, e.g. a {@link
+     * HistogramReporter}. Pass {@code null} to stop timing calls.
+     */
+    public Trakt setMetricsReporter(MetricsReporter metricsReporter) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder()
+                    .setMetricsReporter(metricsReporter)
+                    .build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
     }
 
-    public CalendarService calendarService() {
-        return buildRestAdapter().create(CalendarService.class);
+    public Trakt setIsDebug(boolean isDebug) {
+        mLock.lock();
+        try {
+            mConfiguration = mConfiguration.newBuilder().setIsDebug(isDebug).build();
+        } finally {
+            mLock.unlock();
+        }
+        return this;
     }
 
-    public CommentService commentService() {
-        return buildRestAdapter().create(CommentService.class);
+    /**
+     * Runs a blocking service call on the HTTP executor of this instance and returns its future
+     * result, e.g. {@code trakt.submit(new Callable<TvShow>() ...)} calling {@code
+     * showService().summary(...)}. If the HTTP executor creates a virtual thread per task, each
+     * blocking call runs on its own virtual thread.
+     *
+     * <p>Without an executor set through {@link #setExecutors(Executor, Executor)} calls run on a
+     * shared, unbounded pool of daemon threads.</p>
+     */
+    public <T> Future<T> submit(Callable<T> call) {
+        FutureTask<T> task = new FutureTask<T>(call);
+        Executor executor = mConfiguration.getHttpExecutor();
+        if (executor == null) {
+            executor = DefaultExecutorHolder.EXECUTOR;
+        }
+        executor.execute(task);
+        return task;
     }
 
-    public GenreService genreService() {
-        return buildRestAdapter().create(GenreService.class);
+    /**
+     * Returns services which issue all requests on behalf of the given user, regardless of the
+     * authentication set for this instance. All users share the RestAdapter and HTTP connections
+     * of this instance, e.g. {@code trakt.as(credentials).showService().episodeSeen(...)}.
+     *
+     * <p>The returned services follow later changes to API key or debug flag. They are cheap to
+     * create, but should be kept around per user if used often.</p>
+     */
+    public TraktServices as(Credentials credentials) {
+        if (credentials == null) {
+            throw new IllegalArgumentException("Credentials must not be null.");
+        }
+        return new CredentialsServices(this, credentials);
     }
 
-    public ListService listService() {
-        return buildRestAdapter().create(ListService.class);
+    /**
+     * Changes settings passed to {@link #updateConfiguration(Configurator)}.
+     */
+    public interface Configurator {
+
+        void configure(TraktConfiguration.Builder builder);
     }
 
-    public MovieService movieService() {
-        return buildRestAdapter().create(MovieService.class);
+    /**
+     * Returns the {@link Generation} for the current configuration. If there is none yet, builds
+     * it while holding {@link #mLock} so concurrent callers never create duplicate adapters.
+     */
+    private Generation getGeneration() {
+        Generation generation = mGeneration;
+        if (generation != null && generation.configuration == mConfiguration) {
+            return generation;
+        }
+
+        mLock.lock();
+        try {
+            TraktConfiguration configuration = mConfiguration;
+            generation = mGeneration;
+            if (generation == null || generation.configuration != configuration) {
+                generation = new Generation(configuration, buildRestAdapter(configuration),
+                        buildInterceptors(configuration));
+                mGeneration = generation;
+            }
+            return generation;
+        } finally {
+            mLock.unlock();
+        }
     }
 
-    public NetworkService networkService() {
-        return buildRestAdapter().create(NetworkService.class);
+    /**
+     * Builds a new {@link RestAdapter} using the authentication information, API key, transport,
+     * executors, metrics reporter and debug flag of the given configuration.
+     */
+    private static RestAdapter buildRestAdapter(TraktConfiguration configuration) {
+        Transport transport = configuration.getTransport();
+        Client client = transport.getClient();
+        if (configuration.getRateLimiter() != null) {
+            client = configuration.getRateLimiter().wrap(client, configuration);
+        }
+        // Outside of the rate limiter, so every retry waits for a token.
+        if (configuration.getResilience() != null) {
+            client = configuration.getResilience().wrap(client);
+        }
+        Converter converter = transport.wrapConverter(DefaultConverterHolder.CONVERTER);
+        // Outermost, so time spent waiting for tokens and retries counts towards the call.
+        if (configuration.getMetricsReporter() != null) {
+            MetricsClient metricsClient = new MetricsClient(client,
+                    configuration.getMetricsReporter());
+            client = metricsClient;
+            converter = metricsClient.wrap(converter);
+        }
+        RestAdapter.Builder builder = new RestAdapter.Builder()
+                .setServer(configuration.getApiUrl())
+                .setClient(client)
+                .setConverter(converter);
+
+        builder.setRequestInterceptor(new TraktRequestInterceptor(configuration));
+
+        if (configuration.getHttpExecutor() != null) {
+            builder.setExecutors(configuration.getHttpExecutor(),
+                    configuration.getCallbackExecutor());
+        }
+
+        if (configuration.isDebug()) {
+            builder.setLogLevel(RestAdapter.LogLevel.FULL);
+        }
+
+        return builder.build();
     }
 
-    public RateService rateService() {
-        return buildRestAdapter().create(RateService.class);
+    /**
+     * Builds the {@link CallInterceptor}s enabled by the given configuration, in the order they are
+     * applied to each call.
+     */
+    private static List<CallInterceptor> buildInterceptors(TraktConfiguration configuration) {
+        List<CallInterceptor> interceptors = new ArrayList<CallInterceptor>();
+        // Cache hits must not wait for identical calls in flight.
+        if (configuration.getEntityCache() != null) {
+            interceptors.add(configuration.getEntityCache().newInterceptor(configuration));
+        }
+        if (configuration.getRequestCoalescer() != null) {
+            interceptors.add(configuration.getRequestCoalescer().newInterceptor(configuration));
+        }
+        // Outermost, so calls answered by the cache or coalescer are reported too.
+        if (configuration.getMetricsReporter() != null && !interceptors.isEmpty()) {
+            interceptors.add(0, MetricsClient.newInterceptor(configuration.getMetricsReporter()));
+        }
+        return interceptors;
     }
 
-    public RecommendationsService recommendationsService() {
-        return buildRestAdapter().create(RecommendationsService.class);
+    /**
+     * Returns the cached proxy for the given service interface, creating it on first use. Creating
+     * a proxy is expensive as retrofit parses all method annotations again for each new instance.
+     * If any {@link CallInterceptor}s are enabled the retrofit proxy is wrapped to apply them.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    <T> T getService(Class<T> service) {
+        Generation generation = getGeneration();
+        Object proxy = generation.services.get(service);
+        if (proxy == null) {
+            proxy = generation.restAdapter.create(service);
+            if (!generation.interceptors.isEmpty()) {
+                proxy = Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[] { service },
+                        new InterceptingHandler(proxy, generation.interceptors));
+            }
+            Object existing = generation.services.putIfAbsent(service, proxy);
+            if (existing != null) {
+                proxy = existing;
+            }
+        }
+        return (T) proxy;
     }
 
-    public SearchService searchService() {
-        return buildRestAdapter().create(SearchService.class);
+    /**
+     * A {@link RestAdapter} together with the interceptors and service proxies created for it, for
+     * one {@link TraktConfiguration}.
+     */
+    private static final class Generation {
+
+        final TraktConfiguration configuration;
+
+        final RestAdapter restAdapter;
+
+        final List<CallInterceptor> interceptors;
+
+        final ConcurrentMap<Class<?>, Object> services = new ConcurrentHashMap<Class<?>, Object>();
+
+        Generation(TraktConfiguration configuration, RestAdapter restAdapter,
+                List<CallInterceptor> interceptors) {
+            this.configuration = configuration;
+            this.restAdapter = restAdapter;
+            this.interceptors = interceptors;
+        }
     }
 
-    public ShowService showService() {
-        return buildRestAdapter().create(ShowService.class);
+    /**
+     * Converter shared by all instances, using {@link TraktHelper#getGson()}.
+     */
+    private static class DefaultConverterHolder {
+
+        static final Converter CONVERTER = new StreamingConverter(TraktHelper.getGson(),
+                new GsonConverter(TraktHelper.getGson()));
     }
 
-    public UserService userService() {
-        return buildRestAdapter().create(UserService.class);
+    /**
+     * Lazily creates the executor for {@link #submit(Callable)} if no HTTP executor is set, and
+     * for {@link BulkMutations} if it has none.
+     */
+    static class DefaultExecutorHolder {
+
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "Trakt-Submit");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
     }
 }
@@ -0,0 +1,349 @@
+package com.jakewharton.trakt;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Immutable snapshot of all settings a {@link Trakt} instance builds its {@link
+ * retrofit.RestAdapter} from. As all fields are final a configuration can be safely shared between
+ * threads, changing a setting means building a new configuration using {@link #newBuilder()}.
+ */
+public final class TraktConfiguration {
+
+    /**
+     * URL of the trakt API, used unless {@link Builder#setApiUrl(String)} is called.
+     */
+    public static final String DEFAULT_API_URL = "http://api.trakt.tv";
+
+    private final String mApiUrl;
+
+    private final String mApiKey;
+
+    private final Credentials mCredentials;
+
+    private final boolean mIsDebug;
+
+    private final Transport mTransport;
+
+    private final Executor mHttpExecutor;
+
+    private final Executor mCallbackExecutor;
+
+    private final RequestCoalescer mRequestCoalescer;
+
+    private final EntityCache mEntityCache;
+
+    private final RateLimiter mRateLimiter;
+
+    private final Resilience mResilience;
+
+    private final MetricsReporter mMetricsReporter;
+
+    private TraktConfiguration(Builder builder) {
+        mApiUrl = builder.mApiUrl;
+        mApiKey = builder.mApiKey;
+        mCredentials = builder.mCredentials;
+        mIsDebug = builder.mIsDebug;
+        mTransport = builder.mTransport;
+        mHttpExecutor = builder.mHttpExecutor;
+        mCallbackExecutor = builder.mCallbackExecutor;
+        mRequestCoalescer = builder.mRequestCoalescer;
+        mEntityCache = builder.mEntityCache;
+        mRateLimiter = builder.mRateLimiter;
+        mResilience = builder.mResilience;
+        mMetricsReporter = builder.mMetricsReporter;
+    }
+
+    /**
+     * URL all requests are made against. {@link #DEFAULT_API_URL} unless set otherwise.
+     */
+    public String getApiUrl() {
+        return mApiUrl != null ? mApiUrl : DEFAULT_API_URL;
+    }
+
+    /**
+     * trakt API key, or {@code null} if none was set.
+     */
+    public String getApiKey() {
+        return mApiKey;
+    }
+
+    /**
+     * Credentials sent with every request, or {@code null} if no authentication was set.
+     */
+    public Credentials getCredentials() {
+        return mCredentials;
+    }
+
+    /**
+     * trakt username, or {@code null} if no authentication was set.
+     */
+    public String getUsername() {
+        return mCredentials != null ? mCredentials.getUsername() : null;
+    }
+
+    /**
+     * SHA1 of the user password, or {@code null} if no authentication was set.
+     */
+    public String getPasswordSha1() {
+        return mCredentials != null ? mCredentials.getPasswordSha1() : null;
+    }
+
+    /**
+     * Value of the HTTP basic authentication header, encoded once when the credentials were
+     * created. {@code null} if no authentication was set.
+     */
+    public String getAuthorization() {
+        return mCredentials != null ? mCredentials.getAuthorization() : null;
+    }
+
+    /**
+     * Whether to return more detailed log output.
+     */
+    public boolean isDebug() {
+        return mIsDebug;
+    }
+
+    /**
+     * HTTP transport executing all requests. {@link Transport#getDefault()} unless set otherwise.
+     */
+    public Transport getTransport() {
+        return mTransport != null ? mTransport : Transport.getDefault();
+    }
+
+    /**
+     * Executor running asynchronous requests and deserializing their responses, or {@code null} to
+     * use the retrofit default.
+     */
+    public Executor getHttpExecutor() {
+        return mHttpExecutor;
+    }
+
+    /**
+     * Executor invoking the {@link retrofit.Callback} of asynchronous requests, or {@code null} to
+     * use the retrofit default.
+     */
+    public Executor getCallbackExecutor() {
+        return mCallbackExecutor;
+    }
+
+    /**
+     * Coalescer for identical GET calls, or {@code null} if coalescing is disabled.
+     */
+    public RequestCoalescer getRequestCoalescer() {
+        return mRequestCoalescer;
+    }
+
+    /**
+     * Cache of decoded results, or {@code null} if results are not cached.
+     */
+    public EntityCache getEntityCache() {
+        return mEntityCache;
+    }
+
+    /**
+     * Limiter of the request rate, or {@code null} if requests are not limited.
+     */
+    public RateLimiter getRateLimiter() {
+        return mRateLimiter;
+    }
+
+    /**
+     * Retry and circuit breaker settings, or {@code null} if failed requests are not retried.
+     */
+    public Resilience getResilience() {
+        return mResilience;
+    }
+
+    /**
+     * Receiver of the timings of every call, or {@code null} if calls are not timed.
+     */
+    public MetricsReporter getMetricsReporter() {
+        return mMetricsReporter;
+    }
+
+    /**
+     * Returns a builder initialized with the settings of this configuration.
+     */
+    public Builder newBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Build a new {@link TraktConfiguration}. Builders are not thread-safe.
+     *
+     * <p>The coalescer, entity cache, rate limiter, resilience and metrics reporter keep their
+     * state across calls. Setting the same instance on several configurations, or {@link Trakt}
+     * instances, shares that state, e.g. one rate limit or one set of circuit breakers for all of
+     * them.</p>
+     */
+    public static class Builder {
+
+        private String mApiUrl;
+
+        private String mApiKey;
+
+        private Credentials mCredentials;
+
+        private boolean mIsDebug;
+
+        private Transport mTransport;
+
+        private Executor mHttpExecutor;
+
+        private Executor mCallbackExecutor;
+
+        private RequestCoalescer mRequestCoalescer;
+
+        private EntityCache mEntityCache;
+
+        private RateLimiter mRateLimiter;
+
+        private Resilience mResilience;
+
+        private MetricsReporter mMetricsReporter;
+
+        public Builder() {
+        }
+
+        private Builder(TraktConfiguration configuration) {
+            mApiUrl = configuration.mApiUrl;
+            mApiKey = configuration.mApiKey;
+            mCredentials = configuration.mCredentials;
+            mIsDebug = configuration.mIsDebug;
+            mTransport = configuration.mTransport;
+            mHttpExecutor = configuration.mHttpExecutor;
+            mCallbackExecutor = configuration.mCallbackExecutor;
+            mRequestCoalescer = configuration.mRequestCoalescer;
+            mEntityCache = configuration.mEntityCache;
+            mRateLimiter = configuration.mRateLimiter;
+            mResilience = configuration.mResilience;
+            mMetricsReporter = configuration.mMetricsReporter;
+        }
+
+        /**
+         * Make requests against the given URL instead of {@link #DEFAULT_API_URL}, e.g. a local
+         * stub server in tests. Pass {@code null} to use the default again.
+         */
+        public Builder setApiUrl(String apiUrl) {
+            if (apiUrl != null && apiUrl.endsWith("/")) {
+                throw new IllegalArgumentException("API URL must not end with a slash.");
+            }
+            mApiUrl = apiUrl;
+            return this;
+        }
+
+        /**
+         * Set your trakt API key. All API methods require a valid API key.
+         *
+         * @param key trakt API key value.
+         */
+        public Builder setApiKey(String key) {
+            mApiKey = key;
+            return this;
+        }
+
+        /**
+         * POST API methods on trakt require basic authentication. You must set your trakt username
+         * and sha1 of the password. They will be sent in the HTTP header.
+         *
+         * @param username     Username.
+         * @param passwordSha1 SHA1 of user password.
+         */
+        public Builder setAuthentication(String username, String passwordSha1) {
+            if (username == null || passwordSha1 == null) {
+                mCredentials = null;
+            } else {
+                mCredentials = new Credentials(username, passwordSha1);
+            }
+            return this;
+        }
+
+        /**
+         * Like {@link #setAuthentication(String, String)}, but reuses already encoded credentials.
+         * Pass {@code null} to remove authentication.
+         */
+        public Builder setCredentials(Credentials credentials) {
+            mCredentials = credentials;
+            return this;
+        }
+
+        public Builder setIsDebug(boolean isDebug) {
+            mIsDebug = isDebug;
+            return this;
+        }
+
+        /**
+         * Use the given transport, e.g. to share a connection pool between several {@link Trakt}
+         * instances. Pass {@code null} to use {@link Transport#getDefault()}.
+         */
+        public Builder setTransport(Transport transport) {
+            mTransport = transport;
+            return this;
+        }
+
+        /**
+         * Executors used by the asynchronous variants of the service methods, those taking a
+         * {@link retrofit.Callback}. Requests are made and their responses deserialized on
+         * {@code httpExecutor}, the callback is then invoked on {@code callbackExecutor}. Pass
+         * {@code null} for both to use the retrofit defaults.
+         */
+        public Builder setExecutors(Executor httpExecutor, Executor callbackExecutor) {
+            if ((httpExecutor == null) != (callbackExecutor == null)) {
+                throw new IllegalArgumentException(
+                        "Either set both executors or none of them.");
+            }
+            mHttpExecutor = httpExecutor;
+            mCallbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Coalesce concurrent identical GET calls using the given coalescer. Disabled by default,
+         * pass {@code null} to disable again.
+         */
+        public Builder setRequestCoalescer(RequestCoalescer requestCoalescer) {
+            mRequestCoalescer = requestCoalescer;
+            return this;
+        }
+
+        /**
+         * Answer cacheable calls from the given cache. Disabled by default, pass {@code null} to
+         * disable again.
+         */
+        public Builder setEntityCache(EntityCache entityCache) {
+            mEntityCache = entityCache;
+            return this;
+        }
+
+        /**
+         * Limit the rate of requests with the given limiter. Disabled by default, pass {@code
+         * null} to disable again.
+         */
+        public Builder setRateLimiter(RateLimiter rateLimiter) {
+            mRateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Retry failed requests and stop calling failing endpoints. Disabled by default, pass
+         * {@code null} to disable again.
+         */
+        public Builder setResilience(Resilience resilience) {
+            mResilience = resilience;
+            return this;
+        }
+
+        /**
+         * Report the timings of every call to the given reporter. Disabled by default, pass {@code
+         * null} to disable again.
+         */
+        public Builder setMetricsReporter(MetricsReporter metricsReporter) {
+            mMetricsReporter = metricsReporter;
+            return this;
+        }
+
+        public TraktConfiguration build() {
+            return new TraktConfiguration(this);
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.jakewharton.trakt;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import com.jakewharton.trakt.entities.ActivityItem;
 import com.jakewharton.trakt.entities.ActivityItemBase;
@@ -25,21 +25,38 @@ import com.jakewharton.trakt.enumerations.MediaType;
 import com.jakewharton.trakt.enumerations.Rating;
 import com.jakewharton.trakt.enumerations.RatingType;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
 
+import retrofit.http.Body;
+
 public abstract class TraktHelper {
 
     /**
      * Format for decoding JSON dates in string format.
      */
-    private static final SimpleDateFormat JSON_STRING_DATE = new SimpleDateFormat("yyy-MM-dd");
+    private static final String JSON_STRING_DATE = "yyy-MM-dd";
+
+    /**
+     * Calendar in the default time zone for decoding JSON dates in string format. Calendars are
+     * not thread-safe, so each thread has its own.
+     */
+    private static final ThreadLocal<Calendar> STRING_DATE_CALENDAR = new ThreadLocal<Calendar>() {
+        @Override
+        protected Calendar initialValue() {
+            return Calendar.getInstance();
+        }
+    };
 
     /**
      * Time zone for Trakt dates.
@@ -48,194 +65,502 @@ public abstract class TraktHelper {
 
     private static final long SECOND_IN_MILLISECONDS = 1000;
 
+    /**
+     * System property which disables the generated entity adapters if set to {@code false}.
+     */
+    public static final String PROPERTY_GENERATED_ADAPTERS = "trakt.generatedAdapters";
+
+    /**
+     * Factory of the entity adapters generated by {@code adapter-processor}, only present if the
+     * library was built with the {@code generated-adapters} profile.
+     */
+    private static final String GENERATED_ADAPTER_FACTORY
+            = "com.jakewharton.trakt.entities.GeneratedAdapterFactory";
+
+    /**
+     * Returns the {@link Gson} instance shared by all {@link Trakt} instances, created from {@link
+     * #getGsonBuilder()} on first use. It is immutable and safe to use from any thread, and keeps
+     * every type adapter it creates, so each type is only inspected once per process.
+     */
+    public static Gson getGson() {
+        return GsonHolder.GSON;
+    }
+
+    /**
+     * Creates the type adapters of {@link #getGson()} for every entity sent to or received from
+     * the trakt services, so the first request of each kind does not pay for reflection. Optional,
+     * e.g. call it once on a background thread while the application starts.
+     */
+    public static void warmUp() {
+        Gson gson = getGson();
+        for (ServiceMethod serviceMethod : ServiceMethod.all()) {
+            Method method = serviceMethod.method;
+            Type[] parameterTypes = method.getGenericParameterTypes();
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                for (Annotation annotation : parameterAnnotations[i]) {
+                    if (annotation instanceof Body) {
+                        gson.getAdapter(TypeToken.get(parameterTypes[i]));
+                    }
+                }
+            }
+
+            gson.getAdapter(TypeToken.get(serviceMethod.responseType));
+        }
+    }
+
     /**
      * Create a {@link GsonBuilder} and register all of the custom types needed in order to properly
      * deserialize complex Trakt-specific type.
      *
+     * <p>All custom types are read with streaming {@link TypeAdapter}s, straight from the {@link
+     * JsonReader} without building an intermediate tree. They only customize reading, values are
+     * written by Gson's default adapters.</p>
+     *
+     * <p>If the library was built with generated entity adapters they are used, unless the system
+     * property {@value #PROPERTY_GENERATED_ADAPTERS} is {@code false}.</p>
+     *
      * @return Assembled GSON builder instance.
      */
     public static GsonBuilder getGsonBuilder() {
+        return getGsonBuilder(
+                Boolean.parseBoolean(System.getProperty(PROPERTY_GENERATED_ADAPTERS, "true")));
+    }
+
+    /**
+     * Like {@link #getGsonBuilder()}, but decides whether entities are read by generated adapters
+     * or by Gson's reflective adapters. Without generated adapters both are the same.
+     */
+    public static GsonBuilder getGsonBuilder(boolean useGeneratedAdapters) {
         GsonBuilder builder = new GsonBuilder();
 
+        //generated entity adapters, registered first so all adapters below take precedence
+        if (useGeneratedAdapters) {
+            TypeAdapterFactory generated = newGeneratedAdapterFactory();
+            if (generated != null) {
+                builder.registerTypeAdapterFactory(generated);
+            }
+        }
+
+
         //class types
-        builder.registerTypeAdapter(Integer.class, new JsonDeserializer<Integer>() {
+        builder.registerTypeAdapterFactory(new ReadingAdapterFactory<Integer>(Integer.class) {
             @Override
-            public Integer deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
+            Integer read(Gson gson, JsonReader in) throws IOException {
                 try {
-                    return Integer.valueOf(json.getAsInt());
+                    return Integer.valueOf(readInt(in));
                 } catch (NumberFormatException e) {
                     return null;
                 }
             }
         });
-        builder.registerTypeAdapter(Date.class, new JsonDeserializer<Date>() {
+        builder.registerTypeAdapterFactory(new ReadingAdapterFactory<Date>(Date.class) {
             @Override
-            public Date deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
-                try {
-                    long value = json.getAsLong();
-                    Calendar date = Calendar.getInstance(TRAKT_TIME_ZONE);
-                    date.setTimeInMillis(value * SECOND_IN_MILLISECONDS);
-                    return date.getTime();
-                } catch (NumberFormatException outer) {
-                    try {
-                        return JSON_STRING_DATE.parse(json.getAsString());
-                    } catch (ParseException inner) {
-                        throw new JsonParseException(outer);
-                    }
-                }
+            Date read(Gson gson, JsonReader in) throws IOException {
+                return readDate(in);
             }
         });
-        builder.registerTypeAdapter(Calendar.class, new JsonDeserializer<Calendar>() {
+        builder.registerTypeAdapterFactory(new ReadingAdapterFactory<Calendar>(Calendar.class) {
             @Override
-            public Calendar deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
+            Calendar read(Gson gson, JsonReader in) throws IOException {
+                boolean isNumber = in.peek() == JsonToken.NUMBER;
                 Calendar value = Calendar.getInstance(TRAKT_TIME_ZONE);
-                value.setTimeInMillis(json.getAsLong() * SECOND_IN_MILLISECONDS);
+                value.setTimeInMillis(toLong(readString(in), isNumber) * SECOND_IN_MILLISECONDS);
                 return value;
             }
         });
-        builder.registerTypeAdapter(TvShowSeason.Episodes.class,
-                new JsonDeserializer<TvShowSeason.Episodes>() {
-                    @Override
-                    public TvShowSeason.Episodes deserialize(JsonElement json, Type typeOfT,
-                            JsonDeserializationContext context) throws JsonParseException {
-                        TvShowSeason.Episodes episodes = new TvShowSeason.Episodes();
-                        try {
-                            if (json.isJsonArray()) {
-                                if (json.getAsJsonArray().get(0).isJsonPrimitive()) {
-                                    //Episode number list
-                                    Field fieldNumbers = TvShowSeason.Episodes.class
-                                            .getDeclaredField("numbers");
-                                    fieldNumbers.setAccessible(true);
-                                    fieldNumbers.set(episodes, context.deserialize(json,
-                                            (new TypeToken<List<Integer>>() {
-                                            }).getType()));
-                                } else {
-                                    //Episode object list
-                                    Field fieldList = TvShowSeason.Episodes.class
-                                            .getDeclaredField("episodes");
-                                    fieldList.setAccessible(true);
-                                    fieldList.set(episodes, context.deserialize(json,
-                                            (new TypeToken<List<TvShowEpisode>>() {
-                                            }).getType()));
-                                }
-                            } else {
-                                //Episode count
-                                Field fieldCount = TvShowSeason.Episodes.class
-                                        .getDeclaredField("count");
-                                fieldCount.setAccessible(true);
-                                fieldCount.set(episodes, Integer.valueOf(json.getAsInt()));
-                            }
-                        } catch (SecurityException e) {
-                            throw new JsonParseException(e);
-                        } catch (NoSuchFieldException e) {
-                            throw new JsonParseException(e);
-                        } catch (IllegalArgumentException e) {
-                            throw new JsonParseException(e);
-                        } catch (IllegalAccessException e) {
-                            throw new JsonParseException(e);
-                        }
-                        return episodes;
-                    }
-                });
-        builder.registerTypeAdapter(ActivityItemBase.class,
-                new JsonDeserializer<ActivityItemBase>() {
+        builder.registerTypeAdapterFactory(EpisodesAdapter.FACTORY);
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<ActivityItemBase>(ActivityItemBase.class) {
                     //XXX See: https://groups.google.com/d/topic/traktapi/GQlT9HfAEjw/discussion
                     @Override
-                    public ActivityItemBase deserialize(JsonElement json, Type typeOfT,
-                            JsonDeserializationContext context) throws JsonParseException {
-                        if (json.isJsonArray()) {
-                            if (json.getAsJsonArray().size() != 0) {
+                    ActivityItemBase read(Gson gson, JsonReader in) throws IOException {
+                        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                            in.beginArray();
+                            if (in.hasNext()) {
                                 throw new JsonParseException(
                                         "\"watched\" field returned a non-empty array.");
                             }
+                            in.endArray();
                             return null;
                         } else {
-                            return context.deserialize(json, ActivityItem.class);
+                            return gson.getAdapter(ActivityItem.class).read(in);
                         }
                     }
                 });
         //enum types
-        builder.registerTypeAdapter(ActivityAction.class, new JsonDeserializer<ActivityAction>() {
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<ActivityAction>(ActivityAction.class) {
+                    @Override
+                    ActivityAction read(Gson gson, JsonReader in) throws IOException {
+                        return ActivityAction.fromValue(readString(in));
+                    }
+                });
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<ActivityType>(ActivityType.class) {
+                    @Override
+                    ActivityType read(Gson gson, JsonReader in) throws IOException {
+                        return ActivityType.fromValue(readString(in));
+                    }
+                });
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<DayOfTheWeek>(DayOfTheWeek.class) {
+                    @Override
+                    DayOfTheWeek read(Gson gson, JsonReader in) throws IOException {
+                        return DayOfTheWeek.fromValue(readString(in));
+                    }
+                });
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<ExtendedParam>(ExtendedParam.class) {
+                    @Override
+                    ExtendedParam read(Gson gson, JsonReader in) throws IOException {
+                        return ExtendedParam.fromValue(readString(in));
+                    }
+                });
+        builder.registerTypeAdapterFactory(new ReadingAdapterFactory<Gender>(Gender.class) {
             @Override
-            public ActivityAction deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
-                return ActivityAction.fromValue(json.getAsString());
+            Gender read(Gson gson, JsonReader in) throws IOException {
+                return Gender.fromValue(readString(in));
             }
         });
-        builder.registerTypeAdapter(ActivityType.class, new JsonDeserializer<ActivityType>() {
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<ListItemType>(ListItemType.class) {
+                    @Override
+                    ListItemType read(Gson gson, JsonReader in) throws IOException {
+                        return ListItemType.fromValue(readString(in));
+                    }
+                });
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<ListPrivacy>(ListPrivacy.class) {
+                    @Override
+                    ListPrivacy read(Gson gson, JsonReader in) throws IOException {
+                        return ListPrivacy.fromValue(readString(in));
+                    }
+                });
+        builder.registerTypeAdapterFactory(new ReadingAdapterFactory<MediaType>(MediaType.class) {
             @Override
-            public ActivityType deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
-                return ActivityType.fromValue(json.getAsString());
+            MediaType read(Gson gson, JsonReader in) throws IOException {
+                return MediaType.fromValue(readString(in));
             }
         });
-        builder.registerTypeAdapter(DayOfTheWeek.class, new JsonDeserializer<DayOfTheWeek>() {
+        builder.registerTypeAdapterFactory(new TypeAdapterFactory() {
             @Override
-            public DayOfTheWeek deserialize(JsonElement arg0, Type arg1,
-                    JsonDeserializationContext arg2) throws JsonParseException {
-                return DayOfTheWeek.fromValue(arg0.getAsString());
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                if (type.getType() != Rating.class) {
+                    return null;
+                }
+                return (TypeAdapter<T>) new TypeAdapter<Rating>() {
+                    @Override
+                    public void write(JsonWriter out, Rating value) throws IOException {
+                        if (value == null) {
+                            out.nullValue();
+                        } else {
+                            out.value(value.toString());
+                        }
+                    }
+
+                    @Override
+                    public Rating read(JsonReader in) throws IOException {
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                            return null;
+                        }
+                        return Rating.fromValue(readString(in));
+                    }
+                };
             }
         });
-        builder.registerTypeAdapter(ExtendedParam.class, new JsonDeserializer<ExtendedParam>() {
-            @Override
-            public ExtendedParam deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
-                return ExtendedParam.fromValue(json.getAsString());
+        builder.registerTypeAdapterFactory(
+                new ReadingAdapterFactory<RatingType>(RatingType.class) {
+                    @Override
+                    RatingType read(Gson gson, JsonReader in) throws IOException {
+                        return RatingType.fromValue(readString(in));
+                    }
+                });
+
+        return builder;
+    }
+
+    /**
+     * Returns whether the library was built with generated entity adapters.
+     */
+    public static boolean hasGeneratedAdapters() {
+        return newGeneratedAdapterFactory() != null;
+    }
+
+    private static TypeAdapterFactory newGeneratedAdapterFactory() {
+        try {
+            return (TypeAdapterFactory) Class.forName(GENERATED_ADAPTER_FACTORY).newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (InstantiationException e) {
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads a primitive value as a string, like {@code JsonPrimitive#getAsString()}: numbers as
+     * written in the document, booleans as {@code true} or {@code false}.
+     */
+    static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return in.nextBoolean() ? "true" : "false";
+        }
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            throw new IllegalStateException("Expected a primitive but was " + token);
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a primitive value as an int, like {@code JsonPrimitive#getAsInt()}: numbers are
+     * truncated, other values must be integer strings. Throws {@link NumberFormatException}
+     * otherwise.
+     */
+    static int readInt(JsonReader in) throws IOException {
+        boolean isNumber = in.peek() == JsonToken.NUMBER;
+        String value = readString(in);
+        if (!isNumber) {
+            return Integer.parseInt(value);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (int) Long.parseLong(value);
+            } catch (NumberFormatException notALong) {
+                return new BigDecimal(value).intValue();
             }
-        });
-        builder.registerTypeAdapter(Gender.class, new JsonDeserializer<Gender>() {
-            @Override
-            public Gender deserialize(JsonElement arg0, Type arg1, JsonDeserializationContext arg2)
-                    throws JsonParseException {
-                return Gender.fromValue(arg0.getAsString());
+        }
+    }
+
+    /**
+     * Converts a primitive value read by {@link #readString(JsonReader)} to a long, like {@code
+     * JsonPrimitive#getAsLong()}: numbers are truncated, other values must be integer strings.
+     * Throws {@link NumberFormatException} otherwise.
+     */
+    static long toLong(String value, boolean isNumber) {
+        if (isNumber && !isLong(value)) {
+            return new BigDecimal(value).longValue();
+        }
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Reads a date given either as seconds since the epoch or in {@code yyyy-MM-dd} format, in the
+     * default time zone. Safe to call from several threads at once.
+     */
+    static Date readDate(JsonReader in) throws IOException {
+        boolean isNumber = in.peek() == JsonToken.NUMBER;
+        String value = readString(in);
+        if (isNumber || isLong(value)) {
+            return new Date(toLong(value, isNumber) * SECOND_IN_MILLISECONDS);
+        }
+        if (isSignedDigits(value)) {
+            //Out of range for a long, and not a date either
+            throw new JsonParseException("Invalid date: " + value);
+        }
+        if (value.length() == 10 && value.charAt(4) == '-' && value.charAt(7) == '-') {
+            int year = parseDigits(value, 0, 4);
+            int month = parseDigits(value, 5, 7);
+            int day = parseDigits(value, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                //Same lenient fields SimpleDateFormat would set, so e.g. "2013-02-30" rolls over
+                Calendar calendar = STRING_DATE_CALENDAR.get();
+                calendar.clear();
+                calendar.set(year, month - 1, day);
+                return calendar.getTime();
             }
-        });
-        builder.registerTypeAdapter(ListItemType.class, new JsonDeserializer<ListItemType>() {
-            @Override
-            public ListItemType deserialize(JsonElement arg0, Type arg1,
-                    JsonDeserializationContext arg2) throws JsonParseException {
-                return ListItemType.fromValue(arg0.getAsString());
+        }
+        //Anything else SimpleDateFormat might still accept, e.g. a date followed by a time
+        try {
+            return new SimpleDateFormat(JSON_STRING_DATE).parse(value);
+        } catch (ParseException e) {
+            throw new JsonParseException("Invalid date: " + value, e);
+        }
+    }
+
+    /**
+     * Whether {@link Long#parseLong(String)} accepts the value: an optional sign followed by at
+     * most 18 digits, or 19 digits within range.
+     */
+    private static boolean isLong(String value) {
+        if (!isSignedDigits(value)) {
+            return false;
+        }
+        int digits = value.charAt(0) == '-' || value.charAt(0) == '+'
+                ? value.length() - 1 : value.length();
+        if (digits < 19) {
+            return true;
+        }
+        if (digits > 19) {
+            return false;
+        }
+        String limit = value.charAt(0) == '-' ? "9223372036854775808" : "9223372036854775807";
+        return value.substring(value.length() - 19).compareTo(limit) <= 0;
+    }
+
+    /**
+     * Whether the value is an optional sign followed by one or more ASCII digits.
+     */
+    private static boolean isSignedDigits(String value) {
+        int length = value.length();
+        int start = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (start == length) {
+            return false;
+        }
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
             }
-        });
-        builder.registerTypeAdapter(ListPrivacy.class, new JsonDeserializer<ListPrivacy>() {
-            @Override
-            public ListPrivacy deserialize(JsonElement arg0, Type arg1,
-                    JsonDeserializationContext arg2) throws JsonParseException {
-                return ListPrivacy.fromValue(arg0.getAsString());
+        }
+        return true;
+    }
+
+    /**
+     * Parses the ASCII digits between {@code start} and {@code end}, or returns -1 if there are
+     * other characters.
+     */
+    private static int parseDigits(String value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
             }
-        });
-        builder.registerTypeAdapter(MediaType.class, new JsonDeserializer<MediaType>() {
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static <E> List<E> readList(JsonReader in, TypeAdapter<E> elementAdapter)
+            throws IOException {
+        List<E> list = new ArrayList<E>();
+        while (in.hasNext()) {
+            list.add(elementAdapter.read(in));
+        }
+        return list;
+    }
+
+    private static class GsonHolder {
+
+        static final Gson GSON = getGsonBuilder().create();
+    }
+
+    /**
+     * Reads {@link TvShowSeason.Episodes}, which Trakt sends as a count, a list of episode numbers
+     * or a list of episodes. The adapters for the list elements are looked up once, when the
+     * adapter is created.
+     */
+    private static final class EpisodesAdapter extends TypeAdapter<TvShowSeason.Episodes> {
+
+        static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
             @Override
-            public MediaType deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
-                return MediaType.fromValue(json.getAsString());
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                if (type.getType() != TvShowSeason.Episodes.class) {
+                    return null;
+                }
+                return (TypeAdapter<T>) new EpisodesAdapter(
+                        gson.getDelegateAdapter(this, TypeToken.get(TvShowSeason.Episodes.class)),
+                        gson.getAdapter(Integer.class),
+                        gson.getAdapter(TvShowEpisode.class));
             }
-        });
-        builder.registerTypeAdapter(Rating.class, new JsonDeserializer<Rating>() {
-            @Override
-            public Rating deserialize(JsonElement json, Type typeOfT,
-                    JsonDeserializationContext context) throws JsonParseException {
-                return Rating.fromValue(json.getAsString());
+        };
+
+        private final TypeAdapter<TvShowSeason.Episodes> mDelegate;
+
+        private final TypeAdapter<Integer> mNumberAdapter;
+
+        private final TypeAdapter<TvShowEpisode> mEpisodeAdapter;
+
+        EpisodesAdapter(TypeAdapter<TvShowSeason.Episodes> delegate,
+                TypeAdapter<Integer> numberAdapter, TypeAdapter<TvShowEpisode> episodeAdapter) {
+            mDelegate = delegate;
+            mNumberAdapter = numberAdapter;
+            mEpisodeAdapter = episodeAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, TvShowSeason.Episodes value) throws IOException {
+            mDelegate.write(out, value);
+        }
+
+        @Override
+        public TvShowSeason.Episodes read(JsonReader in) throws IOException {
+            JsonToken token = in.peek();
+            if (token == JsonToken.NULL) {
+                in.nextNull();
+                return null;
             }
-        });
-        builder.registerTypeAdapter(Rating.class, new JsonSerializer<Rating>() {
-            @Override
-            public JsonElement serialize(Rating src, Type typeOfSrc,
-                    JsonSerializationContext context) {
-                return new JsonPrimitive(src.toString());
+            TvShowSeason.Episodes episodes = new TvShowSeason.Episodes();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                JsonToken first = in.peek();
+                if (first == JsonToken.STRING
+                        || first == JsonToken.NUMBER
+                        || first == JsonToken.BOOLEAN) {
+                    //Episode number list
+                    episodes.numbers = readList(in, mNumberAdapter);
+                } else {
+                    //Episode object list
+                    episodes.episodes = readList(in, mEpisodeAdapter);
+                }
+                in.endArray();
+            } else {
+                //Episode count
+                try {
+                    episodes.count = Integer.valueOf(readInt(in));
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(e);
+                }
             }
-        });
-        builder.registerTypeAdapter(RatingType.class, new JsonDeserializer<RatingType>() {
-            @Override
-            public RatingType deserialize(JsonElement arg0, Type arg1,
-                    JsonDeserializationContext arg2) throws JsonParseException {
-                return RatingType.fromValue(arg0.getAsString());
+            return episodes;
+        }
+    }
+
+    /**
+     * Creates adapters for exactly one type, which read values with {@link #read(Gson,
+     * JsonReader)} and write them with Gson's default adapter for the type. {@code null} is handled
+     * before {@link #read(Gson, JsonReader)} is called.
+     */
+    private abstract static class ReadingAdapterFactory<V> implements TypeAdapterFactory {
+
+        private final Class<V> mType;
+
+        ReadingAdapterFactory(Class<V> type) {
+            mType = type;
+        }
+
+        abstract V read(Gson gson, JsonReader in) throws IOException;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(final Gson gson, TypeToken<T> type) {
+            if (type.getType() != mType) {
+                return null;
             }
-        });
+            final TypeAdapter<V> delegate = gson.getDelegateAdapter(this, TypeToken.get(mType));
+            return (TypeAdapter<T>) new TypeAdapter<V>() {
+                @Override
+                public void write(JsonWriter out, V value) throws IOException {
+                    delegate.write(out, value);
+                }
 
-        return builder;
+                @Override
+                public V read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    return ReadingAdapterFactory.this.read(gson, in);
+                }
+            };
+        }
     }
 }
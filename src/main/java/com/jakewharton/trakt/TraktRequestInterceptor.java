@@ -0,0 +1,86 @@
+package com.jakewharton.trakt;
+
+import retrofit.RequestInterceptor;
+
+/**
+ * Adds the API key path parameter and, if available, the authorization header of a {@link
+ * TraktConfiguration} to every request. Both values are read once on creation, so intercepting a
+ * request does not allocate unless calls are timed, see {@link MetricsClient}.
+ *
+ * <p>Credentials bound to the calling thread with {@link #bindCredentials(Credentials)} take
+ * precedence over the configured ones. Retrofit intercepts on the calling thread for both
+ * synchronous and asynchronous methods.</p>
+ */
+final class TraktRequestInterceptor implements RequestInterceptor {
+
+    /**
+     * API key path parameter name.
+     */
+    static final String PARAM_API_KEY = "apikey";
+
+    static final String HEADER_AUTHORIZATION = "Authorization";
+
+    /**
+     * Credentials to use for requests issued by the current thread instead of the configured ones.
+     */
+    private static final ThreadLocal<Credentials> CALL_CREDENTIALS = new ThreadLocal<Credentials>();
+
+    private final String mApiKey;
+
+    private final String mAuthorization;
+
+    private final boolean mIsTimed;
+
+    TraktRequestInterceptor(TraktConfiguration configuration) {
+        mApiKey = configuration.getApiKey();
+        mAuthorization = configuration.getAuthorization();
+        mIsTimed = configuration.getMetricsReporter() != null;
+    }
+
+    @Override
+    public void intercept(RequestFacade requestFacade) {
+        requestFacade.addPathParam(PARAM_API_KEY, mApiKey);
+        // if available, send username and password in header
+        Credentials credentials = CALL_CREDENTIALS.get();
+        String authorization = credentials != null ? credentials.getAuthorization()
+                : mAuthorization;
+        if (authorization != null) {
+            requestFacade.addHeader(HEADER_AUTHORIZATION, authorization);
+        }
+        if (mIsTimed) {
+            requestFacade.addHeader(MetricsClient.HEADER_CALLED_AT,
+                    Long.toString(System.nanoTime()));
+        }
+    }
+
+    /**
+     * Returns the authorization header value of the credentials bound to the current thread, or
+     * {@code null} if there are none.
+     */
+    static String boundAuthorization() {
+        Credentials credentials = CALL_CREDENTIALS.get();
+        return credentials != null ? credentials.getAuthorization() : null;
+    }
+
+    /**
+     * Returns the credentials bound to the current thread, or {@code null} if there are none.
+     */
+    static Credentials boundCredentials() {
+        return CALL_CREDENTIALS.get();
+    }
+
+    /**
+     * Use the given credentials for all requests issued by the current thread until they are
+     * replaced by another call to this method. Returns the previously bound credentials, which
+     * should be restored once done.
+     */
+    static Credentials bindCredentials(Credentials credentials) {
+        Credentials previous = CALL_CREDENTIALS.get();
+        if (credentials == null) {
+            CALL_CREDENTIALS.remove();
+        } else {
+            CALL_CREDENTIALS.set(credentials);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,84 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.services.AccountService;
+import com.jakewharton.trakt.services.ActivityService;
+import com.jakewharton.trakt.services.CalendarService;
+import com.jakewharton.trakt.services.CommentService;
+import com.jakewharton.trakt.services.GenreService;
+import com.jakewharton.trakt.services.ListService;
+import com.jakewharton.trakt.services.MovieService;
+import com.jakewharton.trakt.services.NetworkService;
+import com.jakewharton.trakt.services.RateService;
+import com.jakewharton.trakt.services.RecommendationsService;
+import com.jakewharton.trakt.services.SearchService;
+import com.jakewharton.trakt.services.ShowService;
+import com.jakewharton.trakt.services.UserService;
+
+/**
+ * Accessors for all trakt services.
+ *
+ * @see Trakt
+ * @see Trakt#as(Credentials)
+ */
+public abstract class TraktServices {
+
+    TraktServices() {
+    }
+
+    /**
+     * Returns the implementation of the given service interface.
+     */
+    abstract <T> T getService(Class<T> service);
+
+    public AccountService accountService() {
+        return getService(AccountService.class);
+    }
+
+    public ActivityService activityService() {
+        return getService(ActivityService.class);
+    }
+
+    public CalendarService calendarService() {
+        return getService(CalendarService.class);
+    }
+
+    public CommentService commentService() {
+        return getService(CommentService.class);
+    }
+
+    public GenreService genreService() {
+        return getService(GenreService.class);
+    }
+
+    public ListService listService() {
+        return getService(ListService.class);
+    }
+
+    public MovieService movieService() {
+        return getService(MovieService.class);
+    }
+
+    public NetworkService networkService() {
+        return getService(NetworkService.class);
+    }
+
+    public RateService rateService() {
+        return getService(RateService.class);
+    }
+
+    public RecommendationsService recommendationsService() {
+        return getService(RecommendationsService.class);
+    }
+
+    public SearchService searchService() {
+        return getService(SearchService.class);
+    }
+
+    public ShowService showService() {
+        return getService(ShowService.class);
+    }
+
+    public UserService userService() {
+        return getService(UserService.class);
+    }
+}
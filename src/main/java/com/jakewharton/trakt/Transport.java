@@ -0,0 +1,307 @@
+package com.jakewharton.trakt;
+
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.HttpResponseCache;
+import com.squareup.okhttp.OkHttpClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.client.Client;
+import retrofit.converter.Converter;
+
+/**
+ * HTTP transport used by {@link Trakt} to execute requests. Owns a pool of keep-alive connections
+ * which is reused by all requests and shared by all {@link Trakt} instances using the same
+ * transport. Instances are immutable and thread-safe.
+ *
+ * <p>Unless configured otherwise, {@link Trakt} uses the process-wide {@link #getDefault()}
+ * transport. To use a different HTTP stack see {@link #create(Client)}.</p>
+ *
+ * <p>A transport can keep a size-bounded response cache on disk, see {@link
+ * Builder#setCache(File, long)}. Cached responses are revalidated with conditional requests as their
+ * cache headers demand. If the server answers with 304 the response is read from disk and, if it
+ * was decoded before, the decoded instance is reused instead of parsing the body again. Such
+ * instances are shared between callers and must be treated as read-only.</p>
+ *
+ * <p>Responses are requested gzip compressed and inflated while they are decoded. The bytes
+ * received per endpoint are reported by {@link #getResponseBytes()}. Request bodies are compressed
+ * only if enabled with {@link Builder#setRequestCompression(boolean)}.</p>
+ */
+public final class Transport {
+
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    private static final long DEFAULT_READ_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(20);
+
+    private final OkHttpClient mOkHttpClient;
+
+    private final CachingClient mCachingClient;
+
+    private final GzipClient mGzipClient;
+
+    private final Client mClient;
+
+    private Transport(Builder builder) {
+        mOkHttpClient = new OkHttpClient();
+        mOkHttpClient.setConnectionPool(
+                new ConnectionPool(builder.mMaxIdleConnections, builder.mKeepAliveMillis));
+        mOkHttpClient.setConnectTimeout(builder.mConnectTimeoutMillis, TimeUnit.MILLISECONDS);
+        mOkHttpClient.setReadTimeout(builder.mReadTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (builder.mCacheDirectory != null) {
+            try {
+                mOkHttpClient.setResponseCache(
+                        new HttpResponseCache(builder.mCacheDirectory, builder.mCacheMaxSize));
+            } catch (IOException e) {
+                throw new IllegalStateException(
+                        "Unable to open response cache in " + builder.mCacheDirectory, e);
+            }
+        }
+        mGzipClient = new GzipClient(new TimedOkClient(mOkHttpClient),
+                builder.mRequestCompression);
+        if (builder.mCacheDirectory != null) {
+            mCachingClient = new CachingClient(mGzipClient);
+            mClient = mCachingClient;
+        } else {
+            mCachingClient = null;
+            mClient = mGzipClient;
+        }
+    }
+
+    private Transport(Client client) {
+        mOkHttpClient = null;
+        mCachingClient = null;
+        mGzipClient = new GzipClient(client, false);
+        mClient = mGzipClient;
+    }
+
+    /**
+     * Returns a transport executing requests with the given client instead of the built-in
+     * connection pool. The client is responsible for pooling and timeouts itself.
+     */
+    public static Transport create(Client client) {
+        if (client == null) {
+            throw new IllegalArgumentException("Client must not be null.");
+        }
+        return new Transport(client);
+    }
+
+    /**
+     * Returns the transport shared by all {@link Trakt} instances which do not set their own.
+     */
+    public static Transport getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Returns the retrofit client executing requests over this transport.
+     */
+    public Client getClient() {
+        return mClient;
+    }
+
+    /**
+     * Number of open connections, idle or in use. Always 0 for transports using a custom client.
+     */
+    public int getConnectionCount() {
+        if (mOkHttpClient == null) {
+            return 0;
+        }
+        return mOkHttpClient.getConnectionPool().getConnectionCount();
+    }
+
+    /**
+     * Closes all idle connections. Does nothing for transports using a custom client.
+     */
+    public void evictAll() {
+        if (mOkHttpClient != null) {
+            mOkHttpClient.getConnectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Number of GET responses served from the response cache without contacting the server. Always
+     * 0 without a cache.
+     */
+    public long getCacheHitCount() {
+        return mCachingClient != null ? mCachingClient.getHitCount() : 0;
+    }
+
+    /**
+     * Number of GET responses downloaded from the server, including those which replaced a stale
+     * cache entry. Always 0 without a cache.
+     */
+    public long getCacheMissCount() {
+        return mCachingClient != null ? mCachingClient.getMissCount() : 0;
+    }
+
+    /**
+     * Number of GET responses served from the response cache after the server confirmed them to be
+     * current with a 304. Always 0 without a cache.
+     */
+    public long getCacheRevalidationCount() {
+        return mCachingClient != null ? mCachingClient.getRevalidationCount() : 0;
+    }
+
+    /**
+     * Returns the bytes received so far by endpoint, keyed by the path template of the service
+     * method, e.g. {@code /user/library/shows/all.json/{apikey}/{username}/{extended}}. Requests
+     * matching no service method are keyed by their URL path. The returned map is a snapshot.
+     */
+    public Map<String, ResponseBytes> getResponseBytes() {
+        return mGzipClient.getResponseBytes();
+    }
+
+    /**
+     * Returns a converter reusing decoded instances of responses revalidated from the response
+     * cache, or the given converter if there is no cache.
+     */
+    Converter wrapConverter(Converter converter) {
+        return mCachingClient != null ? mCachingClient.wrap(converter) : converter;
+    }
+
+    /**
+     * Build a new {@link Transport}. Builders are not thread-safe.
+     */
+    public static class Builder {
+
+        private int mMaxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+
+        private long mKeepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+
+        private long mConnectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+
+        private long mReadTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+
+        private File mCacheDirectory;
+
+        private long mCacheMaxSize;
+
+        private boolean mRequestCompression;
+
+        /**
+         * Maximum number of idle connections kept open for reuse. Defaults to 5. Set to 0 to close
+         * every connection after its request.
+         */
+        public Builder setMaxIdleConnections(int maxIdleConnections) {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("maxIdleConnections < 0");
+            }
+            mMaxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Time after which an idle connection is evicted from the pool. Defaults to 5 minutes.
+         */
+        public Builder setKeepAliveDuration(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("duration < 0");
+            }
+            mKeepAliveMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Defaults to 15 seconds, 0 means no timeout.
+         */
+        public Builder setConnectTimeout(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout < 0");
+            }
+            mConnectTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Defaults to 20 seconds, 0 means no timeout.
+         */
+        public Builder setReadTimeout(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout < 0");
+            }
+            mReadTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Cache responses in the given directory, using at most {@code maxSizeBytes} of disk space.
+         * No cache is used by default. A directory must only be used by one transport at a time.
+         */
+        public Builder setCache(File directory, long maxSizeBytes) {
+            if (directory == null) {
+                throw new IllegalArgumentException("Directory must not be null.");
+            }
+            if (maxSizeBytes <= 0) {
+                throw new IllegalArgumentException("maxSizeBytes <= 0");
+            }
+            mCacheDirectory = directory;
+            mCacheMaxSize = maxSizeBytes;
+            return this;
+        }
+
+        /**
+         * Gzip compress request bodies of at least 1 KiB. Off by default, the server must accept
+         * {@code Content-Encoding: gzip} on requests.
+         */
+        public Builder setRequestCompression(boolean requestCompression) {
+            mRequestCompression = requestCompression;
+            return this;
+        }
+
+        public Transport build() {
+            return new Transport(this);
+        }
+    }
+
+    /**
+     * Bytes of response bodies received from one endpoint. Responses served from the response cache
+     * are counted too.
+     */
+    public static final class ResponseBytes {
+
+        private final long mCompressedBytes;
+
+        private final long mUncompressedBytes;
+
+        ResponseBytes(long compressedBytes, long uncompressedBytes) {
+            mCompressedBytes = compressedBytes;
+            mUncompressedBytes = uncompressedBytes;
+        }
+
+        /**
+         * Bytes as transferred, equal to {@link #getUncompressedBytes()} for responses which were
+         * not compressed.
+         */
+        public long getCompressedBytes() {
+            return mCompressedBytes;
+        }
+
+        /**
+         * Bytes after decompression, as read by the JSON decoder.
+         */
+        public long getUncompressedBytes() {
+            return mUncompressedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "ResponseBytes[compressed=" + mCompressedBytes + ", uncompressed="
+                    + mUncompressedBytes + "]";
+        }
+    }
+
+    /**
+     * Lazily creates the default transport on first use.
+     */
+    private static class DefaultHolder {
+
+        static final Transport DEFAULT = new Builder().build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
+
 import java.util.List;
 
+@AdaptedEntity
 public class ActionResponse extends Response {
 
     public int inserted;
@@ -1,10 +1,12 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
 import java.util.Date;
 import java.util.List;
 
+@AdaptedEntity
 public class Activity implements TraktEntity {
     private static final long serialVersionUID = -3180174955865068567L;
 
@@ -1,11 +1,14 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
+
 /**
  * Represents a Trakt activity item. See
  * <a href="http://trakt.tv/api-docs/activity-community"> the documentation</a>
  * for a list of {@link #type}s and {@link #action}s and which properties they
  * include.
  */
+@AdaptedEntity
 public class ActivityItem extends ActivityItemBase {
     private static final long serialVersionUID = -9175912561201641711L;
 }
@@ -1,6 +1,7 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.ActivityAction;
 import com.jakewharton.trakt.enumerations.ActivityType;
@@ -14,6 +15,7 @@ import java.util.Date;
  * for a list of {@link #type}s and {@link #action}s and which properties they
  * include.
  */
+@AdaptedEntity
 public class ActivityItemBase implements TraktEntity {
     private static final long serialVersionUID = -7644201423350992899L;
 
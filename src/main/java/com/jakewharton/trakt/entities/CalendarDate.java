@@ -1,10 +1,12 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
 import java.util.Date;
 import java.util.List;
 
+@AdaptedEntity
 public class CalendarDate implements TraktEntity {
     private static final long serialVersionUID = 5985118362541597172L;
 
@@ -1,9 +1,11 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
 import java.util.Date;
 
+@AdaptedEntity
 public class CheckinResponse extends Response {
 
     public static class Timestamps implements TraktEntity {
@@ -1,10 +1,12 @@
 
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
 import java.util.Calendar;
 
+@AdaptedEntity
 public class Comment implements TraktEntity {
     private static final long serialVersionUID = -4982983176604728357L;
 
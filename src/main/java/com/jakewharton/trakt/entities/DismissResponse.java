@@ -1,5 +1,8 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
+
+@AdaptedEntity
 public class DismissResponse extends Response {
     private static final long serialVersionUID = -5706552629205669409L;
 
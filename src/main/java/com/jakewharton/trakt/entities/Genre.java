@@ -1,7 +1,9 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
+@AdaptedEntity
 public class Genre implements TraktEntity {
     private static final long serialVersionUID = -7818541411651542895L;
 
@@ -1,7 +1,9 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
+@AdaptedEntity
 public class Images implements TraktEntity {
     private static final long serialVersionUID = -4374523954772900340L;
 
@@ -1,8 +1,10 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.ListPrivacy;
 
+@AdaptedEntity
 public class List implements TraktEntity {
     private static final long serialVersionUID = -5768791212077534364L;
 
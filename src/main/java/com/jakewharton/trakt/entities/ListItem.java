@@ -1,9 +1,11 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.ListItemType;
 
+@AdaptedEntity
 public class ListItem implements TraktEntity {
     private static final long serialVersionUID = 7584772036063464460L;
 
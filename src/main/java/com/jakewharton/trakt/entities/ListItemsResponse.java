@@ -2,7 +2,9 @@ package com.jakewharton.trakt.entities;
 
 import com.google.gson.JsonArray;
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 
+@AdaptedEntity
 public class ListItemsResponse extends Response {
     private static final long serialVersionUID = 8123553856114248596L;
 
@@ -1,7 +1,9 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.enumerations.ListPrivacy;
 
+@AdaptedEntity
 public class ListResponse extends Response {
 
     private static final long serialVersionUID = 5368378936105337182L;
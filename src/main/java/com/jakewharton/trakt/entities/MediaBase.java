@@ -1,11 +1,13 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.Rating;
 
 import java.util.List;
 
+@AdaptedEntity
 public abstract class MediaBase implements TraktEntity {
     private static final long serialVersionUID = 753880113366868498L;
 
@@ -1,10 +1,12 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
 import java.util.Date;
 
+@AdaptedEntity
 public class Movie extends MediaBase implements TraktEntity {
     private static final long serialVersionUID = -1543214252495012419L;
 
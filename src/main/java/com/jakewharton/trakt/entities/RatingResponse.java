@@ -1,9 +1,11 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.Rating;
 import com.jakewharton.trakt.enumerations.RatingType;
 
+@AdaptedEntity
 public class RatingResponse extends Response implements TraktEntity {
     private static final long serialVersionUID = 8424378149600617021L;
 
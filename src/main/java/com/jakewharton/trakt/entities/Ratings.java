@@ -1,7 +1,9 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 
+@AdaptedEntity
 public class Ratings {
 
     public Integer percentage;
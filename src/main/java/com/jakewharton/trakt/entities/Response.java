@@ -1,8 +1,10 @@
 
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
+@AdaptedEntity
 public class Response implements TraktEntity {
     private static final long serialVersionUID = 5921890886906816035L;
 
@@ -1,7 +1,9 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
+@AdaptedEntity
 public class Share implements TraktEntity {
 
     public boolean facebook;
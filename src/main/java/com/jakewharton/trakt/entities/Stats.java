@@ -1,5 +1,8 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
+
+@AdaptedEntity
 public class Stats {
 
     public Ratings ratings;
@@ -1,12 +1,14 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.DayOfTheWeek;
 
 import java.util.Date;
 import java.util.List;
 
+@AdaptedEntity
 public class TvShow extends MediaBase implements TraktEntity {
     private static final long serialVersionUID = 862473930551420996L;
 
@@ -1,9 +1,11 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.enumerations.Rating;
 
 import java.util.Date;
 
+@AdaptedEntity
 public class TvShowEpisode {
 
     public int season;
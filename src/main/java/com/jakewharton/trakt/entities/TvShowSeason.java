@@ -1,9 +1,11 @@
 package com.jakewharton.trakt.entities;
 
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 
 import java.util.List;
 
+@AdaptedEntity
 public class TvShowSeason implements TraktEntity {
     private static final long serialVersionUID = -1283154821327471366L;
 
@@ -2,12 +2,14 @@
 package com.jakewharton.trakt.entities;
 
 import com.google.gson.annotations.SerializedName;
+import com.jakewharton.trakt.AdaptedEntity;
 import com.jakewharton.trakt.TraktEntity;
 import com.jakewharton.trakt.enumerations.Gender;
 
 import java.util.Calendar;
 import java.util.List;
 
+@AdaptedEntity
 public class UserProfile implements TraktEntity {
     private static final long serialVersionUID = -4145012978937162733L;
 
@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ActivityAction implements TraktEnumeration {
     All("all"),
     Watching("watching"),
@@ -29,15 +26,10 @@ public enum ActivityAction implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, ActivityAction> STRING_MAPPING = new HashMap<String, ActivityAction>();
-
-    static {
-        for (ActivityAction via : ActivityAction.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<ActivityAction> LOOKUP
+            = new ValueLookup<ActivityAction>(ActivityAction.class);
 
     public static ActivityAction fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
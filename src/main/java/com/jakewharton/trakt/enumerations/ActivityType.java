@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ActivityType implements TraktEnumeration {
     All("all"),
     Episode("episode"),
@@ -23,15 +20,10 @@ public enum ActivityType implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, ActivityType> STRING_MAPPING = new HashMap<String, ActivityType>();
-
-    static {
-        for (ActivityType via : ActivityType.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<ActivityType> LOOKUP
+            = new ValueLookup<ActivityType>(ActivityType.class);
 
     public static ActivityType fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum DayOfTheWeek implements TraktEnumeration {
     Sunday("Sunday"),
     Monday("Monday"),
@@ -25,15 +22,10 @@ public enum DayOfTheWeek implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, DayOfTheWeek> STRING_MAPPING = new HashMap<String, DayOfTheWeek>();
-
-    static {
-        for (DayOfTheWeek via : DayOfTheWeek.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<DayOfTheWeek> LOOKUP
+            = new ValueLookup<DayOfTheWeek>(DayOfTheWeek.class);
 
     public static DayOfTheWeek fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
@@ -3,9 +3,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ExtendedParam implements TraktEnumeration {
     Extended("extended"), Min("min");
 
@@ -20,15 +17,10 @@ public enum ExtendedParam implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, ExtendedParam> STRING_MAPPING = new HashMap<String, ExtendedParam>();
-
-    static {
-        for (ExtendedParam via : ExtendedParam.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<ExtendedParam> LOOKUP
+            = new ValueLookup<ExtendedParam>(ExtendedParam.class);
 
     public static ExtendedParam fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
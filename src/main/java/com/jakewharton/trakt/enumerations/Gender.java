@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum Gender implements TraktEnumeration {
     Male("male"),
     Female("female");
@@ -20,15 +17,9 @@ public enum Gender implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, Gender> STRING_MAPPING = new HashMap<String, Gender>();
-
-    static {
-        for (Gender via : Gender.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<Gender> LOOKUP = new ValueLookup<Gender>(Gender.class);
 
     public static Gender fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
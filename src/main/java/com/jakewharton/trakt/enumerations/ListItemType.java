@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ListItemType implements TraktEnumeration {
     Movie("movie"),
     TvShow("show"),
@@ -22,15 +19,10 @@ public enum ListItemType implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, ListItemType> STRING_MAPPING = new HashMap<String, ListItemType>();
-
-    static {
-        for (ListItemType via : ListItemType.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<ListItemType> LOOKUP
+            = new ValueLookup<ListItemType>(ListItemType.class);
 
     public static ListItemType fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ListPrivacy implements TraktEnumeration {
     Public("public"),
     Friends("friends"),
@@ -21,15 +18,10 @@ public enum ListPrivacy implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, ListPrivacy> STRING_MAPPING = new HashMap<String, ListPrivacy>();
-
-    static {
-        for (ListPrivacy via : ListPrivacy.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<ListPrivacy> LOOKUP
+            = new ValueLookup<ListPrivacy>(ListPrivacy.class);
 
     public static ListPrivacy fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum MediaType implements TraktEnumeration {
     Movie("movie"),
     TvShow("episode");
@@ -20,15 +17,10 @@ public enum MediaType implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, MediaType> STRING_MAPPING = new HashMap<String, MediaType>();
-
-    static {
-        for (MediaType via : MediaType.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<MediaType> LOOKUP
+            = new ValueLookup<MediaType>(MediaType.class);
 
     public static MediaType fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
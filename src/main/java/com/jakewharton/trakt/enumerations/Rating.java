@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum Rating implements TraktEnumeration {
     WeakSauce("1"),
     Terrible("2"),
@@ -29,15 +26,9 @@ public enum Rating implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, Rating> STRING_MAPPING = new HashMap<String, Rating>();
-
-    static {
-        for (Rating via : Rating.values()) {
-            STRING_MAPPING.put(via.toString().toUpperCase(), via);
-        }
-    }
+    private static final ValueLookup<Rating> LOOKUP = new ValueLookup<Rating>(Rating.class);
 
     public static Rating fromValue(String value) {
-        return STRING_MAPPING.get(value.toUpperCase());
+        return LOOKUP.get(value);
     }
 }
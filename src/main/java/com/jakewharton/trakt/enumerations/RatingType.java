@@ -2,9 +2,6 @@ package com.jakewharton.trakt.enumerations;
 
 import com.jakewharton.trakt.TraktEnumeration;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum RatingType implements TraktEnumeration {
     Episode("episode"),
     Movie("movie"),
@@ -21,15 +18,10 @@ public enum RatingType implements TraktEnumeration {
         return this.value;
     }
 
-    private static final Map<String, RatingType> STRING_MAPPING = new HashMap<String, RatingType>();
-
-    static {
-        for (RatingType via : RatingType.values()) {
-            STRING_MAPPING.put(via.toString(), via);
-        }
-    }
+    private static final ValueLookup<RatingType> LOOKUP
+            = new ValueLookup<RatingType>(RatingType.class);
 
     public static RatingType fromValue(String value) {
-        return STRING_MAPPING.get(value);
+        return LOOKUP.get(value);
     }
 }
@@ -0,0 +1,69 @@
+package com.jakewharton.trakt.enumerations;
+
+import com.jakewharton.trakt.TraktEnumeration;
+
+/**
+ * Finds the enumeration constant for a value, ignoring case, without allocating.
+ *
+ * <p>Constants are stored in an open addressed table, hashed by their case folded characters. A
+ * lookup hashes the given characters the same way and compares candidates with {@link
+ * String#regionMatches(boolean, int, String, int, int)}, so no upper case copy is made.</p>
+ */
+final class ValueLookup<E extends Enum<E> & TraktEnumeration> {
+
+    private final String[] mValues;
+
+    private final Object[] mConstants;
+
+    private final int mMask;
+
+    ValueLookup(Class<E> type) {
+        E[] constants = type.getEnumConstants();
+        int capacity = Integer.highestOneBit(Math.max(constants.length, 1) * 4 - 1) << 1;
+        mValues = new String[capacity];
+        mConstants = new Object[capacity];
+        mMask = capacity - 1;
+        for (E constant : constants) {
+            String value = constant.toString();
+            int index = hash(value) & mMask;
+            while (mValues[index] != null) {
+                index = (index + 1) & mMask;
+            }
+            mValues[index] = value;
+            mConstants[index] = constant;
+        }
+    }
+
+    /**
+     * Returns the constant whose value equals {@code value} ignoring case, or {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    E get(String value) {
+        if (value == null) {
+            return null;
+        }
+        int length = value.length();
+        int index = hash(value) & mMask;
+        String candidate;
+        while ((candidate = mValues[index]) != null) {
+            if (candidate.length() == length
+                    && candidate.regionMatches(true, 0, value, 0, length)) {
+                return (E) mConstants[index];
+            }
+            index = (index + 1) & mMask;
+        }
+        return null;
+    }
+
+    /**
+     * Hashes characters so that values equal ignoring case have equal hashes, folding each one
+     * like {@link String#CASE_INSENSITIVE_ORDER}.
+     */
+    private static int hash(String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -4,6 +4,7 @@ import com.google.gson.annotations.SerializedName;
 
 import com.jakewharton.trakt.entities.Response;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.POST;
 
@@ -21,6 +22,16 @@ public interface AccountService {
             @Body NewAccount account
     );
 
+    /**
+     * Create a new trakt account. Username and e-mail must be unique and not already exist in
+     * trakt.
+     */
+    @POST("/account/create/{apikey}")
+    void create(
+            @Body NewAccount account,
+            Callback<Response> callback
+    );
+
     /**
      * Returns all settings for the authenticated user. Use these settings to customize your app
      * based on the user's settings. For example, if they use advanced ratings show a 10 heart
@@ -30,6 +41,15 @@ public interface AccountService {
     @POST("/account/settings/{apikey}")
     Settings settings();
 
+    /**
+     * Returns all settings for the authenticated user. Use these settings to customize your app
+     * based on the user's settings. For example, if they use advanced ratings show a 10 heart
+     * scale. If they prefer simple ratings, show the binary scale. The social connections are also
+     * useful to customize the checkin prompt.
+     */
+    @POST("/account/settings/{apikey}")
+    void settings(Callback<Settings> callback);
+
     /**
      * Test trakt credentials. This is useful for your configuration screen and is a simple way to
      * test someone's trakt account.
@@ -37,6 +57,13 @@ public interface AccountService {
     @POST("/account/test/{apikey}")
     Response test();
 
+    /**
+     * Test trakt credentials. This is useful for your configuration screen and is a simple way to
+     * test someone's trakt account.
+     */
+    @POST("/account/test/{apikey}")
+    void test(Callback<Response> callback);
+
     static class NewAccount {
 
         String username;
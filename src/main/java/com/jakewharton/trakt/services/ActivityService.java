@@ -1,8 +1,11 @@
 
 package com.jakewharton.trakt.services;
 
+import com.jakewharton.trakt.ResponseStream;
 import com.jakewharton.trakt.entities.Activity;
+import com.jakewharton.trakt.entities.ActivityItem;
 
+import retrofit.Callback;
 import retrofit.http.EncodedPath;
 import retrofit.http.GET;
 import retrofit.http.POST;
@@ -19,6 +22,24 @@ public interface ActivityService {
     @POST("/activity/community/{apikey}")
     Activity community();
 
+    /**
+     * Get a list of all public activity for the entire Trakt community. The most recent 100
+     * activities are returned for all types and actions. You can customize the activity stream with
+     * only the types and actions you need.
+     */
+    @POST("/activity/community/{apikey}")
+    void community(Callback<Activity> callback);
+
+    /**
+     * Get a list of all public activity for the entire Trakt community. The most recent 100
+     * activities are returned for all types and actions. You can customize the activity stream with
+     * only the types and actions you need.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @POST("/activity/community/{apikey}")
+    ResponseStream<ActivityItem> communityStream();
+
     /**
      * Get a list of all activity for a single user. The most recent 100 activities are returned for
      * all types and actions. You can customize the activity stream with only the types and actions
@@ -29,6 +50,29 @@ public interface ActivityService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     */
+    @GET("/activity/user.json/{apikey}/{username}")
+    void user(
+            @EncodedPath("username") String username,
+            Callback<Activity> callback
+    );
+
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/activity/user.json/{apikey}/{username}")
+    ResponseStream<ActivityItem> userStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Get a list of all activity for a single user. The most recent 100 activities are returned for
      * all types and actions. You can customize the activity stream with only the types and actions
@@ -45,6 +89,41 @@ public interface ActivityService {
             @Query("images") Integer images
     );
 
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}")
+    void user(
+            @EncodedPath("username") String username,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images,
+            Callback<Activity> callback
+    );
+
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}")
+    ResponseStream<ActivityItem> userStream(
+            @EncodedPath("username") String username,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images
+    );
+
     /**
      * Get a list of all activity for a single user. The most recent 100 activities are returned for
      * all types and actions. You can customize the activity stream with only the types and actions
@@ -67,6 +146,53 @@ public interface ActivityService {
             @Query("images") Integer images
     );
 
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * @param types   Send a comma delimited list of types. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param actions Send a comma delimited list of actions. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}/{types}/{actions}")
+    void user(
+            @EncodedPath("username") String username,
+            @EncodedPath("types") String types,
+            @EncodedPath("actions") String actions,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images,
+            Callback<Activity> callback
+    );
+
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param types   Send a comma delimited list of types. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param actions Send a comma delimited list of actions. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}/{types}/{actions}")
+    ResponseStream<ActivityItem> userStream(
+            @EncodedPath("username") String username,
+            @EncodedPath("types") String types,
+            @EncodedPath("actions") String actions,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images
+    );
+
     /**
      * Get a list of all activity for a single user. The most recent 100 activities are returned for
      * all types and actions. You can customize the activity stream with only the types and actions
@@ -90,6 +216,55 @@ public interface ActivityService {
             @Query("images") Integer images
     );
 
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * @param types   Send a comma delimited list of types. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param actions Send a comma delimited list of actions. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}/{types}/{actions}/{start_ts}")
+    void user(
+            @EncodedPath("username") String username,
+            @EncodedPath("types") String types,
+            @EncodedPath("actions") String actions,
+            @Path("start_ts") Long start_ts,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images,
+            Callback<Activity> callback
+    );
+
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param types   Send a comma delimited list of types. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param actions Send a comma delimited list of actions. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}/{types}/{actions}/{start_ts}")
+    ResponseStream<ActivityItem> userStream(
+            @EncodedPath("username") String username,
+            @EncodedPath("types") String types,
+            @EncodedPath("actions") String actions,
+            @Path("start_ts") Long start_ts,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images
+    );
+
     /**
      * Get a list of all activity for a single user. The most recent 100 activities are returned for
      * all types and actions. You can customize the activity stream with only the types and actions
@@ -114,4 +289,55 @@ public interface ActivityService {
             @Query("images") Integer images
     );
 
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * @param types   Send a comma delimited list of types. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param actions Send a comma delimited list of actions. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}/{types}/{actions}/{start_ts}/{end_ts}")
+    void user(
+            @EncodedPath("username") String username,
+            @EncodedPath("types") String types,
+            @EncodedPath("actions") String actions,
+            @Path("start_ts") Long start_ts,
+            @Path("end_ts") Long end_ts,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images,
+            Callback<Activity> callback
+    );
+
+    /**
+     * Get a list of all activity for a single user. The most recent 100 activities are returned for
+     * all types and actions. You can customize the activity stream with only the types and actions
+     * you need.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param types   Send a comma delimited list of types. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param actions Send a comma delimited list of actions. For supported types see <a
+     *                href="http://trakt.tv/api-docs/activity-user">trakt</a>.
+     * @param minimal Set to 1 to return only minimal information like the timestamp, type, action,
+     *                username, and IDs. Set to null otherwise.
+     * @param images  Set to 1 to include images. Set to null otherwise.
+     */
+    @GET("/activity/user.json/{apikey}/{username}/{types}/{actions}/{start_ts}/{end_ts}")
+    ResponseStream<ActivityItem> userStream(
+            @EncodedPath("username") String username,
+            @EncodedPath("types") String types,
+            @EncodedPath("actions") String actions,
+            @Path("start_ts") Long start_ts,
+            @Path("end_ts") Long end_ts,
+            @Query("min") Integer minimal,
+            @Query("images") Integer images
+    );
+
 }
@@ -1,6 +1,7 @@
 package com.jakewharton.trakt.services;
 
 import com.jakewharton.trakt.entities.CalendarDate;
+import retrofit.Callback;
 import retrofit.http.GET;
 import retrofit.http.Path;
 import retrofit.http.Query;
@@ -15,6 +16,12 @@ public interface CalendarService {
     @GET("/calendar/premieres/{apikey}")
     List<CalendarDate> premieres();
 
+    /**
+     * Returns all shows premiering during the time period specified.
+     */
+    @GET("/calendar/premieres/{apikey}")
+    void premieres(Callback<List<CalendarDate>> callback);
+
     /**
      * Returns all shows premiering during the time period specified.
      *
@@ -27,12 +34,31 @@ public interface CalendarService {
             @Query("days") int days
     );
 
+    /**
+     * Returns all shows premiering during the time period specified.
+     *
+     * @param date Start date for the calendar in the format Ymd (i.e. 20110421). If blank, defaults to today.
+     * @param days Number of days to display starting from the date. If blank, defaults to 7 days.
+     */
+    @GET("/calendar/premieres/{apikey}")
+    void premieres(
+            @Query("date") String date,
+            @Query("days") int days,
+            Callback<List<CalendarDate>> callback
+    );
+
     /**
      * Returns all shows airing during the time period specified.
      */
     @GET("/calendar/shows/{apikey}")
     List<CalendarDate> shows();
 
+    /**
+     * Returns all shows airing during the time period specified.
+     */
+    @GET("/calendar/shows/{apikey}")
+    void shows(Callback<List<CalendarDate>> callback);
+
     /**
      * Returns all shows premiering during the time period specified.
      *
@@ -45,4 +71,17 @@ public interface CalendarService {
             @Query("days") int days
     );
 
+    /**
+     * Returns all shows premiering during the time period specified.
+     *
+     * @param date Start date for the calendar in the format Ymd (i.e. 20110421). If blank, defaults to today.
+     * @param days Number of days to display starting from the date. If blank, defaults to 7 days.
+     */
+    @GET("/calendar/shows/{apikey}")
+    void shows(
+            @Query("date") String date,
+            @Query("days") int days,
+            Callback<List<CalendarDate>> callback
+    );
+
 }
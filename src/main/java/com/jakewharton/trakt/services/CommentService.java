@@ -3,6 +3,7 @@ package com.jakewharton.trakt.services;
 
 import com.jakewharton.trakt.entities.Response;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.POST;
 
@@ -16,6 +17,15 @@ public interface CommentService {
             @Body EpisodeComment comment
     );
 
+    /**
+     * Add a comment (shout or review) to an episode on trakt.
+     */
+    @POST("/comment/episode/{apikey}")
+    void episode(
+            @Body EpisodeComment comment,
+            Callback<Response> callback
+    );
+
     /**
      * Add a comment (shout or review) to a movie on trakt.
      */
@@ -24,6 +34,15 @@ public interface CommentService {
             @Body MovieComment comment
     );
 
+    /**
+     * Add a comment (shout or review) to a movie on trakt.
+     */
+    @POST("/comment/movie/{apikey}")
+    void movie(
+            @Body MovieComment comment,
+            Callback<Response> callback
+    );
+
     /**
      * Add a comment (shout or review) to a show on trakt.
      */
@@ -32,6 +51,15 @@ public interface CommentService {
             @Body ShowComment comment
     );
 
+    /**
+     * Add a comment (shout or review) to a show on trakt.
+     */
+    @POST("/comment/show/{apikey}")
+    void show(
+            @Body ShowComment comment,
+            Callback<Response> callback
+    );
+
     public static class EpisodeComment extends ShowComment {
 
         public int season;
@@ -4,6 +4,7 @@ import com.jakewharton.trakt.entities.Genre;
 
 import java.util.List;
 
+import retrofit.Callback;
 import retrofit.http.GET;
 
 public interface GenreService {
@@ -14,10 +15,22 @@ public interface GenreService {
     @GET("/genres/movies.json/{apikey}")
     List<Genre> movies();
 
+    /**
+     * Get a list of all movie genres including names and slugs.
+     */
+    @GET("/genres/movies.json/{apikey}")
+    void movies(Callback<List<Genre>> callback);
+
     /**
      * Get a list of all show genres including names and slugs.
      */
     @GET("/genres/shows.json/{apikey}")
     List<Genre> shows();
 
+    /**
+     * Get a list of all show genres including names and slugs.
+     */
+    @GET("/genres/shows.json/{apikey}")
+    void shows(Callback<List<Genre>> callback);
+
 }
@@ -4,6 +4,7 @@ import com.jakewharton.trakt.entities.ListResponse;
 import com.jakewharton.trakt.entities.Response;
 import com.jakewharton.trakt.enumerations.ListPrivacy;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.POST;
 
@@ -14,16 +15,34 @@ public interface ListService {
             @Body NewList list
     );
 
+    @POST("/lists/add/{apikey}")
+    void add(
+            @Body NewList list,
+            Callback<ListResponse> callback
+    );
+
     @POST("/lists/delete/{apikey}")
     Response delete(
             @Body DeleteList list
     );
 
+    @POST("/lists/delete/{apikey}")
+    void delete(
+            @Body DeleteList list,
+            Callback<Response> callback
+    );
+
     @POST("/lists/update/{apikey}")
     ListResponse update(
             @Body UpdatedList list
     );
 
+    @POST("/lists/update/{apikey}")
+    void update(
+            @Body UpdatedList list,
+            Callback<ListResponse> callback
+    );
+
     public static class DeleteList {
 
         public String slug;
@@ -11,6 +11,7 @@ import com.jakewharton.trakt.entities.Stats;
 import java.util.ArrayList;
 import java.util.List;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.GET;
 import retrofit.http.POST;
@@ -28,6 +29,13 @@ public interface MovieService {
     @POST("/movie/cancelcheckin/{apikey}")
     Response cancelcheckin();
 
+    /**
+     * Notify trakt that a user wants to cancel their current check in. <br/> <br/>
+     * <em>Warning</em>: This method requires a developer API key.
+     */
+    @POST("/movie/cancelcheckin/{apikey}")
+    void cancelcheckin(Callback<Response> callback);
+
     /**
      * Notify Trakt that a user has stopped watching a movie. <br/> <br/> <em>Warning</em>: This
      * method requires a developer API key.
@@ -35,6 +43,13 @@ public interface MovieService {
     @POST("/movie/cancelwatching/{apikey}")
     Response cancelwatching();
 
+    /**
+     * Notify Trakt that a user has stopped watching a movie. <br/> <br/> <em>Warning</em>: This
+     * method requires a developer API key.
+     */
+    @POST("/movie/cancelwatching/{apikey}")
+    void cancelwatching(Callback<Response> callback);
+
     /**
      * Check into a movie on trakt. Think of this method as in between a seen and a scrobble. After
      * checking in, the trakt will automatically display it as watching then switch over to watched
@@ -45,6 +60,17 @@ public interface MovieService {
             @Body MovieCheckin checkin
     );
 
+    /**
+     * Check into a movie on trakt. Think of this method as in between a seen and a scrobble. After
+     * checking in, the trakt will automatically display it as watching then switch over to watched
+     * status once the duration has elapsed.
+     */
+    @POST("/movie/checkin/{apikey}")
+    void checkin(
+            @Body MovieCheckin checkin,
+            Callback<CheckinResponse> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
      */
@@ -53,6 +79,15 @@ public interface MovieService {
             @Path("title") int tmdbId
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
+     */
+    @GET("/movie/comments.json/{apikey}/{title}")
+    void comments(
+            @Path("title") int tmdbId,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
      */
@@ -61,6 +96,15 @@ public interface MovieService {
             @Path("title") String imdbIdOrSlug
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
+     */
+    @GET("/movie/comments.json/{apikey}/{title}")
+    void comments(
+            @Path("title") String imdbIdOrSlug,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
      *
@@ -72,6 +116,18 @@ public interface MovieService {
             @Path("type") String type
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
+     *
+     * @param type Set to all (default), shouts, or reviews.
+     */
+    @GET("/movie/comments.json/{apikey}/{title}/{type}")
+    void comments(
+            @Path("title") int tmdbId,
+            @Path("type") String type,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
      *
@@ -83,6 +139,18 @@ public interface MovieService {
             @Path("type") String type
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a movie. Most recent comments returned first.
+     *
+     * @param type Set to all (default), shouts, or reviews.
+     */
+    @GET("/movie/comments.json/{apikey}/{title}/{type}")
+    void comments(
+            @Path("title") String imdbIdOrSlug,
+            @Path("type") String type,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Add movies to your library collection.
      */
@@ -91,11 +159,26 @@ public interface MovieService {
             @Body Movies movies
     );
 
+    /**
+     * Add movies to your library collection.
+     */
+    @POST("/movie/library/{apikey}")
+    void library(
+            @Body Movies movies,
+            Callback<ActionResponse> callback
+    );
+
     @POST("/movie/seen/{apikey}")
     ActionResponse seen(
             @Body Movies movies
     );
 
+    @POST("/movie/seen/{apikey}")
+    void seen(
+            @Body Movies movies,
+            Callback<ActionResponse> callback
+    );
+
     /**
      * Returns lots of stats for for a movie including all ratings breakdowns, scrobbles, checkins,
      * collections, lists, and comments.
@@ -105,6 +188,16 @@ public interface MovieService {
             @Path("title") int tmdbId
     );
 
+    /**
+     * Returns lots of stats for for a movie including all ratings breakdowns, scrobbles, checkins,
+     * collections, lists, and comments.
+     */
+    @GET("/movie/stats.json/{apikey}/{title}")
+    void stats(
+            @Path("title") int tmdbId,
+            Callback<Stats> callback
+    );
+
     /**
      * Returns lots of stats for for a movie including all ratings breakdowns, scrobbles, checkins,
      * collections, lists, and comments.
@@ -114,6 +207,16 @@ public interface MovieService {
             @Path("title") String imdbIdOrslug
     );
 
+    /**
+     * Returns lots of stats for for a movie including all ratings breakdowns, scrobbles, checkins,
+     * collections, lists, and comments.
+     */
+    @GET("/movie/stats.json/{apikey}/{title}")
+    void stats(
+            @Path("title") String imdbIdOrslug,
+            Callback<Stats> callback
+    );
+
     /**
      * Returns information for a movie including ratings and top watchers.
      */
@@ -122,6 +225,15 @@ public interface MovieService {
             @Path("title") int tmdbId
     );
 
+    /**
+     * Returns information for a movie including ratings and top watchers.
+     */
+    @GET("/movie/summary.json/{apikey}/{title}")
+    void summary(
+            @Path("title") int tmdbId,
+            Callback<com.jakewharton.trakt.entities.Movie> callback
+    );
+
     /**
      * Returns information for a movie including ratings and top watchers.
      */
@@ -130,6 +242,15 @@ public interface MovieService {
             @Path("title") String imdbIdOrSlug
     );
 
+    /**
+     * Returns information for a movie including ratings and top watchers.
+     */
+    @GET("/movie/summary.json/{apikey}/{title}")
+    void summary(
+            @Path("title") String imdbIdOrSlug,
+            Callback<com.jakewharton.trakt.entities.Movie> callback
+    );
+
     /**
      * Add movies to your library collection.
      */
@@ -138,6 +259,15 @@ public interface MovieService {
             @Body Movies movies
     );
 
+    /**
+     * Add movies to your library collection.
+     */
+    @POST("/movie/unlibrary/{apikey}")
+    void unlibrary(
+            @Body Movies movies,
+            Callback<Response> callback
+    );
+
     /**
      * Remove movies watched outside of trakt from your library.
      */
@@ -146,6 +276,15 @@ public interface MovieService {
             @Body Movies movies
     );
 
+    /**
+     * Remove movies watched outside of trakt from your library.
+     */
+    @POST("/movie/unseen/{apikey}")
+    void unseen(
+            @Body Movies movies,
+            Callback<Response> callback
+    );
+
     /**
      * Remove one or more movies from your watchlist.
      */
@@ -154,6 +293,15 @@ public interface MovieService {
             @Body Movies movies
     );
 
+    /**
+     * Remove one or more movies from your watchlist.
+     */
+    @POST("/movie/unwatchlist/{apikey}")
+    void unwatchlist(
+            @Body Movies movies,
+            Callback<Response> callback
+    );
+
     /**
      * Add one or more movies to your watchlist.
      */
@@ -162,6 +310,15 @@ public interface MovieService {
             @Body Movies movies
     );
 
+    /**
+     * Add one or more movies to your watchlist.
+     */
+    @POST("/movie/watchlist/{apikey}")
+    void watchlist(
+            @Body Movies movies,
+            Callback<ActionResponse> callback
+    );
+
     public static class Movie {
 
         public String imdb_id;
@@ -3,6 +3,7 @@ package com.jakewharton.trakt.services;
 
 import com.jakewharton.trakt.entities.FollowResponse;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.POST;
 
@@ -19,6 +20,18 @@ public interface NetworkService {
             @Body User user
     );
 
+    /**
+     * Follow a user. If the user has a protected profile, the follow request will be in a pending
+     * state. If they have a public profile, they will be followed immediately.
+     *
+     * @param user Username of the person to follow.
+     */
+    @POST("/network/follow/{apikey}")
+    void follow(
+            @Body User user,
+            Callback<FollowResponse> callback
+    );
+
     public static class User {
 
         public String user;
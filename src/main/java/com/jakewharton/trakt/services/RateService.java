@@ -3,6 +3,7 @@ package com.jakewharton.trakt.services;
 import com.jakewharton.trakt.entities.RatingResponse;
 import com.jakewharton.trakt.enumerations.Rating;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.POST;
 
@@ -13,16 +14,34 @@ public interface RateService {
             @Body EpisodeRating rating
     );
 
+    @POST("/rate/episode/{apikey}")
+    void episode(
+            @Body EpisodeRating rating,
+            Callback<RatingResponse> callback
+    );
+
     @POST("/rate/movie/{apikey}")
     RatingResponse movie(
             @Body MovieRating rating
     );
 
+    @POST("/rate/movie/{apikey}")
+    void movie(
+            @Body MovieRating rating,
+            Callback<RatingResponse> callback
+    );
+
     @POST("/rate/show/{apikey}")
     RatingResponse show(
             @Body ShowRating rating
     );
 
+    @POST("/rate/show/{apikey}")
+    void show(
+            @Body ShowRating rating,
+            Callback<RatingResponse> callback
+    );
+
     public static class EpisodeRating extends ShowService.Show {
 
         public int season;
@@ -5,6 +5,7 @@ import com.jakewharton.trakt.entities.TvShow;
 
 import java.util.List;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.POST;
 
@@ -17,6 +18,13 @@ public interface RecommendationsService {
     @POST("/recommendations/movies/{apikey}")
     List<Movie> movies();
 
+    /**
+     * Get a list of movie recommendations created from your watching history and your friends.
+     * Results returned with the top recommendation first.
+     */
+    @POST("/recommendations/movies/{apikey}")
+    void movies(Callback<List<Movie>> callback);
+
     /**
      * Get a list of movie recommendations created from your watching history and your friends.
      * Results returned with the top recommendation first.
@@ -26,6 +34,16 @@ public interface RecommendationsService {
             @Body RecommendationsQuery query
     );
 
+    /**
+     * Get a list of movie recommendations created from your watching history and your friends.
+     * Results returned with the top recommendation first.
+     */
+    @POST("/recommendations/movies/{apikey}")
+    void movies(
+            @Body RecommendationsQuery query,
+            Callback<List<Movie>> callback
+    );
+
     /**
      * Get a list of show recommendations created from your watching history and your friends.
      * Results returned with the top recommendation first.
@@ -33,6 +51,13 @@ public interface RecommendationsService {
     @POST("/recommendations/shows/{apikey}")
     List<TvShow> shows();
 
+    /**
+     * Get a list of show recommendations created from your watching history and your friends.
+     * Results returned with the top recommendation first.
+     */
+    @POST("/recommendations/shows/{apikey}")
+    void shows(Callback<List<TvShow>> callback);
+
     /**
      * Get a list of show recommendations created from your watching history and your friends.
      * Results returned with the top recommendation first.
@@ -42,6 +67,16 @@ public interface RecommendationsService {
             @Body RecommendationsQuery query
     );
 
+    /**
+     * Get a list of show recommendations created from your watching history and your friends.
+     * Results returned with the top recommendation first.
+     */
+    @POST("/recommendations/shows/{apikey}")
+    void shows(
+            @Body RecommendationsQuery query,
+            Callback<List<TvShow>> callback
+    );
+
     public static class RecommendationsQuery {
 
         public String genre;
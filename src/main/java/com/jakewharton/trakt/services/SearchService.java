@@ -4,6 +4,7 @@ import com.jakewharton.trakt.entities.TvShow;
 
 import java.util.List;
 
+import retrofit.Callback;
 import retrofit.http.GET;
 import retrofit.http.Path;
 
@@ -14,16 +15,36 @@ public interface SearchService {
             @Path("query") String query
     );
 
+    @GET("/search/shows.json/{apikey}/{query}")
+    void shows(
+            @Path("query") String query,
+            Callback<List<TvShow>> callback
+    );
+
     @GET("/search/shows.json/{apikey}/{query}/{limit}")
     List<TvShow> shows(
             @Path("query") String query,
             @Path("limit") int limit
     );
 
+    @GET("/search/shows.json/{apikey}/{query}/{limit}")
+    void shows(
+            @Path("query") String query,
+            @Path("limit") int limit,
+            Callback<List<TvShow>> callback
+    );
+
     @GET("/search/shows.json/{apikey}/{query}/{limit}/seasons")
     List<TvShow> showsWithSeasons(
             @Path("query") String query,
             @Path("limit") int limit
     );
 
+    @GET("/search/shows.json/{apikey}/{query}/{limit}/seasons")
+    void showsWithSeasons(
+            @Path("query") String query,
+            @Path("limit") int limit,
+            Callback<List<TvShow>> callback
+    );
+
 }
@@ -11,6 +11,7 @@ import com.jakewharton.trakt.entities.TvShow;
 import java.util.ArrayList;
 import java.util.List;
 
+import retrofit.Callback;
 import retrofit.http.Body;
 import retrofit.http.GET;
 import retrofit.http.POST;
@@ -28,6 +29,13 @@ public interface ShowService {
     @POST("/show/cancelcheckin/{apikey}")
     Response cancelcheckin();
 
+    /**
+     * Notify trakt that a user wants to cancel their current check in. <br/> <br/>
+     * <em>Warning</em>: This method requires a developer API key.
+     */
+    @POST("/show/cancelcheckin/{apikey}")
+    void cancelcheckin(Callback<Response> callback);
+
     /**
      * Notify trakt that a user has stopped watching a show.<br/> <br/> <em>Warning</em>: This
      * method requires a developer API key.
@@ -35,6 +43,13 @@ public interface ShowService {
     @POST("/show/cancelwatching/{apikey}")
     Response cancelwatching();
 
+    /**
+     * Notify trakt that a user has stopped watching a show.<br/> <br/> <em>Warning</em>: This
+     * method requires a developer API key.
+     */
+    @POST("/show/cancelwatching/{apikey}")
+    void cancelwatching(Callback<Response> callback);
+
     /**
      * Check into a show on trakt. Think of this method as in between a seen and a scrobble. After
      * checking in, trakt will automatically display it as watching then switch over to watched
@@ -46,6 +61,18 @@ public interface ShowService {
             @Body ShowCheckin checkin
     );
 
+    /**
+     * Check into a show on trakt. Think of this method as in between a seen and a scrobble. After
+     * checking in, trakt will automatically display it as watching then switch over to watched
+     * status once the duration has elapsed.<br/> <br/> <em>Warning</em>: This method requires a
+     * developer API key.
+     */
+    @POST("/show/checkin/{apikey}")
+    void checkin(
+            @Body ShowCheckin checkin,
+            Callback<CheckinResponse> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
      */
@@ -54,6 +81,15 @@ public interface ShowService {
             @Path("title") int tvdbId
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
+     */
+    @GET("/show/comments.json/{apikey}/{title}")
+    void comments(
+            @Path("title") int tvdbId,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
      */
@@ -62,6 +98,15 @@ public interface ShowService {
             @Path("title") String slug
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
+     */
+    @GET("/show/comments.json/{apikey}/{title}")
+    void comments(
+            @Path("title") String slug,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
      *
@@ -73,6 +118,18 @@ public interface ShowService {
             @Path("type") String type
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
+     *
+     * @param type Set to all (default), shouts, or reviews.
+     */
+    @GET("/show/comments.json/{apikey}/{title}/{type}")
+    void comments(
+            @Path("title") int tvdbId,
+            @Path("type") String type,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
      *
@@ -84,6 +141,18 @@ public interface ShowService {
             @Path("type") String type
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for a show. Most recent comments returned first.
+     *
+     * @param type Set to all (default), shouts, or reviews.
+     */
+    @GET("/show/comments.json/{apikey}/{title}/{type}")
+    void comments(
+            @Path("title") String slug,
+            @Path("type") String type,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
      * first.
@@ -95,6 +164,18 @@ public interface ShowService {
             @Path("episode") int episode
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
+     * first.
+     */
+    @GET("/show/episode/comments.json/{apikey}/{title}/{season}/{episode}")
+    void episodeComments(
+            @Path("title") int tvdbId,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
      * first.
@@ -106,6 +187,18 @@ public interface ShowService {
             @Path("episode") int episode
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
+     * first.
+     */
+    @GET("/show/episode/comments.json/{apikey}/{title}/{season}/{episode}")
+    void episodeComments(
+            @Path("title") String slug,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
      * first.
@@ -120,6 +213,21 @@ public interface ShowService {
             @Path("type") String type
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
+     * first.
+     *
+     * @param type Set to all (default), shouts, or reviews.
+     */
+    @GET("/show/episode/comments.json/{apikey}/{title}/{season}/{episode}/{type}")
+    void episodeComments(
+            @Path("title") int tvdbId,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            @Path("type") String type,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
      * first.
@@ -134,6 +242,21 @@ public interface ShowService {
             @Path("type") String type
     );
 
+    /**
+     * Returns all comments (shouts and reviews) for an episode. Most recent comments returned
+     * first.
+     *
+     * @param type Set to all (default), shouts, or reviews.
+     */
+    @GET("/show/episode/comments.json/{apikey}/{title}/{season}/{episode}/{type}")
+    void episodeComments(
+            @Path("title") String slug,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            @Path("type") String type,
+            Callback<List<Comment>> callback
+    );
+
     /**
      * Add episodes to your library collection.
      */
@@ -142,6 +265,15 @@ public interface ShowService {
             @Body Episodes episodes
     );
 
+    /**
+     * Add episodes to your library collection.
+     */
+    @POST("/show/episode/library/{apikey}")
+    void episodeLibrary(
+            @Body Episodes episodes,
+            Callback<Response> callback
+    );
+
     /**
      * Add episodes watched outside of trakt to your library.
      */
@@ -150,6 +282,15 @@ public interface ShowService {
             @Body Episodes episodes
     );
 
+    /**
+     * Add episodes watched outside of trakt to your library.
+     */
+    @POST("/show/episode/seen/{apikey}")
+    void episodeSeen(
+            @Body Episodes episodes,
+            Callback<Response> callback
+    );
+
     @GET("/show/episode/stats.json/{apikey}/{title}/{season}/{episode}")
     Stats episodeStats(
             @Path("title") int showTvdbId,
@@ -157,6 +298,14 @@ public interface ShowService {
             @Path("episode") int episode
     );
 
+    @GET("/show/episode/stats.json/{apikey}/{title}/{season}/{episode}")
+    void episodeStats(
+            @Path("title") int showTvdbId,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            Callback<Stats> callback
+    );
+
     @GET("/show/episode/stats.json/{apikey}/{title}/{season}/{episode}")
     Stats episodeStats(
             @Path("title") String slug,
@@ -164,6 +313,14 @@ public interface ShowService {
             @Path("episode") int episode
     );
 
+    @GET("/show/episode/stats.json/{apikey}/{title}/{season}/{episode}")
+    void episodeStats(
+            @Path("title") String slug,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            Callback<Stats> callback
+    );
+
     /**
      * Returns information for an episode including ratings.
      */
@@ -174,6 +331,17 @@ public interface ShowService {
             @Path("episode") int episode
     );
 
+    /**
+     * Returns information for an episode including ratings.
+     */
+    @GET("/show/episode/summary.json/{apikey}/{title}/{season}/{episode}")
+    void episodeSummary(
+            @Path("title") int showTvdbId,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            Callback<TvEntity> callback
+    );
+
     /**
      * Returns information for an episode including ratings.
      */
@@ -184,6 +352,17 @@ public interface ShowService {
             @Path("episode") int episode
     );
 
+    /**
+     * Returns information for an episode including ratings.
+     */
+    @GET("/show/episode/summary.json/{apikey}/{title}/{season}/{episode}")
+    void episodeSummary(
+            @Path("title") String slug,
+            @Path("season") int season,
+            @Path("episode") int episode,
+            Callback<TvEntity> callback
+    );
+
     /**
      * Remove episodes from your library collection.
      */
@@ -192,6 +371,15 @@ public interface ShowService {
             @Body Episodes episodes
     );
 
+    /**
+     * Remove episodes from your library collection.
+     */
+    @POST("/show/episode/unlibrary/{apikey}")
+    void episodeUnlibrary(
+            @Body Episodes episodes,
+            Callback<Response> callback
+    );
+
     /**
      * Remove episodes watched outside of trakt from your library.
      */
@@ -200,6 +388,15 @@ public interface ShowService {
             @Body Episodes episodes
     );
 
+    /**
+     * Remove episodes watched outside of trakt from your library.
+     */
+    @POST("/show/episode/unseen/{apikey}")
+    void episodeUnseen(
+            @Body Episodes episodes,
+            Callback<Response> callback
+    );
+
     /**
      * Add all episodes for a season to your library collection.
      */
@@ -208,6 +405,15 @@ public interface ShowService {
             @Body Season season
     );
 
+    /**
+     * Add all episodes for a season to your library collection.
+     */
+    @POST("/show/season/library/{apikey}")
+    void seasonLibrary(
+            @Body Season season,
+            Callback<Response> callback
+    );
+
     /**
      * Add all episodes from a season watched outside of trakt to your library.
      */
@@ -216,6 +422,15 @@ public interface ShowService {
             @Body Season season
     );
 
+    /**
+     * Add all episodes from a season watched outside of trakt to your library.
+     */
+    @POST("/show/season/seen/{apikey}")
+    void seasonSeen(
+            @Body Season season,
+            Callback<Response> callback
+    );
+
     /**
      * Add all episodes for a show to your library collection.
      */
@@ -224,6 +439,15 @@ public interface ShowService {
             @Body Show show
     );
 
+    /**
+     * Add all episodes for a show to your library collection.
+     */
+    @POST("/show/library/{apikey}")
+    void showLibrary(
+            @Body Show show,
+            Callback<Response> callback
+    );
+
     /**
      * Add all episodes for a show watched outside of trakt to your library.
      */
@@ -232,6 +456,15 @@ public interface ShowService {
             @Body Show show
     );
 
+    /**
+     * Add all episodes for a show watched outside of trakt to your library.
+     */
+    @POST("/show/seen/{apikey}")
+    void showSeen(
+            @Body Show show,
+            Callback<Response> callback
+    );
+
     /**
      * Remove an entire show (including all episodes) from your library collection.
      */
@@ -240,39 +473,87 @@ public interface ShowService {
             @Body Show show
     );
 
+    /**
+     * Remove an entire show (including all episodes) from your library collection.
+     */
+    @POST("/show/unlibrary/{apikey}")
+    void showUnlibrary(
+            @Body Show show,
+            Callback<Response> callback
+    );
+
     @GET("/show/stats.json/{apikey}/{title}")
     Stats stats(
             @Path("title") int showTvdbId
     );
 
+    @GET("/show/stats.json/{apikey}/{title}")
+    void stats(
+            @Path("title") int showTvdbId,
+            Callback<Stats> callback
+    );
+
     @GET("/show/stats.json/{apikey}/{title}")
     Stats stats(
             @Path("title") String slug
     );
 
+    @GET("/show/stats.json/{apikey}/{title}")
+    void stats(
+            @Path("title") String slug,
+            Callback<Stats> callback
+    );
+
     @GET("/show/summary.json/{apikey}/{title}")
     TvShow summary(
             @Path("title") int tvdbId
     );
 
+    @GET("/show/summary.json/{apikey}/{title}")
+    void summary(
+            @Path("title") int tvdbId,
+            Callback<TvShow> callback
+    );
+
     @GET("/show/summary.json/{apikey}/{title}")
     TvShow summary(
             @Path("title") String slug
     );
 
+    @GET("/show/summary.json/{apikey}/{title}")
+    void summary(
+            @Path("title") String slug,
+            Callback<TvShow> callback
+    );
+
     @GET("/show/summary.json/{apikey}/{title}/extended")
     TvShow summaryExtended(
             @Path("title") int tvdbId
     );
 
+    @GET("/show/summary.json/{apikey}/{title}/extended")
+    void summaryExtended(
+            @Path("title") int tvdbId,
+            Callback<TvShow> callback
+    );
+
     @GET("/show/summary.json/{apikey}/{title}/extended")
     TvShow summaryExtended(
             @Path("title") String slug
     );
 
+    @GET("/show/summary.json/{apikey}/{title}/extended")
+    void summaryExtended(
+            @Path("title") String slug,
+            Callback<TvShow> callback
+    );
+
     @GET("/shows/trending.json/{apikey}")
     List<TvShow> trending();
 
+    @GET("/shows/trending.json/{apikey}")
+    void trending(Callback<List<TvShow>> callback);
+
     public static class Episodes extends Show {
 
         public List<Episode> episodes;
@@ -1,12 +1,14 @@
 
 package com.jakewharton.trakt.services;
 
+import com.jakewharton.trakt.ResponseStream;
 import com.jakewharton.trakt.entities.Movie;
 import com.jakewharton.trakt.entities.TvShow;
 import com.jakewharton.trakt.entities.UserProfile;
 
 import java.util.List;
 
+import retrofit.Callback;
 import retrofit.http.EncodedPath;
 import retrofit.http.GET;
 
@@ -22,6 +24,17 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns an array of all followers including the since timestamp which is when the
+     * relationship began. Protected users won't return any data unless you are friends. Any friends
+     * of the main user that are protected won't display data either.
+     */
+    @GET("/user/network/followers.json/{apikey}/{username}")
+    void followers(
+            @EncodedPath("username") String username,
+            Callback<List<UserProfile>> callback
+    );
+
     /**
      * Returns an array of all user's they follow including the since timestamp which is when the
      * relationship began. Protected users won't return any data unless you are friends. Any friends
@@ -32,6 +45,17 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns an array of all user's they follow including the since timestamp which is when the
+     * relationship began. Protected users won't return any data unless you are friends. Any friends
+     * of the main user that are protected won't display data either.
+     */
+    @GET("/user/network/following.json/{apikey}/{username}")
+    void following(
+            @EncodedPath("username") String username,
+            Callback<List<UserProfile>> callback
+    );
+
     /**
      * Returns an array of the user's friends (a 2 way relationship where each user follows the
      * other) including the since timestamp which is when the friendship began. Protected users
@@ -43,6 +67,18 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns an array of the user's friends (a 2 way relationship where each user follows the
+     * other) including the since timestamp which is when the friendship began. Protected users
+     * won't return any data unless you are friends. Any friends of the main user that are protected
+     * won't display data either.
+     */
+    @GET("/user/network/friends.json/{apikey}/{username}")
+    void friends(
+            @EncodedPath("username") String username,
+            Callback<List<UserProfile>> callback
+    );
+
     /**
      * Returns all shows in a user's library. Each show will indicate how many plays it has.
      * Protected users won't return any data unless you are friends.
@@ -55,6 +91,33 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows in a user's library. Each show will indicate how many plays it has.
+     * Protected users won't return any data unless you are friends.
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/library/shows/all.json/{apikey}/{username}")
+    void libraryShowsAll(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows in a user's library. Each show will indicate how many plays it has.
+     * Protected users won't return any data unless you are friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/library/shows/all.json/{apikey}/{username}")
+    ResponseStream<TvShow> libraryShowsAllStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns complete show info if set to true. Only send this if you really need the full dump as
      * it doubles the data size being sent back.
@@ -67,6 +130,33 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns complete show info if set to true. Only send this if you really need the full dump as
+     * it doubles the data size being sent back.
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/library/shows/all.json/{apikey}/{username}/extended")
+    void libraryShowsAllExtended(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns complete show info if set to true. Only send this if you really need the full dump as
+     * it doubles the data size being sent back.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/library/shows/all.json/{apikey}/{username}/extended")
+    ResponseStream<TvShow> libraryShowsAllExtendedStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns only the minimal info (title, year, imdb_id, tvdb_id, tvrage_id, plays) required for
      * media center syncing if set to min. This sends about half the data.
@@ -79,6 +169,33 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns only the minimal info (title, year, imdb_id, tvdb_id, tvrage_id, plays) required for
+     * media center syncing if set to min. This sends about half the data.
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/library/shows/all.json/{apikey}/{username}/min")
+    void libraryShowsAllMinimum(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns only the minimal info (title, year, imdb_id, tvdb_id, tvrage_id, plays) required for
+     * media center syncing if set to min. This sends about half the data.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/library/shows/all.json/{apikey}/{username}/min")
+    ResponseStream<TvShow> libraryShowsAllMinimumStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows and episodes in a user's library collection. Collection items might include
      * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
@@ -89,6 +206,29 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows and episodes in a user's library collection. Collection items might include
+     * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
+     * friends.
+     */
+    @GET("/user/library/shows/collection.json/{apikey}/{username}")
+    void libraryShowsCollection(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows and episodes in a user's library collection. Collection items might include
+     * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
+     * friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/user/library/shows/collection.json/{apikey}/{username}")
+    ResponseStream<TvShow> libraryShowsCollectionStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows and episodes in a user's library collection. Collection items might include
      * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
@@ -99,6 +239,29 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows and episodes in a user's library collection. Collection items might include
+     * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
+     * friends.
+     */
+    @GET("/user/library/shows/collection.json/{apikey}/{username}/extended")
+    void libraryShowsCollectionExtended(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows and episodes in a user's library collection. Collection items might include
+     * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
+     * friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/user/library/shows/collection.json/{apikey}/{username}/extended")
+    ResponseStream<TvShow> libraryShowsCollectionExtendedStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows and episodes in a user's library collection. Collection items might include
      * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
@@ -109,6 +272,29 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows and episodes in a user's library collection. Collection items might include
+     * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
+     * friends.
+     */
+    @GET("/user/library/shows/collection.json/{apikey}/{username}/min")
+    void libraryShowsCollectionMinimum(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows and episodes in a user's library collection. Collection items might include
+     * blu-rays, dvds, and digital downloads. Protected users won't return any data unless you are
+     * friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/user/library/shows/collection.json/{apikey}/{username}/min")
+    ResponseStream<TvShow> libraryShowsCollectionMinimumStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
      * data with local media center. Protected users won't return any data unless you are friends.
@@ -118,6 +304,27 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
+     * data with local media center. Protected users won't return any data unless you are friends.
+     */
+    @GET("/user/library/shows/watched.json/{apikey}/{username}")
+    void libraryShowsWatched(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
+     * data with local media center. Protected users won't return any data unless you are friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/user/library/shows/watched.json/{apikey}/{username}")
+    ResponseStream<TvShow> libraryShowsWatchedStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
      * data with local media center. Protected users won't return any data unless you are friends.
@@ -127,6 +334,27 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
+     * data with local media center. Protected users won't return any data unless you are friends.
+     */
+    @GET("/user/library/shows/watched.json/{apikey}/{username}/extended")
+    void libraryShowsWatchedExtended(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
+     * data with local media center. Protected users won't return any data unless you are friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/user/library/shows/watched.json/{apikey}/{username}/extended")
+    ResponseStream<TvShow> libraryShowsWatchedExtendedStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
      * data with local media center. Protected users won't return any data unless you are friends.
@@ -136,6 +364,27 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
+     * data with local media center. Protected users won't return any data unless you are friends.
+     */
+    @GET("/user/library/shows/watched.json/{apikey}/{username}/min")
+    void libraryShowsWatchedMinimum(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows and episodes that a user has watched. This method is useful to sync trakt's
+     * data with local media center. Protected users won't return any data unless you are friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     */
+    @GET("/user/library/shows/watched.json/{apikey}/{username}/min")
+    ResponseStream<TvShow> libraryShowsWatchedMinimumStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns profile information for a user. Protected users won't return any data unless you are
      * friends.
@@ -145,6 +394,16 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns profile information for a user. Protected users won't return any data unless you are
+     * friends.
+     */
+    @GET("/user/profile.json/{apikey}/{username}")
+    void profile(
+            @EncodedPath("username") String username,
+            Callback<UserProfile> callback
+    );
+
     /**
      * Returns all movies in a user's watchlist. Each movie will indicate when it was added to the
      * watchlist. Protected users won't return any data unless you are friends.
@@ -157,6 +416,33 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all movies in a user's watchlist. Each movie will indicate when it was added to the
+     * watchlist. Protected users won't return any data unless you are friends.
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/watchlist/movies.json/{apikey}/{username}")
+    void watchlistMovies(
+            @EncodedPath("username") String username,
+            Callback<List<Movie>> callback
+    );
+
+    /**
+     * Returns all movies in a user's watchlist. Each movie will indicate when it was added to the
+     * watchlist. Protected users won't return any data unless you are friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/watchlist/movies.json/{apikey}/{username}")
+    ResponseStream<Movie> watchlistMoviesStream(
+            @EncodedPath("username") String username
+    );
+
     /**
      * Returns all shows in a user's watchlist. Each show will indicate when it was added to the
      * watchlist. Protected users won't return any data unless you are friends.
@@ -169,4 +455,31 @@ public interface UserService {
             @EncodedPath("username") String username
     );
 
+    /**
+     * Returns all shows in a user's watchlist. Each show will indicate when it was added to the
+     * watchlist. Protected users won't return any data unless you are friends.
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/watchlist/shows.json/{apikey}/{username}")
+    void watchlistShows(
+            @EncodedPath("username") String username,
+            Callback<List<TvShow>> callback
+    );
+
+    /**
+     * Returns all shows in a user's watchlist. Each show will indicate when it was added to the
+     * watchlist. Protected users won't return any data unless you are friends.
+     *
+     * <p>Decodes the response incrementally while iterating, see {@link ResponseStream}.</p>
+     *
+     * @param username You can get a username by browsing the website and looking at the URL when on
+     *                 a profile page.
+     */
+    @GET("/user/watchlist/shows.json/{apikey}/{username}")
+    ResponseStream<TvShow> watchlistShowsStream(
+            @EncodedPath("username") String username
+    );
+
 }
\ No newline at end of file
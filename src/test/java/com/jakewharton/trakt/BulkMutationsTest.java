@@ -0,0 +1,261 @@
+package com.jakewharton.trakt;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.jakewharton.trakt.entities.Response;
+import com.jakewharton.trakt.services.MovieService;
+import com.jakewharton.trakt.services.ShowService;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit.RetrofitError;
+import retrofit.client.Request;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class BulkMutationsTest {
+
+    @Test
+    public void test_moviesAreChunkedAndMerged() {
+        ChunkAnswer chunks = new ChunkAnswer();
+        ScriptedClient client = new ScriptedClient().otherwise(chunks);
+        Trakt trakt = new Trakt(client.configuration().setAuthentication("user", "sha1").build());
+        List<MovieService.SeenMovie> movies = new ArrayList<MovieService.SeenMovie>();
+        for (int i = 0; i < 1050; i++) {
+            movies.add(new MovieService.SeenMovie(i % 7 == 0 ? "tt-existing" : "tt" + i));
+        }
+
+        BulkMutations.Result result = new BulkMutations.Builder()
+                .setChunkSize(100)
+                .setParallelism(3)
+                .build()
+                .movieLibrary(trakt, new MovieService.Movies(movies));
+
+        assertThat(result.isSuccessful()).isTrue();
+        assertThat(result.getItemCount()).isEqualTo(1050);
+        assertThat(result.getChunkCount()).isEqualTo(11);
+        assertThat(result.getResponses()).hasSize(11);
+        assertThat(result.getInserted()).isEqualTo(900);
+        assertThat(result.getAlreadyExist()).isEqualTo(150);
+        assertThat(client.getRequestCount()).isEqualTo(11);
+        assertThat(chunks.largestChunk.get()).isEqualTo(100);
+        assertThat(chunks.maxInFlight.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void test_failedChunksAreReported() {
+        ChunkAnswer chunks = new ChunkAnswer();
+        ScriptedClient client = new ScriptedClient().otherwise(chunks);
+        Trakt trakt = new Trakt(client.configuration().setAuthentication("user", "sha1").build());
+        List<ShowService.Episodes.Episode> episodes = new ArrayList<ShowService.Episodes.Episode>();
+        for (int season = 1; season <= 5; season++) {
+            for (int episode = 1; episode <= 10; episode++) {
+                episodes.add(new ShowService.Episodes.Episode(season, episode));
+            }
+        }
+        // Chunk 1 fails with an HTTP error, chunk 3 with a failure status.
+        episodes.get(12).season = ChunkAnswer.SEASON_HTTP_ERROR;
+        episodes.get(35).season = ChunkAnswer.SEASON_FAILURE_STATUS;
+        ShowService.Episodes submitted = new ShowService.Episodes(213221, episodes);
+        submitted.title = "Mad Men";
+
+        BulkMutations.Result result = new BulkMutations.Builder()
+                .setChunkSize(10)
+                .setParallelism(2)
+                .build()
+                .episodeSeen(trakt, submitted);
+
+        assertThat(result.isSuccessful()).isFalse();
+        assertThat(result.getChunkCount()).isEqualTo(5);
+        assertThat(result.getResponses()).hasSize(3);
+        for (Response response : result.getResponses()) {
+            assertThat(response.status).isEqualTo("success");
+        }
+        assertThat(result.getFailures()).hasSize(2);
+
+        BulkMutations.Failure httpError = result.getFailures().get(0);
+        assertThat(httpError.getFromIndex()).isEqualTo(10);
+        assertThat(httpError.getToIndex()).isEqualTo(20);
+        assertThat(httpError.getResponse()).isNull();
+        assertThat(httpError.getException()).isInstanceOf(RetrofitError.class);
+        assertThat(((RetrofitError) httpError.getException()).getResponse().getStatus())
+                .isEqualTo(503);
+
+        BulkMutations.Failure failureStatus = result.getFailures().get(1);
+        assertThat(failureStatus.getFromIndex()).isEqualTo(30);
+        assertThat(failureStatus.getToIndex()).isEqualTo(40);
+        assertThat(failureStatus.getException()).isNull();
+        assertThat(failureStatus.getMessage()).isEqualTo("invalid episode");
+
+        // Every chunk identifies the show.
+        assertThat(chunks.shows).containsOnly("213221 Mad Men");
+    }
+
+    @Test
+    public void test_emptyListAndSequentialPosting() {
+        ChunkAnswer chunks = new ChunkAnswer();
+        ScriptedClient client = new ScriptedClient().otherwise(chunks);
+        Trakt trakt = new Trakt(client.configuration().setAuthentication("user", "sha1").build());
+        BulkMutations sequential = new BulkMutations.Builder().setParallelism(1).build();
+
+        BulkMutations.Result empty = sequential.movieSeen(trakt,
+                new MovieService.Movies(new ArrayList<MovieService.SeenMovie>()));
+        assertThat(empty.isSuccessful()).isTrue();
+        assertThat(empty.getChunkCount()).isZero();
+        assertThat(client.getRequestCount()).isZero();
+
+        List<MovieService.SeenMovie> movies = new ArrayList<MovieService.SeenMovie>();
+        for (int i = 0; i < 250; i++) {
+            movies.add(new MovieService.SeenMovie(i));
+        }
+        BulkMutations.Result result = sequential.movieSeen(trakt,
+                new MovieService.Movies(movies));
+        assertThat(result.getChunkCount()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(250);
+        assertThat(chunks.maxInFlight.get()).isEqualTo(1);
+
+        try {
+            new BulkMutations.Builder().setChunkSize(0);
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void test_errorsAreReportedPerChunk() {
+        ScriptedClient client = new ScriptedClient().otherwise(new ChunkAnswer());
+        Trakt trakt = new Trakt(client.configuration().setAuthentication("user", "sha1").build());
+        List<MovieService.SeenMovie> movies = new FailingList(100);
+        for (int i = 0; i < 300; i++) {
+            movies.add(new MovieService.SeenMovie(i));
+        }
+
+        BulkMutations.Result result = new BulkMutations.Builder()
+                .setParallelism(3)
+                .build()
+                .movieSeen(trakt, new MovieService.Movies(movies));
+
+        assertThat(result.getChunkCount()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(200);
+        assertThat(result.getFailures()).hasSize(1);
+        BulkMutations.Failure failure = result.getFailures().get(0);
+        assertThat(failure.getFromIndex()).isEqualTo(100);
+        assertThat(failure.getException()).isInstanceOf(AssertionError.class);
+        assertThat(failure.getMessage()).isEqualTo("Chunk at 100.");
+    }
+
+    /**
+     * Throws an error when the chunk starting at the given index is taken from the list.
+     */
+    private static final class FailingList extends ArrayList<MovieService.SeenMovie> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int mFailingIndex;
+
+        FailingList(int failingIndex) {
+            mFailingIndex = failingIndex;
+        }
+
+        @Override
+        public List<MovieService.SeenMovie> subList(int fromIndex, int toIndex) {
+            if (fromIndex == mFailingIndex) {
+                throw new AssertionError("Chunk at " + fromIndex + ".");
+            }
+            return super.subList(fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * Answers movie posts with the number of inserted and existing movies, and episode posts with
+     * a success, an HTTP error or a failure status depending on the seasons posted.
+     */
+    private static class ChunkAnswer implements ScriptedClient.Answer {
+
+        static final int SEASON_HTTP_ERROR = 100;
+
+        static final int SEASON_FAILURE_STATUS = 200;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        final AtomicInteger largestChunk = new AtomicInteger();
+
+        final List<String> shows = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public retrofit.client.Response answer(Request request) throws IOException {
+            int current = inFlight.incrementAndGet();
+            int max;
+            while (current > (max = maxInFlight.get())
+                    && !maxInFlight.compareAndSet(max, current)) {
+            }
+            try {
+                // Give other chunks the chance to overlap.
+                Thread.sleep(5);
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                request.getBody().writeTo(body);
+                JsonObject posted = new JsonParser().parse(body.toString("UTF-8"))
+                        .getAsJsonObject();
+                if (posted.has("movies")) {
+                    return movies(posted.getAsJsonArray("movies")).answer(request);
+                }
+                return episodes(posted).answer(request);
+            } catch (InterruptedException e) {
+                throw new IOException("Interrupted.");
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private ScriptedClient.Answer movies(JsonArray movies) {
+            int existing = 0;
+            for (JsonElement movie : movies) {
+                JsonElement imdbId = movie.getAsJsonObject().get("imdb_id");
+                if (imdbId != null && "tt-existing".equals(imdbId.getAsString())) {
+                    existing++;
+                }
+            }
+            recordChunk(movies.size());
+            return ScriptedClient.json("{\"status\":\"success\",\"inserted\":"
+                    + (movies.size() - existing) + ",\"already_exist\":" + existing
+                    + ",\"skipped\":0}");
+        }
+
+        private ScriptedClient.Answer episodes(JsonObject posted) {
+            shows.add(posted.get("tvdb_id").getAsInt() + " " + posted.get("title").getAsString());
+            JsonArray episodes = posted.getAsJsonArray("episodes");
+            recordChunk(episodes.size());
+            for (JsonElement episode : episodes) {
+                int season = episode.getAsJsonObject().get("season").getAsInt();
+                if (season == SEASON_HTTP_ERROR) {
+                    return ScriptedClient.status(503,
+                            "{\"status\":\"failure\",\"error\":\"unavailable\"}");
+                } else if (season == SEASON_FAILURE_STATUS) {
+                    return ScriptedClient.json(
+                            "{\"status\":\"failure\",\"error\":\"invalid episode\"}");
+                }
+            }
+            return ScriptedClient.json("{\"status\":\"success\",\"message\":\"marked as seen\"}");
+        }
+
+        private void recordChunk(int size) {
+            int largest;
+            while (size > (largest = largestChunk.get())
+                    && !largestChunk.compareAndSet(largest, size)) {
+            }
+        }
+
+    }
+}
@@ -0,0 +1,180 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.ActionResponse;
+import com.jakewharton.trakt.entities.TvShow;
+import com.jakewharton.trakt.services.MovieService;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.Callback;
+import retrofit.RetrofitError;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class EntityCacheTest {
+
+    private final ScriptedClient client = new ScriptedClient()
+            .when("/user/", ScriptedClient.json("[" + ScriptedClient.SHOW + "]"));
+
+    @Test
+    public void test_summaryIsServedFromMemory() {
+        EntityCache cache = new EntityCache.Builder().build();
+        Trakt trakt = new Trakt(client.configuration().setEntityCache(cache).build());
+
+        TvShow first = trakt.showService().summary(213221);
+        TvShow second = trakt.showService().summary(213221);
+        trakt.showService().summary(80337);
+
+        assertThat(second).isSameAs(first);
+        assertThat(client.getRequestCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_entriesAreCachedPerUser() {
+        EntityCache cache = new EntityCache.Builder().build();
+        Trakt trakt = new Trakt(client.configuration().setEntityCache(cache).build());
+
+        TvShow anonymous = trakt.showService().summary(213221);
+        TvShow user = trakt.as(new Credentials("user", "sha1")).showService().summary(213221);
+
+        assertThat(user).isNotSameAs(anonymous);
+        assertThat(client.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_entriesAreCachedPerServerAndApiKey() {
+        EntityCache cache = new EntityCache.Builder().build();
+        Trakt trakt = new Trakt(client.configuration().setEntityCache(cache).build());
+
+        TvShow first = trakt.showService().summary(213221);
+        trakt.setApiKey("other");
+        TvShow otherKey = trakt.showService().summary(213221);
+        trakt.setApiUrl("http://localhost");
+        TvShow otherServer = trakt.showService().summary(213221);
+
+        assertThat(otherKey).isNotSameAs(first);
+        assertThat(otherServer).isNotSameAs(otherKey);
+        assertThat(client.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void test_listsAreCachedUntilTheUserChangesThem() {
+        EntityCache cache = new EntityCache.Builder().build();
+        Trakt trakt = new Trakt(client.configuration()
+                .setAuthentication("user", "sha1")
+                .setEntityCache(cache)
+                .build());
+
+        List<TvShow> library = trakt.userService().libraryShowsAll("user");
+        assertThat(trakt.userService().libraryShowsAll("user")).isSameAs(library);
+        List<TvShow> other = trakt.userService().libraryShowsAll("other");
+        assertThat(client.getRequestCount()).isEqualTo(2);
+
+        trakt.movieService().seen(new MovieService.Movies(new MovieService.SeenMovie("tt1")));
+        assertThat(client.getRequestCount()).isEqualTo(3);
+
+        assertThat(trakt.userService().libraryShowsAll("user")).isNotSameAs(library);
+        assertThat(trakt.userService().libraryShowsAll("other")).isSameAs(other);
+        assertThat(client.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void test_listsAreDroppedOnceAsynchronousChangesComplete() throws Exception {
+        final CountDownLatch posted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        client.when("/movie/seen/", new ScriptedClient.Answer() {
+            @Override
+            public Response answer(Request request) throws IOException {
+                posted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return ScriptedClient.json("{\"status\":\"success\"}").answer(request);
+            }
+        });
+        EntityCache cache = new EntityCache.Builder().build();
+        Trakt trakt = new Trakt(client.configuration()
+                .setAuthentication("user", "sha1")
+                .setEntityCache(cache)
+                .build());
+        trakt.userService().libraryShowsAll("user");
+
+        final CountDownLatch done = new CountDownLatch(1);
+        trakt.movieService().seen(new MovieService.Movies(new MovieService.SeenMovie("tt1")),
+                new Callback<ActionResponse>() {
+                    @Override
+                    public void success(ActionResponse response, Response raw) {
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void failure(RetrofitError error) {
+                        done.countDown();
+                    }
+                });
+        assertThat(posted.await(5, TimeUnit.SECONDS)).isTrue();
+        // Read while the change is in flight, which must not outlive it.
+        List<TvShow> during = trakt.userService().libraryShowsAll("user");
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(trakt.userService().libraryShowsAll("user")).isNotSameAs(during);
+    }
+
+    @Test
+    public void test_expiredEntriesAreReloaded() throws InterruptedException {
+        EntityCache cache = new EntityCache.Builder()
+                .setTimeToLive(TvShow.class, 1, TimeUnit.MILLISECONDS)
+                .build();
+        Trakt trakt = new Trakt(client.configuration().setEntityCache(cache).build());
+
+        trakt.showService().summary(213221);
+        Thread.sleep(5);
+        trakt.showService().summary(213221);
+
+        assertThat(client.getRequestCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    public void test_disabledFamilyIsNotCached() {
+        EntityCache cache = new EntityCache.Builder()
+                .setTimeToLive(TvShow.class, 0, TimeUnit.SECONDS)
+                .build();
+        Trakt trakt = new Trakt(client.configuration().setEntityCache(cache).build());
+
+        trakt.showService().summary(213221);
+        trakt.showService().summary(213221);
+
+        assertThat(client.getRequestCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isZero();
+    }
+
+    @Test
+    public void test_leastRecentlyUsedEntriesAreEvicted() {
+        EntityCache cache = new EntityCache.Builder().setMaxEntries(16).build();
+        Trakt trakt = new Trakt(client.configuration().setEntityCache(cache).build());
+
+        for (int i = 0; i < 100; i++) {
+            trakt.showService().summary(i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(16);
+        assertThat(cache.getEvictionCount()).isEqualTo(100 - cache.size());
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,294 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.TvShow;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.Callback;
+import retrofit.RetrofitError;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.converter.Converter;
+import retrofit.converter.GsonConverter;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class MetricsReporterTest {
+
+    private static final String SUMMARY = "/show/summary.json/{apikey}/{title}";
+
+    private static final String STATS = "/show/stats.json/{apikey}/{title}";
+
+    private static final byte[] BODY = ScriptedClient.SHOW.getBytes();
+
+    private static final byte[] LIBRARY = ("[" + new String(BODY) + "," + new String(BODY) + "]")
+            .getBytes();
+
+    @Test
+    public void test_histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getPercentile(99)).isZero();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(1000000);
+        assertThat(histogram.getMean()).isEqualTo(500500);
+        assertThat(histogram.getPercentile(50)).isGreaterThanOrEqualTo(500000)
+                .isLessThanOrEqualTo(500000 * 9 / 8);
+        assertThat(histogram.getPercentile(99)).isGreaterThanOrEqualTo(990000)
+                .isLessThanOrEqualTo(1000000);
+        assertThat(histogram.getPercentile(100)).isEqualTo(1000000);
+    }
+
+    @Test
+    public void test_histogramBuckets() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT - 1; i++) {
+            long highest = LatencyHistogram.highestValue(i);
+            assertThat(LatencyHistogram.index(highest)).as("bucket " + i).isEqualTo(i);
+            assertThat(LatencyHistogram.index(highest + 1)).as("bucket " + i).isEqualTo(i + 1);
+        }
+        assertThat(LatencyHistogram.index(Long.MAX_VALUE))
+                .isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    public void test_callsAreReportedPerEndpoint() {
+        CapturingReporter captured = new CapturingReporter();
+        HistogramReporter histograms = new HistogramReporter();
+        ScriptedClient client = newClient();
+        Trakt trakt = new Trakt(client.configuration().setMetricsReporter(captured).build());
+
+        TvShow show = trakt.showService().summary("mad-men");
+        assertThat(show.title).isEqualTo("Mad Men");
+        try {
+            trakt.showService().summary("missing");
+            fail("Expected an HTTP error.");
+        } catch (RetrofitError expected) {
+        }
+        try {
+            trakt.showService().summary("offline");
+            fail("Expected a network error.");
+        } catch (RetrofitError expected) {
+        }
+        try {
+            trakt.showService().stats("mad-men");
+            fail("Expected a conversion error.");
+        } catch (RetrofitError expected) {
+        }
+
+        assertThat(captured.metrics).hasSize(4);
+        for (Request request : client.getRequests()) {
+            for (Header header : request.getHeaders()) {
+                assertThat(header.getName()).isNotEqualTo(MetricsClient.HEADER_CALLED_AT);
+            }
+        }
+        CallMetrics success = captured.metrics.get(0);
+        assertThat(success.getEndpoint()).isEqualTo(SUMMARY);
+        assertThat(success.getHttpMethod()).isEqualTo("GET");
+        assertThat(success.getOutcome()).isEqualTo(CallMetrics.Outcome.SUCCESS);
+        assertThat(success.getStatus()).isEqualTo(200);
+        assertThat(success.getAttempts()).isEqualTo(1);
+        assertThat(success.getResponseBytes()).isEqualTo(BODY.length);
+        assertThat(success.getTotalNanos()).isGreaterThanOrEqualTo(success.getFirstByteNanos()
+                + success.getDownloadNanos() + success.getDeserializationNanos());
+        assertThat(captured.metrics.get(1).getOutcome())
+                .isEqualTo(CallMetrics.Outcome.HTTP_ERROR);
+        assertThat(captured.metrics.get(1).getStatus()).isEqualTo(404);
+        assertThat(captured.metrics.get(2).getOutcome())
+                .isEqualTo(CallMetrics.Outcome.NETWORK_ERROR);
+        assertThat(captured.metrics.get(2).getStatus()).isEqualTo(-1);
+        assertThat(captured.metrics.get(3).getEndpoint()).isEqualTo(STATS);
+        assertThat(captured.metrics.get(3).getOutcome())
+                .isEqualTo(CallMetrics.Outcome.CONVERSION_ERROR);
+
+        for (CallMetrics metrics : captured.metrics) {
+            histograms.report(metrics);
+        }
+        HistogramReporter.Endpoint summary = histograms.getEndpoint(SUMMARY);
+        assertThat(summary.getTotal().getCount()).isEqualTo(3);
+        assertThat(summary.getCount(CallMetrics.Outcome.SUCCESS)).isEqualTo(1);
+        assertThat(summary.getCount(CallMetrics.Outcome.HTTP_ERROR)).isEqualTo(1);
+        assertThat(summary.getCount(CallMetrics.Outcome.NETWORK_ERROR)).isEqualTo(1);
+        assertThat(summary.getResponseBytes()).isEqualTo(BODY.length);
+        assertThat(histograms.getEndpoints().keySet()).containsOnly(SUMMARY, STATS);
+    }
+
+    @Test
+    public void test_queueWaitOfAsynchronousCalls() throws Exception {
+        CapturingReporter captured = new CapturingReporter();
+        final long delayMillis = 50;
+        Executor delayingExecutor = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Thread.sleep(delayMillis);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        command.run();
+                    }
+                }).start();
+            }
+        };
+        Executor callbackExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+        Trakt trakt = new Trakt(newClient().configuration()
+                .setMetricsReporter(captured)
+                .setExecutors(delayingExecutor, callbackExecutor)
+                .build());
+
+        final CountDownLatch done = new CountDownLatch(1);
+        trakt.showService().summary("mad-men", new Callback<TvShow>() {
+            @Override
+            public void success(TvShow show, Response response) {
+                done.countDown();
+            }
+
+            @Override
+            public void failure(RetrofitError error) {
+                done.countDown();
+            }
+        });
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(captured.metrics).hasSize(1);
+        assertThat(captured.metrics.get(0).getOutcome()).isEqualTo(CallMetrics.Outcome.SUCCESS);
+        assertThat(captured.metrics.get(0).getQueueNanos())
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    }
+
+    @Test
+    public void test_transportReportsConnectAndFirstByte() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, BODY.length);
+                exchange.getResponseBody().write(BODY);
+                exchange.close();
+            }
+        });
+        server.start();
+        try {
+            CapturingReporter captured = new CapturingReporter();
+            MetricsClient client = new MetricsClient(new Transport.Builder().build().getClient(),
+                    captured);
+            Converter converter = client.wrap(new GsonConverter(TraktHelper.getGson()));
+            String url = "http://127.0.0.1:" + server.getAddress().getPort()
+                    + "/show/summary.json/key/mad-men";
+
+            Response response = client.execute(
+                    new Request("GET", url, Collections.<Header>emptyList(), null));
+            TvShow show = (TvShow) converter.fromBody(response.getBody(), TvShow.class);
+
+            assertThat(show.title).isEqualTo("Mad Men");
+            assertThat(captured.metrics).hasSize(1);
+            CallMetrics metrics = captured.metrics.get(0);
+            assertThat(metrics.getEndpoint()).isEqualTo(SUMMARY);
+            assertThat(metrics.getConnectNanos()).isPositive();
+            assertThat(metrics.getFirstByteNanos()).isPositive();
+            assertThat(metrics.getResponseBytes()).isEqualTo(BODY.length);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void test_cachedAndCoalescedCallsAreReported() {
+        CapturingReporter captured = new CapturingReporter();
+        Trakt trakt = new Trakt(newClient().configuration()
+                .setEntityCache(new EntityCache.Builder().build())
+                .setRequestCoalescer(new RequestCoalescer())
+                .setMetricsReporter(captured)
+                .build());
+
+        trakt.showService().summary("mad-men");
+        trakt.showService().summary("mad-men");
+        try {
+            trakt.showService().summary("missing");
+            fail("Expected an HTTP error.");
+        } catch (RetrofitError expected) {
+        }
+
+        assertThat(captured.metrics).hasSize(3);
+        assertThat(captured.metrics.get(0).getAttempts()).isEqualTo(1);
+        assertThat(captured.metrics.get(0).getResponseBytes()).isEqualTo(BODY.length);
+        CallMetrics cached = captured.metrics.get(1);
+        assertThat(cached.getEndpoint()).isEqualTo(SUMMARY);
+        assertThat(cached.getOutcome()).isEqualTo(CallMetrics.Outcome.SUCCESS);
+        assertThat(cached.getAttempts()).isZero();
+        assertThat(cached.getResponseBytes()).isZero();
+        assertThat(cached.getTotalNanos()).isGreaterThan(0);
+        assertThat(captured.metrics.get(2).getOutcome())
+                .isEqualTo(CallMetrics.Outcome.HTTP_ERROR);
+        assertThat(captured.metrics.get(2).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_streamsAreReportedOnceClosed() throws IOException {
+        CapturingReporter captured = new CapturingReporter();
+        Trakt trakt = new Trakt(newClient().configuration().setMetricsReporter(captured).build());
+
+        ResponseStream<TvShow> stream = trakt.userService().libraryShowsAllStream("user");
+        assertThat(stream.next().title).isEqualTo("Mad Men");
+        assertThat(captured.metrics).isEmpty();
+        assertThat(stream.next().title).isEqualTo("Mad Men");
+        assertThat(stream.hasNext()).isFalse();
+
+        assertThat(captured.metrics).hasSize(1);
+        CallMetrics metrics = captured.metrics.get(0);
+        assertThat(metrics.getOutcome()).isEqualTo(CallMetrics.Outcome.SUCCESS);
+        assertThat(metrics.getResponseBytes()).isEqualTo(LIBRARY.length);
+        assertThat(metrics.getDeserializationNanos()).isGreaterThan(0);
+
+        // Closing again reports nothing.
+        stream.close();
+        assertThat(captured.metrics).hasSize(1);
+    }
+
+    private static class CapturingReporter implements MetricsReporter {
+
+        final List<CallMetrics> metrics = Collections.synchronizedList(
+                new ArrayList<CallMetrics>());
+
+        @Override
+        public void report(CallMetrics metrics) {
+            this.metrics.add(metrics);
+        }
+    }
+
+    /**
+     * Answers by the last path segment: a show for {@code mad-men}, 404 for {@code missing} and a
+     * network error for {@code offline}. Stats are never valid JSON, libraries hold two shows.
+     */
+    private static ScriptedClient newClient() {
+        return new ScriptedClient()
+                .when("/show/stats.json/", ScriptedClient.json("not json"))
+                .when("/missing", ScriptedClient.status(404, "missing"))
+                .when("/offline", ScriptedClient.failure("offline"))
+                .when("/user/library/", ScriptedClient.json(new String(LIBRARY)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.jakewharton.trakt;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import retrofit.RetrofitError;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class RateLimiterTest {
+
+    @Test
+    public void test_burstBeyondCapacityWaitsForRefill() {
+        RateLimiter limiter = new RateLimiter.Builder()
+                .setCapacity(2)
+                .setRefill(1, 200, TimeUnit.MILLISECONDS)
+                .build();
+        Trakt trakt = new Trakt(new ScriptedClient().configuration()
+                .setRateLimiter(limiter)
+                .build());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            trakt.showService().summary(i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Two calls use the initial tokens, the other three wait for one refill each. Time spent
+        // in the calls themselves counts towards the refill, so the waits may be shorter.
+        assertThat(limiter.getThrottledCount()).isEqualTo(3);
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(590);
+        assertThat(limiter.getThrottledTimeMillis()).isGreaterThan(0).isLessThanOrEqualTo(610);
+    }
+
+    @Test
+    public void test_usersHaveOwnBuckets() {
+        RateLimiter limiter = new RateLimiter.Builder()
+                .setCapacity(1)
+                .setRefill(1, 1, TimeUnit.MINUTES)
+                .setPerUser(true)
+                .build();
+        Trakt trakt = new Trakt(new ScriptedClient().configuration()
+                .setRateLimiter(limiter)
+                .build());
+
+        trakt.as(new Credentials("first", "sha1")).showService().summary(1);
+        trakt.as(new Credentials("second", "sha1")).showService().summary(1);
+        trakt.showService().summary(1);
+
+        assertThat(limiter.getThrottledCount()).isZero();
+    }
+
+    @Test
+    public void test_requestsBeyondMaxWaitFail() {
+        RateLimiter limiter = new RateLimiter.Builder()
+                .setCapacity(1)
+                .setRefill(1, 1, TimeUnit.MINUTES)
+                .setMaxWait(100, TimeUnit.MILLISECONDS)
+                .build();
+        Trakt trakt = new Trakt(new ScriptedClient().configuration()
+                .setRateLimiter(limiter)
+                .build());
+
+        trakt.showService().summary(1);
+        long start = System.nanoTime();
+        try {
+            trakt.showService().summary(1);
+            fail("Expected the rate limit to be exceeded.");
+        } catch (RetrofitError e) {
+            assertThat(e.isNetworkError()).isTrue();
+            assertThat(e.getCause()).isInstanceOf(RateLimitExceededException.class);
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        assertThat(limiter.getThrottledCount()).isZero();
+    }
+
+    @Test
+    public void test_idleBucketsAreDropped() throws InterruptedException {
+        // Warm up, so the first calls below do not take long enough for their buckets to refill.
+        new Trakt(new ScriptedClient().configuration()
+                .setRateLimiter(new RateLimiter.Builder().build())
+                .build()).showService().summary(1);
+
+        RateLimiter limiter = new RateLimiter.Builder()
+                .setCapacity(1)
+                .setRefill(1, 200, TimeUnit.MILLISECONDS)
+                .setPerUser(true)
+                .build();
+        Trakt trakt = new Trakt(new ScriptedClient().configuration()
+                .setRateLimiter(limiter)
+                .build());
+
+        for (int i = 0; i < 3; i++) {
+            trakt.as(new Credentials("user" + i, "sha1")).showService().summary(1);
+        }
+        assertThat(limiter.getBucketCount()).isEqualTo(3);
+
+        Thread.sleep(250);
+        trakt.showService().summary(1);
+
+        assertThat(limiter.getBucketCount()).isEqualTo(1);
+    }
+}
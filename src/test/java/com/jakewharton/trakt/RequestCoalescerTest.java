@@ -0,0 +1,101 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.TvShow;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    public void test_identicalCallsAreCoalesced() throws Exception {
+        BlockingAnswer answer = new BlockingAnswer();
+        ScriptedClient client = new ScriptedClient().otherwise(answer);
+        RequestCoalescer coalescer = new RequestCoalescer();
+        final Trakt trakt = new Trakt(client.configuration()
+                .setRequestCoalescer(coalescer)
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<TvShow>> results = new ArrayList<Future<TvShow>>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(new Callable<TvShow>() {
+                    @Override
+                    public TvShow call() {
+                        return trakt.showService().summary(213221);
+                    }
+                }));
+            }
+            // Only release the request once every other caller joined it.
+            long deadline = System.currentTimeMillis() + 10000;
+            while (coalescer.getCoalescedCount() < CALLERS - 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            answer.release.countDown();
+
+            TvShow first = results.get(0).get(10, TimeUnit.SECONDS);
+            assertThat(first.title).isEqualTo("Mad Men");
+            for (Future<TvShow> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(client.getRequestCount()).isEqualTo(1);
+        assertThat(coalescer.getIssuedCount()).isEqualTo(1);
+        assertThat(coalescer.getCoalescedCount()).isEqualTo(CALLERS - 1);
+        assertThat(coalescer.getInFlightCount()).isZero();
+    }
+
+    @Test
+    public void test_sequentialCallsAreNotCoalesced() {
+        ScriptedClient client = new ScriptedClient();
+        RequestCoalescer coalescer = new RequestCoalescer();
+        Trakt trakt = new Trakt(client.configuration().setRequestCoalescer(coalescer).build());
+
+        TvShow first = trakt.showService().summary(213221);
+        TvShow second = trakt.showService().summary(213221);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(client.getRequestCount()).isEqualTo(2);
+        assertThat(coalescer.getIssuedCount()).isEqualTo(2);
+        assertThat(coalescer.getCoalescedCount()).isZero();
+    }
+
+    /**
+     * Answers every request with a show once {@link #release} was counted down.
+     */
+    private static class BlockingAnswer implements ScriptedClient.Answer {
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public Response answer(Request request) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return ScriptedClient.json(ScriptedClient.SHOW).answer(request);
+        }
+    }
+}
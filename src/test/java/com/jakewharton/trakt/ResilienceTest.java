@@ -0,0 +1,153 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.TvShow;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import retrofit.RetrofitError;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ResilienceTest {
+
+    private static final String SUMMARY = "/show/summary.json/{apikey}/{title}";
+
+    private static final Resilience.Policy FAST_POLICY = new Resilience.Policy.Builder()
+            .setBackoff(1, 5, TimeUnit.MILLISECONDS)
+            .setCircuitBreaker(0, 1, TimeUnit.SECONDS)
+            .build();
+
+    private static final ScriptedClient.Answer UNAVAILABLE = ScriptedClient.status(503, "{}");
+
+    @Test
+    public void test_endpointsAreMatched() {
+        assertThat(Endpoints.match("GET", "http://api.trakt.tv/show/summary.json/key/213221"))
+                .isEqualTo(SUMMARY);
+        assertThat(Endpoints.match("GET",
+                "http://api.trakt.tv/show/summary.json/key/213221/extended"))
+                .isEqualTo("/show/summary.json/{apikey}/{title}/extended");
+        assertThat(Endpoints.match("GET",
+                "http://api.trakt.tv/search/shows.json/key/mad/10/seasons"))
+                .isEqualTo("/search/shows.json/{apikey}/{query}/{limit}/seasons");
+        assertThat(Endpoints.match("POST", "http://api.trakt.tv/show/checkin/key"))
+                .isEqualTo("/show/checkin/{apikey}");
+        assertThat(Endpoints.match("GET", "http://api.trakt.tv/unknown")).isNull();
+    }
+
+    @Test
+    public void test_failedGetIsRetried() {
+        ScriptedClient client = new ScriptedClient()
+                .enqueue(UNAVAILABLE)
+                .enqueue(UNAVAILABLE);
+        Resilience resilience = new Resilience.Builder().setDefaultPolicy(FAST_POLICY).build();
+        Trakt trakt = new Trakt(client.configuration().setResilience(resilience).build());
+
+        TvShow show = trakt.showService().summary(213221);
+
+        assertThat(show.title).isEqualTo("Mad Men");
+        assertThat(client.getRequestCount()).isEqualTo(3);
+        assertThat(resilience.getRetryCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_retriesAreLimited() {
+        ScriptedClient client = new ScriptedClient().otherwise(UNAVAILABLE);
+        Resilience resilience = new Resilience.Builder()
+                .setPolicy(SUMMARY, new Resilience.Policy.Builder()
+                        .setMaxRetries(1)
+                        .setBackoff(1, 5, TimeUnit.MILLISECONDS)
+                        .build())
+                .build();
+        Trakt trakt = new Trakt(client.configuration().setResilience(resilience).build());
+
+        try {
+            trakt.showService().summary(213221);
+            fail("Expected an HTTP error.");
+        } catch (RetrofitError e) {
+            assertThat(e.getResponse().getStatus()).isEqualTo(503);
+        }
+        assertThat(client.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_postIsNotRetriedByDefault() {
+        ScriptedClient client = new ScriptedClient().otherwise(UNAVAILABLE);
+        Resilience resilience = new Resilience.Builder().setDefaultPolicy(FAST_POLICY).build();
+        Trakt trakt = new Trakt(client.configuration().setResilience(resilience).build());
+
+        try {
+            trakt.accountService().test();
+            fail("Expected an HTTP error.");
+        } catch (RetrofitError expected) {
+        }
+        assertThat(client.getRequestCount()).isEqualTo(1);
+        assertThat(resilience.getRetryCount()).isZero();
+    }
+
+    @Test
+    public void test_breakerOpensAndFailsFast() {
+        ScriptedClient client = new ScriptedClient().otherwise(UNAVAILABLE);
+        Resilience resilience = new Resilience.Builder()
+                .setDefaultPolicy(new Resilience.Policy.Builder()
+                        .setMaxRetries(0)
+                        .setCircuitBreaker(2, 1, TimeUnit.MINUTES)
+                        .build())
+                .build();
+        Trakt trakt = new Trakt(client.configuration().setResilience(resilience).build());
+
+        for (int i = 0; i < 4; i++) {
+            try {
+                trakt.showService().summary(213221);
+                fail("Expected an error.");
+            } catch (RetrofitError expected) {
+            }
+        }
+
+        assertThat(client.getRequestCount()).isEqualTo(2);
+        assertThat(resilience.getRejectedCount()).isEqualTo(2);
+        assertThat(resilience.getState(SUMMARY)).isEqualTo(Resilience.State.OPEN);
+        assertThat(resilience.getStates()).containsKey(SUMMARY);
+        // Other endpoints are not affected.
+        assertThat(resilience.getState("/show/stats.json/{apikey}/{title}"))
+                .isEqualTo(Resilience.State.CLOSED);
+    }
+
+    @Test
+    public void test_rateLimitedRequestsAreNotFailures() {
+        ScriptedClient client = new ScriptedClient();
+        Resilience resilience = new Resilience.Builder()
+                .setDefaultPolicy(new Resilience.Policy.Builder()
+                        .setBackoff(1, 5, TimeUnit.MILLISECONDS)
+                        .setCircuitBreaker(2, 1, TimeUnit.MINUTES)
+                        .build())
+                .build();
+        RateLimiter limiter = new RateLimiter.Builder()
+                .setCapacity(1)
+                .setRefill(1, 1, TimeUnit.MINUTES)
+                .setMaxWait(0, TimeUnit.MILLISECONDS)
+                .build();
+        Trakt trakt = new Trakt(client.configuration()
+                .setResilience(resilience)
+                .setRateLimiter(limiter)
+                .build());
+
+        trakt.showService().summary(213221);
+        for (int i = 0; i < 5; i++) {
+            try {
+                trakt.showService().summary(213221);
+                fail("Expected the rate limit to be exceeded.");
+            } catch (RetrofitError e) {
+                assertThat(e.getCause()).isInstanceOf(RateLimitExceededException.class);
+            }
+        }
+
+        assertThat(client.getRequestCount()).isEqualTo(1);
+        assertThat(limiter.getRejectedCount()).isEqualTo(5);
+        assertThat(resilience.getRetryCount()).isZero();
+        assertThat(resilience.getRejectedCount()).isZero();
+        assertThat(resilience.getState(SUMMARY)).isEqualTo(Resilience.State.CLOSED);
+    }
+}
@@ -0,0 +1,89 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.ActivityItem;
+import com.jakewharton.trakt.entities.TvShow;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class ResponseStreamTest {
+
+    @Test
+    public void test_libraryIsStreamed() throws IOException {
+        ScriptedClient client = new ScriptedClient().otherwise(ScriptedClient.json(
+                "[{\"title\":\"Mad Men\",\"tvdb_id\":80337},"
+                + "{\"title\":\"Breaking Bad\",\"tvdb_id\":81189}]"));
+
+        ResponseStream<TvShow> shows = client.newTrakt().userService()
+                .libraryShowsAllExtendedStream("sean");
+        try {
+            assertThat(client.getOpenBodyCount()).isEqualTo(1);
+            assertThat(shows.next().title).isEqualTo("Mad Men");
+            assertThat(shows.next().title).isEqualTo("Breaking Bad");
+            assertThat(shows.hasNext()).isFalse();
+        } finally {
+            shows.close();
+        }
+        assertThat(client.getOpenBodyCount()).isZero();
+
+        try {
+            shows.next();
+            fail("Expected the stream to be exhausted.");
+        } catch (NoSuchElementException expected) {
+        }
+    }
+
+    @Test
+    public void test_activityIsStreamed() throws IOException {
+        ScriptedClient client = new ScriptedClient().otherwise(ScriptedClient.json(
+                "{\"timestamps\":{\"start\":1,\"end\":2},"
+                + "\"activity\":[{\"type\":\"episode\",\"action\":\"watching\"},"
+                + "{\"type\":\"movie\",\"action\":\"scrobble\"}]}"));
+
+        ResponseStream<ActivityItem> activity = client.newTrakt().activityService()
+                .userStream("sean");
+        int count = 0;
+        while (activity.hasNext()) {
+            assertThat(activity.next().action).isNotNull();
+            count++;
+        }
+
+        assertThat(count).isEqualTo(2);
+        // Reading past the last element closes the body.
+        assertThat(client.getOpenBodyCount()).isZero();
+    }
+
+    @Test
+    public void test_communityActivityIsStreamed() throws IOException {
+        ScriptedClient client = new ScriptedClient().otherwise(ScriptedClient.json(
+                "{\"activity\":[{\"type\":\"show\",\"action\":\"rating\"}]}"));
+
+        ResponseStream<ActivityItem> activity = client.newTrakt().activityService()
+                .communityStream();
+        try {
+            assertThat(activity.next().action).isNotNull();
+            assertThat(activity.hasNext()).isFalse();
+        } finally {
+            activity.close();
+        }
+        assertThat(client.getOpenBodyCount()).isZero();
+    }
+
+    @Test
+    public void test_closingEarlySkipsRemainingElements() throws IOException {
+        ScriptedClient client = new ScriptedClient().otherwise(ScriptedClient.json(
+                "[{\"title\":\"Mad Men\"},{\"title\":\"Lost\"}]"));
+
+        ResponseStream<TvShow> shows = client.newTrakt().userService().watchlistShowsStream("sean");
+        shows.next();
+        shows.close();
+
+        assertThat(shows.hasNext()).isFalse();
+        assertThat(client.getOpenBodyCount()).isZero();
+    }
+}
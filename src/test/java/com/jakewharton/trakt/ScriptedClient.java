@@ -0,0 +1,222 @@
+package com.jakewharton.trakt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+/**
+ * Fake {@link Client} answering requests with canned responses instead of calling trakt. Queued
+ * answers are used first, in order, then the first rule whose URL fragment is contained in the
+ * request URL, otherwise the default answer, a show. Thread-safe.
+ *
+ * <p>Tests build their {@link Trakt} from {@link #configuration()}, adding only the component
+ * they exercise.</p>
+ */
+final class ScriptedClient implements Client {
+
+    static final String SHOW = "{\"title\":\"Mad Men\",\"tvdb_id\":80337}";
+
+    /**
+     * Answers a request, e.g. with one of {@link #json(String)}, {@link #status(int, String)} or
+     * {@link #failure(String)}.
+     */
+    interface Answer {
+
+        Response answer(Request request) throws IOException;
+    }
+
+    private final Queue<Answer> mQueue = new ConcurrentLinkedQueue<Answer>();
+
+    private final List<Rule> mRules = new CopyOnWriteArrayList<Rule>();
+
+    private final List<Request> mRequests = Collections.synchronizedList(new ArrayList<Request>());
+
+    private final AtomicInteger mOpenBodies = new AtomicInteger();
+
+    private volatile Answer mDefaultAnswer = json(SHOW);
+
+    /**
+     * Answers a 200 with the given JSON body.
+     */
+    static Answer json(String body) {
+        return status(200, body);
+    }
+
+    /**
+     * Answers the given status with the given JSON body.
+     */
+    static Answer status(final int status, final String body) {
+        return new Answer() {
+            @Override
+            public Response answer(Request request) {
+                return new Response(status, "", Collections.<Header>emptyList(),
+                        new TypedByteArray("application/json", body.getBytes()));
+            }
+        };
+    }
+
+    /**
+     * Fails with an {@link IOException}, like a request which never reached the server.
+     */
+    static Answer failure(final String message) {
+        return new Answer() {
+            @Override
+            public Response answer(Request request) throws IOException {
+                throw new IOException(message);
+            }
+        };
+    }
+
+    /**
+     * Answers requests whose URL contains the given fragment, unless an earlier rule matched.
+     */
+    ScriptedClient when(String urlFragment, Answer answer) {
+        mRules.add(new Rule(urlFragment, answer));
+        return this;
+    }
+
+    /**
+     * Answers the next request, regardless of its URL.
+     */
+    ScriptedClient enqueue(Answer answer) {
+        mQueue.add(answer);
+        return this;
+    }
+
+    /**
+     * Answers requests matching no rule.
+     */
+    ScriptedClient otherwise(Answer answer) {
+        mDefaultAnswer = answer;
+        return this;
+    }
+
+    /**
+     * Returns a configuration executing requests with this client, to add the component under test
+     * to.
+     */
+    TraktConfiguration.Builder configuration() {
+        return new TraktConfiguration.Builder()
+                .setApiKey("key")
+                .setTransport(Transport.create(this));
+    }
+
+    Trakt newTrakt() {
+        return new Trakt(configuration().build());
+    }
+
+    int getRequestCount() {
+        return mRequests.size();
+    }
+
+    /**
+     * Returns the requests received so far, in order.
+     */
+    List<Request> getRequests() {
+        synchronized (mRequests) {
+            return new ArrayList<Request>(mRequests);
+        }
+    }
+
+    /**
+     * Number of response bodies which were opened but not closed yet.
+     */
+    int getOpenBodyCount() {
+        return mOpenBodies.get();
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        mRequests.add(request);
+        Answer answer = mQueue.poll();
+        if (answer == null) {
+            answer = mDefaultAnswer;
+            for (Rule rule : mRules) {
+                if (request.getUrl().contains(rule.urlFragment)) {
+                    answer = rule.answer;
+                    break;
+                }
+            }
+        }
+        Response response = answer.answer(request);
+        if (response.getBody() == null) {
+            return response;
+        }
+        return new Response(response.getStatus(), response.getReason(), response.getHeaders(),
+                new TrackedTypedInput(response.getBody()));
+    }
+
+    private static final class Rule {
+
+        final String urlFragment;
+
+        final Answer answer;
+
+        Rule(String urlFragment, Answer answer) {
+            this.urlFragment = urlFragment;
+            this.answer = answer;
+        }
+    }
+
+    /**
+     * Counts a body as open from reading it until it is closed.
+     */
+    private final class TrackedTypedInput implements TypedInput {
+
+        private final TypedInput mDelegate;
+
+        TrackedTypedInput(TypedInput delegate) {
+            mDelegate = delegate;
+        }
+
+        @Override
+        public String mimeType() {
+            return mDelegate.mimeType();
+        }
+
+        @Override
+        public long length() {
+            return mDelegate.length();
+        }
+
+        @Override
+        public InputStream in() throws IOException {
+            final InputStream in = mDelegate.in();
+            final AtomicBoolean isClosed = new AtomicBoolean();
+            mOpenBodies.incrementAndGet();
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (isClosed.compareAndSet(false, true)) {
+                        mOpenBodies.decrementAndGet();
+                    }
+                    in.close();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.jakewharton.trakt;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process HTTP server answering every endpoint of the service interfaces with a recorded
+ * response, so tests and benchmarks run without network access or an API key.
+ *
+ * <p>Requests are mapped to their path template like {@link Endpoints} does, and answered with the
+ * fixture {@code /stub/<type>.json} of the type the service method decodes, e.g. {@code
+ * TvShow.json} or {@code List-Movie.json}. Types without a fixture are answered with an empty
+ * object or array. Responses are compressed if the client accepts gzip, like the trakt API
+ * does.</p>
+ *
+ * <p>A {@link Profile} adds latency, limits bandwidth, fails a share of requests or throttles
+ * them. It may be changed while the server is running.</p>
+ */
+public final class StubTraktServer {
+
+    private static final String FIXTURES = "/stub/";
+
+    private static final Random RANDOM = new Random();
+
+    private final HttpServer mServer;
+
+    private final ExecutorService mExecutor;
+
+    /**
+     * Type of the response of each endpoint, by HTTP method and path template.
+     */
+    private final Map<String, Type> mResponseTypes;
+
+    private final ConcurrentMap<String, Body> mFixtures = new ConcurrentHashMap<String, Body>();
+
+    private final ConcurrentMap<String, CannedResponse> mCannedResponses
+            = new ConcurrentHashMap<String, CannedResponse>();
+
+    private final Lock mThrottleLock = new ReentrantLock();
+
+    private long mThrottleWindow;
+
+    private int mThrottleCount;
+
+    private final AtomicLong mRequestCount = new AtomicLong();
+
+    private final AtomicLong mFailedCount = new AtomicLong();
+
+    private final AtomicLong mThrottledCount = new AtomicLong();
+
+    private volatile Profile mProfile = new Profile.Builder().build();
+
+    /**
+     * Creates a server listening on a free port of the loopback interface. Call {@link #start()}
+     * before making requests.
+     */
+    public StubTraktServer() throws IOException {
+        mResponseTypes = buildResponseTypes();
+        // Otherwise Nagle's algorithm delays each keep-alive response by the delayed ACK timeout.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        mServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    respond(exchange);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        // Each request is handled on its own thread, so latency does not delay other requests.
+        mExecutor = Executors.newCachedThreadPool();
+        mServer.setExecutor(mExecutor);
+    }
+
+    public StubTraktServer start() {
+        mServer.start();
+        return this;
+    }
+
+    public void shutdown() {
+        mServer.stop(0);
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * URL to pass to {@link TraktConfiguration.Builder#setApiUrl(String)}.
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + mServer.getAddress().getPort();
+    }
+
+    public StubTraktServer setProfile(Profile profile) {
+        if (profile == null) {
+            throw new IllegalArgumentException("Profile must not be null.");
+        }
+        mProfile = profile;
+        return this;
+    }
+
+    /**
+     * Answers requests to the endpoint with the given path template, e.g. {@code
+     * /show/summary.json/{apikey}/{title}}, with the given status and body instead of its fixture.
+     * Pass a {@code null} body to remove the override.
+     */
+    public StubTraktServer setResponse(String endpoint, int status, String body) {
+        if (body == null) {
+            mCannedResponses.remove(endpoint);
+        } else {
+            mCannedResponses.put(endpoint,
+                    new CannedResponse(status, new Body(body.getBytes())));
+        }
+        return this;
+    }
+
+    /**
+     * Number of requests received, including failed and throttled ones.
+     */
+    public long getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    /**
+     * Number of requests failed by the error rate of the {@link Profile}.
+     */
+    public long getFailedCount() {
+        return mFailedCount.get();
+    }
+
+    /**
+     * Number of requests rejected by the throttle of the {@link Profile}.
+     */
+    public long getThrottledCount() {
+        return mThrottledCount.get();
+    }
+
+    /**
+     * Type of the body served for the given endpoint.
+     */
+    Type getResponseType(String httpMethod, String endpoint) {
+        return mResponseTypes.get(httpMethod + " " + endpoint);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        mRequestCount.incrementAndGet();
+        drain(exchange.getRequestBody());
+        Profile profile = mProfile;
+
+        if (isThrottled(profile)) {
+            mThrottledCount.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, profile, 429, failure("rate limit exceeded"));
+            return;
+        }
+        if (profile.mErrorRate > 0 && RANDOM.nextDouble() < profile.mErrorRate) {
+            mFailedCount.incrementAndGet();
+            send(exchange, profile, 503, failure("service unavailable"));
+            return;
+        }
+        if (profile.mMaxLatencyNanos > 0) {
+            long latency = profile.mMinLatencyNanos + (long) (RANDOM.nextDouble()
+                    * (profile.mMaxLatencyNanos - profile.mMinLatencyNanos));
+            sleep(latency);
+        }
+
+        String method = exchange.getRequestMethod();
+        String endpoint = Endpoints.match(method, exchange.getRequestURI().toString());
+        if (endpoint == null) {
+            send(exchange, profile, 404, failure("unknown endpoint"));
+            return;
+        }
+        CannedResponse canned = mCannedResponses.get(endpoint);
+        if (canned != null) {
+            send(exchange, profile, canned.status, canned.body);
+            return;
+        }
+        send(exchange, profile, 200, fixture(getResponseType(method, endpoint)));
+    }
+
+    private boolean isThrottled(Profile profile) {
+        if (profile.mMaxRequestsPerSecond == 0) {
+            return false;
+        }
+        long window = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        mThrottleLock.lock();
+        try {
+            if (window != mThrottleWindow) {
+                mThrottleWindow = window;
+                mThrottleCount = 0;
+            }
+            return ++mThrottleCount > profile.mMaxRequestsPerSecond;
+        } finally {
+            mThrottleLock.unlock();
+        }
+    }
+
+    private static void send(HttpExchange exchange, Profile profile, int status, Body body)
+            throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        byte[] bytes = body.plain;
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            bytes = body.gzipped();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        OutputStream out = exchange.getResponseBody();
+        if (profile.mBytesPerSecond == 0) {
+            out.write(bytes);
+            return;
+        }
+        int chunk = (int) Math.max(1, Math.min(8192, profile.mBytesPerSecond / 20));
+        long start = System.nanoTime();
+        for (int written = 0; written < bytes.length; ) {
+            int length = Math.min(chunk, bytes.length - written);
+            out.write(bytes, written, length);
+            out.flush();
+            written += length;
+            long due = start + TimeUnit.SECONDS.toNanos(written) / profile.mBytesPerSecond;
+            sleep(due - System.nanoTime());
+        }
+    }
+
+    private Body fixture(Type type) throws IOException {
+        String name = fixtureName(type);
+        Body body = mFixtures.get(name);
+        if (body == null) {
+            InputStream in = StubTraktServer.class.getResourceAsStream(FIXTURES + name + ".json");
+            if (in == null) {
+                body = new Body((name.startsWith("List-") ? "[]" : "{}").getBytes());
+            } else {
+                try {
+                    body = new Body(drain(in));
+                } finally {
+                    in.close();
+                }
+            }
+            mFixtures.putIfAbsent(name, body);
+        }
+        return body;
+    }
+
+    /**
+     * Name of the fixture of a response type, e.g. {@code TvShow} or {@code List-Movie}.
+     */
+    static String fixtureName(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            return ((Class<?>) parameterized.getRawType()).getSimpleName() + "-"
+                    + fixtureName(parameterized.getActualTypeArguments()[0]);
+        }
+        return ((Class<?>) type).getSimpleName();
+    }
+
+    /**
+     * Maps each endpoint to the type its response is decoded to. Endpoints only read as a stream
+     * respond with an array of the streamed elements.
+     */
+    private static Map<String, Type> buildResponseTypes() {
+        Map<String, Type> responseTypes = new HashMap<String, Type>();
+        for (ServiceMethod serviceMethod : ServiceMethod.all()) {
+            if (serviceMethod.path == null) {
+                continue;
+            }
+            String key = serviceMethod.httpMethod + " " + serviceMethod.path;
+            if (!serviceMethod.isStreaming) {
+                responseTypes.put(key, serviceMethod.responseType);
+            } else if (!responseTypes.containsKey(key)) {
+                responseTypes.put(key, new ListType(serviceMethod.responseType));
+            }
+        }
+        return responseTypes;
+    }
+
+    private static Body failure(String error) {
+        return new Body(("{\"status\":\"failure\",\"error\":\"" + error + "\"}").getBytes());
+    }
+
+    private static byte[] drain(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void sleep(long nanos) throws IOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted.");
+        }
+    }
+
+    /**
+     * Network conditions simulated by the server. The default answers right away and never fails.
+     */
+    public static final class Profile {
+
+        final long mMinLatencyNanos;
+
+        final long mMaxLatencyNanos;
+
+        final long mBytesPerSecond;
+
+        final double mErrorRate;
+
+        final int mMaxRequestsPerSecond;
+
+        private Profile(Builder builder) {
+            mMinLatencyNanos = builder.mMinLatencyNanos;
+            mMaxLatencyNanos = builder.mMaxLatencyNanos;
+            mBytesPerSecond = builder.mBytesPerSecond;
+            mErrorRate = builder.mErrorRate;
+            mMaxRequestsPerSecond = builder.mMaxRequestsPerSecond;
+        }
+
+        public static final class Builder {
+
+            private long mMinLatencyNanos;
+
+            private long mMaxLatencyNanos;
+
+            private long mBytesPerSecond;
+
+            private double mErrorRate;
+
+            private int mMaxRequestsPerSecond;
+
+            /**
+             * Delay every response by a random time between {@code min} and {@code max}.
+             */
+            public Builder setLatency(long min, long max, TimeUnit unit) {
+                if (min < 0) {
+                    throw new IllegalArgumentException("min < 0");
+                }
+                if (max < min) {
+                    throw new IllegalArgumentException("max < min");
+                }
+                mMinLatencyNanos = unit.toNanos(min);
+                mMaxLatencyNanos = unit.toNanos(max);
+                return this;
+            }
+
+            /**
+             * Write response bodies at most at the given rate. 0, the default, is unlimited.
+             */
+            public Builder setBandwidth(long bytesPerSecond) {
+                if (bytesPerSecond < 0) {
+                    throw new IllegalArgumentException("bytesPerSecond < 0");
+                }
+                mBytesPerSecond = bytesPerSecond;
+                return this;
+            }
+
+            /**
+             * Answer the given share of requests, between 0 and 1, with a 503.
+             */
+            public Builder setErrorRate(double errorRate) {
+                if (errorRate < 0 || errorRate > 1) {
+                    throw new IllegalArgumentException("errorRate not in [0, 1]");
+                }
+                mErrorRate = errorRate;
+                return this;
+            }
+
+            /**
+             * Answer requests beyond the given number per second with a 429. 0, the default, is
+             * unlimited.
+             */
+            public Builder setMaxRequestsPerSecond(int maxRequestsPerSecond) {
+                if (maxRequestsPerSecond < 0) {
+                    throw new IllegalArgumentException("maxRequestsPerSecond < 0");
+                }
+                mMaxRequestsPerSecond = maxRequestsPerSecond;
+                return this;
+            }
+
+            public Profile build() {
+                return new Profile(this);
+            }
+        }
+    }
+
+    private static final class CannedResponse {
+
+        final int status;
+
+        final Body body;
+
+        CannedResponse(int status, Body body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Response body, compressed once on first use.
+     */
+    private static final class Body {
+
+        final byte[] plain;
+
+        private volatile byte[] mGzipped;
+
+        Body(byte[] plain) {
+            this.plain = plain;
+        }
+
+        byte[] gzipped() throws IOException {
+            byte[] gzipped = mGzipped;
+            if (gzipped == null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                GZIPOutputStream out = new GZIPOutputStream(bytes);
+                out.write(plain);
+                out.close();
+                gzipped = bytes.toByteArray();
+                mGzipped = gzipped;
+            }
+            return gzipped;
+        }
+    }
+
+    /**
+     * {@code List<element>}, for endpoints only read as a stream.
+     */
+    private static final class ListType implements ParameterizedType {
+
+        private final Type mElement;
+
+        ListType(Type element) {
+            mElement = element;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[] {mElement};
+        }
+
+        @Override
+        public Type getRawType() {
+            return List.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.Response;
+import com.jakewharton.trakt.entities.TvShow;
+import com.jakewharton.trakt.services.ShowService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.RetrofitError;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class StubTraktServerTest {
+
+    private static final String SUMMARY = "/show/summary.json/{apikey}/{title}";
+
+    private StubTraktServer server;
+
+    private Trakt trakt;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubTraktServer().start();
+        trakt = new Trakt(new TraktConfiguration.Builder()
+                .setApiUrl(server.getUrl())
+                .setApiKey("key")
+                .setAuthentication("user", "sha1")
+                .setTransport(new Transport.Builder().build())
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        server.shutdown();
+    }
+
+    @Test
+    public void test_apiUrl() {
+        assertThat(new TraktConfiguration.Builder().build().getApiUrl())
+                .isEqualTo(TraktConfiguration.DEFAULT_API_URL);
+        try {
+            new TraktConfiguration.Builder().setApiUrl("http://localhost/");
+            fail("Expected an IllegalArgumentException.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void test_everyEndpointIsAnswered() throws Exception {
+        Set<String> seen = new HashSet<String>();
+        for (ServiceMethod serviceMethod : ServiceMethod.all()) {
+            if (serviceMethod.path == null
+                    || !seen.add(serviceMethod.httpMethod + serviceMethod.path)) {
+                continue;
+            }
+            String path = serviceMethod.path.replaceAll("\\{[^}]+\\}", "1");
+            HttpURLConnection connection
+                    = (HttpURLConnection) new URL(server.getUrl() + path).openConnection();
+            connection.setRequestMethod(serviceMethod.httpMethod);
+            if ("POST".equals(serviceMethod.httpMethod)) {
+                connection.setDoOutput(true);
+                OutputStream out = connection.getOutputStream();
+                out.write("{}".getBytes());
+                out.close();
+            }
+            assertThat(connection.getResponseCode()).as(serviceMethod.path).isEqualTo(200);
+
+            Reader body = new InputStreamReader(connection.getInputStream(), "UTF-8");
+            try {
+                Object decoded = TraktHelper.getGson().fromJson(body,
+                        server.getResponseType(serviceMethod.httpMethod, serviceMethod.path));
+                assertThat(decoded).as(serviceMethod.path).isNotNull();
+            } finally {
+                body.close();
+            }
+        }
+    }
+
+    @Test
+    public void test_servicesDecodeFixtures() {
+        TvShow show = trakt.showService().summary("show-500");
+        assertThat(show.title).isEqualTo("Show 500");
+
+        List<TvShow> library = trakt.userService().libraryShowsAll("user");
+        assertThat(library).isNotEmpty();
+
+        Response response = trakt.showService()
+                .episodeSeen(new ShowService.Episodes(500, 1, 1));
+        assertThat(response.status).isEqualTo("success");
+
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void test_cannedResponse() {
+        server.setResponse(SUMMARY, 200, "{\"title\":\"Mad Men\"}");
+        assertThat(trakt.showService().summary("mad-men").title).isEqualTo("Mad Men");
+
+        server.setResponse(SUMMARY, 404, "{\"status\":\"failure\"}");
+        try {
+            trakt.showService().summary("mad-men");
+            fail("Expected an HTTP error.");
+        } catch (RetrofitError expected) {
+            assertThat(expected.getResponse().getStatus()).isEqualTo(404);
+        }
+
+        server.setResponse(SUMMARY, 0, null);
+        assertThat(trakt.showService().summary("mad-men").title).isEqualTo("Show 500");
+    }
+
+    @Test
+    public void test_errorRate() {
+        server.setProfile(new StubTraktServer.Profile.Builder().setErrorRate(1).build());
+        try {
+            trakt.showService().summary("show-500");
+            fail("Expected an HTTP error.");
+        } catch (RetrofitError expected) {
+            assertThat(expected.getResponse().getStatus()).isEqualTo(503);
+        }
+        assertThat(server.getFailedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void test_throttle() {
+        server.setProfile(new StubTraktServer.Profile.Builder()
+                .setMaxRequestsPerSecond(1)
+                .build());
+        int throttled = 0;
+        for (int i = 0; i < 3; i++) {
+            try {
+                trakt.showService().summary("show-500");
+            } catch (RetrofitError e) {
+                assertThat(e.getResponse().getStatus()).isEqualTo(429);
+                throttled++;
+            }
+        }
+        // The first request of a new second is let through again.
+        assertThat(throttled).isGreaterThanOrEqualTo(1);
+        assertThat(server.getThrottledCount()).isEqualTo(throttled);
+    }
+
+    @Test
+    public void test_latencyAndBandwidth() {
+        server.setProfile(new StubTraktServer.Profile.Builder()
+                .setLatency(100, 100, TimeUnit.MILLISECONDS)
+                .build());
+        long start = System.nanoTime();
+        trakt.showService().summary("show-500");
+        assertThat(System.nanoTime() - start)
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // The compressed list of shows is a few kilobytes.
+        server.setProfile(new StubTraktServer.Profile.Builder().setBandwidth(10000).build());
+        start = System.nanoTime();
+        trakt.userService().libraryShowsAll("user");
+        assertThat(System.nanoTime() - start)
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+}
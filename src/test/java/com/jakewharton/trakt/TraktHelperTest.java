@@ -0,0 +1,161 @@
+package com.jakewharton.trakt;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import com.jakewharton.trakt.entities.ActivityItem;
+import com.jakewharton.trakt.entities.TvShowSeason;
+import com.jakewharton.trakt.entities.UserProfile;
+import com.jakewharton.trakt.enumerations.ActivityAction;
+import com.jakewharton.trakt.enumerations.Rating;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.fest.assertions.api.Assertions.fail;
+
+public class TraktHelperTest {
+
+    private static final Gson GSON = TraktHelper.getGson();
+
+    @Test
+    public void test_warmUp() {
+        // Fails if Gson cannot create an adapter for any type used by the services.
+        TraktHelper.warmUp();
+        assertThat(TraktHelper.getGson()).isSameAs(GSON);
+    }
+
+    @Test
+    public void test_integers() {
+        assertThat(GSON.fromJson("5", Integer.class)).isEqualTo(5);
+        assertThat(GSON.fromJson("\"5\"", Integer.class)).isEqualTo(5);
+        assertThat(GSON.fromJson("5.7", Integer.class)).isEqualTo(5);
+        assertThat(GSON.fromJson("\"abc\"", Integer.class)).isNull();
+        assertThat(GSON.fromJson("null", Integer.class)).isNull();
+    }
+
+    @Test
+    public void test_dates() throws Exception {
+        assertThat(GSON.fromJson("1380000000", Date.class))
+                .isEqualTo(new Date(1380000000000L));
+        assertThat(GSON.fromJson("\"1380000000\"", Date.class))
+                .isEqualTo(new Date(1380000000000L));
+        assertThat(GSON.fromJson("1.38E9", Date.class)).isEqualTo(new Date(1380000000000L));
+        assertThat(GSON.fromJson("\"2013-09-24\"", Date.class))
+                .isEqualTo(new SimpleDateFormat("yyyy-MM-dd").parse("2013-09-24"));
+        assertThat(GSON.fromJson("\"2013-02-30\"", Date.class))
+                .isEqualTo(new SimpleDateFormat("yyyy-MM-dd").parse("2013-03-02"));
+        assertThat(GSON.fromJson("\"2013-09-24 21:00\"", Date.class))
+                .isEqualTo(new SimpleDateFormat("yyyy-MM-dd").parse("2013-09-24"));
+        assertThat(GSON.fromJson("1380000000", Calendar.class).getTimeInMillis())
+                .isEqualTo(1380000000000L);
+
+        try {
+            GSON.fromJson("\"soon\"", Date.class);
+            fail("Expected a parse error.");
+        } catch (JsonParseException expected) {
+        }
+    }
+
+    @Test
+    public void test_datesAreDecodedConcurrently() throws Exception {
+        final int threadCount = 8;
+        final int datesPerThread = 2000;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threadCount; t++) {
+                final int offset = t * datesPerThread;
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        // Every thread has its own format to compute the expected dates.
+                        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+                        Calendar day = Calendar.getInstance();
+                        start.await();
+                        for (int i = 0; i < datesPerThread; i++) {
+                            day.clear();
+                            day.set(1990, Calendar.JANUARY, 1 + offset + i);
+                            String value = format.format(day.getTime());
+                            assertThat(GSON.fromJson("\"" + value + "\"", Date.class))
+                                    .as(value)
+                                    .isEqualTo(format.parse(value));
+
+                            long seconds = 1000000000L + offset + i;
+                            assertThat(GSON.fromJson(Long.toString(seconds), Date.class))
+                                    .isEqualTo(new Date(seconds * 1000));
+                        }
+                        return datesPerThread;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int decoded = 0;
+            for (Future<Integer> result : results) {
+                decoded += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(decoded).isEqualTo(threadCount * datesPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_episodes() {
+        TvShowSeason season = GSON.fromJson("{\"season\":1,\"episodes\":13}", TvShowSeason.class);
+        assertThat(season.episodes.count).isEqualTo(13);
+
+        season = GSON.fromJson("{\"season\":1,\"episodes\":[1,\"2\",3]}", TvShowSeason.class);
+        assertThat(season.episodes.numbers).containsExactly(1, 2, 3);
+
+        season = GSON.fromJson("{\"season\":1,\"episodes\":[{\"number\":1,\"title\":\"Pilot\"}]}",
+                TvShowSeason.class);
+        assertThat(season.episodes.episodes).hasSize(1);
+        assertThat(season.episodes.episodes.get(0).title).isEqualTo("Pilot");
+    }
+
+    @Test
+    public void test_watching() {
+        UserProfile profile = GSON.fromJson("{\"username\":\"sean\",\"watching\":[]}",
+                UserProfile.class);
+        assertThat(profile.watching).isNull();
+
+        profile = GSON.fromJson("{\"watching\":{\"action\":\"Watching\"}}", UserProfile.class);
+        assertThat(profile.watching).isInstanceOf(ActivityItem.class);
+        assertThat(profile.watching.action).isEqualTo(ActivityAction.Watching);
+    }
+
+    @Test
+    public void test_enumsIgnoreCase() {
+        assertThat(GSON.fromJson("\"scrobble\"", ActivityAction.class))
+                .isEqualTo(ActivityAction.Scrobble);
+        assertThat(GSON.fromJson("\"SCROBBLE\"", ActivityAction.class))
+                .isEqualTo(ActivityAction.Scrobble);
+        assertThat(GSON.fromJson("\"item_Added\"", ActivityAction.class))
+                .isEqualTo(ActivityAction.ItemAdded);
+        assertThat(GSON.fromJson("\"scrobbled\"", ActivityAction.class)).isNull();
+        assertThat(GSON.fromJson("\"\"", ActivityAction.class)).isNull();
+        assertThat(ActivityAction.fromValue(null)).isNull();
+    }
+
+    @Test
+    public void test_ratings() {
+        assertThat(GSON.fromJson("10", Rating.class)).isEqualTo(Rating.TotallyNinja);
+        assertThat(GSON.fromJson("\"7\"", Rating.class)).isEqualTo(Rating.Good);
+        assertThat(GSON.toJson(Rating.TotallyNinja)).isEqualTo("\"10\"");
+    }
+}
@@ -0,0 +1,214 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.services.ShowService;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit.RequestInterceptor;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class TraktTest {
+
+    @Test
+    public void test_serviceIsCached() {
+        Trakt trakt = new Trakt().setApiKey("key");
+        assertThat(trakt.showService()).isSameAs(trakt.showService());
+    }
+
+    @Test
+    public void test_serviceIsRecreatedOnChange() {
+        Trakt trakt = new Trakt().setApiKey("key");
+        ShowService before = trakt.showService();
+        trakt.setAuthentication("user", "sha1");
+        assertThat(trakt.showService()).isNotSameAs(before);
+        assertThat(trakt.getConfiguration().getApiKey()).isEqualTo("key");
+        assertThat(trakt.getConfiguration().getUsername()).isEqualTo("user");
+    }
+
+    @Test
+    public void test_concurrentAccessCreatesOneProxy() throws Exception {
+        final Trakt trakt = new Trakt().setApiKey("key");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ShowService>> results = new ArrayList<Future<ShowService>>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(new Callable<ShowService>() {
+                    @Override
+                    public ShowService call() {
+                        return trakt.showService();
+                    }
+                }));
+            }
+            ShowService first = results.get(0).get();
+            for (Future<ShowService> result : results) {
+                assertThat(result.get()).isSameAs(first);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void test_setConfigurationRacingSetter() throws Exception {
+        final Trakt trakt = new Trakt();
+        final AtomicInteger setterCalls = new AtomicInteger();
+        final AtomicBoolean stop = new AtomicBoolean();
+        Thread setter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!stop.get()) {
+                    trakt.setApiKey("key" + setterCalls.incrementAndGet());
+                }
+            }
+        });
+        setter.start();
+        try {
+            for (int round = 0; round < 2000; round++) {
+                String apiUrl = "http://localhost/" + round;
+                trakt.setConfiguration(new TraktConfiguration.Builder().setApiUrl(apiUrl).build());
+                // Let any setApiKey which read the previous configuration complete.
+                int calls = setterCalls.get();
+                while (setterCalls.get() < calls + 2) {
+                    Thread.yield();
+                }
+                // The setter changes the key on top of the replacement, never under it.
+                assertThat(trakt.getConfiguration().getApiUrl()).isEqualTo(apiUrl);
+            }
+        } finally {
+            stop.set(true);
+            setter.join();
+        }
+    }
+
+    @Test
+    public void test_concurrentUpdatesAreNotLost() throws Exception {
+        final Trakt trakt = new Trakt().setApiKey("key");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<Future<?>>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        trakt.updateConfiguration(new Trakt.Configurator() {
+                            @Override
+                            public void configure(TraktConfiguration.Builder builder) {
+                                String key = trakt.getConfiguration().getApiKey();
+                                Thread.yield();
+                                builder.setApiKey(key + "x");
+                            }
+                        });
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(trakt.getConfiguration().getApiKey()).hasSize("key".length() + 200);
+    }
+
+    @Test
+    public void test_configurationBuilder() {
+        TraktConfiguration configuration = new TraktConfiguration.Builder()
+                .setApiKey("key")
+                .setAuthentication("user", "sha1")
+                .setIsDebug(true)
+                .build();
+        TraktConfiguration changed = configuration.newBuilder().setApiKey("other").build();
+
+        assertThat(configuration.getApiKey()).isEqualTo("key");
+        assertThat(changed.getApiKey()).isEqualTo("other");
+        assertThat(changed.getUsername()).isEqualTo("user");
+        assertThat(changed.getPasswordSha1()).isEqualTo("sha1");
+        assertThat(changed.isDebug()).isTrue();
+    }
+
+    @Test
+    public void test_authorizationIsPrecomputed() {
+        TraktConfiguration configuration = new TraktConfiguration.Builder()
+                .setAuthentication("user", "sha1")
+                .build();
+        // Base64 of "user:sha1"
+        assertThat(configuration.getAuthorization()).isEqualTo("Basic dXNlcjpzaGEx");
+        assertThat(new TraktConfiguration.Builder().build().getAuthorization()).isNull();
+    }
+
+    @Test
+    public void test_boundCredentialsOverrideConfiguration() {
+        TraktRequestInterceptor interceptor = new TraktRequestInterceptor(
+                new TraktConfiguration.Builder()
+                        .setApiKey("key")
+                        .setAuthentication("user", "sha1")
+                        .build());
+        Credentials other = new Credentials("other", "sha1");
+
+        RecordingFacade facade = new RecordingFacade();
+        interceptor.intercept(facade);
+        assertThat(facade.values.get("apikey")).isEqualTo("key");
+        assertThat(facade.values.get("Authorization")).isEqualTo("Basic dXNlcjpzaGEx");
+
+        Credentials previous = TraktRequestInterceptor.bindCredentials(other);
+        try {
+            interceptor.intercept(facade);
+            assertThat(facade.values.get("Authorization")).isEqualTo(other.getAuthorization());
+        } finally {
+            TraktRequestInterceptor.bindCredentials(previous);
+        }
+
+        interceptor.intercept(facade);
+        assertThat(facade.values.get("Authorization")).isEqualTo("Basic dXNlcjpzaGEx");
+    }
+
+    @Test
+    public void test_asCachesServices() {
+        Trakt trakt = new Trakt().setApiKey("key");
+        TraktServices services = trakt.as(new Credentials("user", "sha1"));
+        assertThat(services.showService()).isSameAs(services.showService());
+        assertThat(services.showService()).isNotSameAs(trakt.showService());
+    }
+
+    private static class RecordingFacade implements RequestInterceptor.RequestFacade {
+
+        final Map<String, String> values = new HashMap<String, String>();
+
+        @Override
+        public void addHeader(String name, String value) {
+            values.put(name, value);
+        }
+
+        @Override
+        public void addPathParam(String name, String value) {
+            values.put(name, value);
+        }
+
+        @Override
+        public void addEncodedPathParam(String name, String value) {
+            values.put(name, value);
+        }
+
+        @Override
+        public void addQueryParam(String name, String value) {
+            values.put(name, value);
+        }
+
+        @Override
+        public void addEncodedQueryParam(String name, String value) {
+            values.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.jakewharton.trakt;
+
+import com.jakewharton.trakt.entities.TvShow;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.converter.Converter;
+import retrofit.converter.GsonConverter;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class TransportTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final byte[] BODY = "{\"title\":\"Mad Men\",\"tvdb_id\":80337}".getBytes();
+
+    private static final byte[] GZIP_BODY = gzip(BODY);
+
+    @Rule
+    public TemporaryFolder cacheDirectory = new TemporaryFolder();
+
+    private final AtomicInteger conditionalRequests = new AtomicInteger();
+
+    private final AtomicReference<byte[]> postedBody = new AtomicReference<byte[]>();
+
+    private final AtomicReference<String> postedEncoding = new AtomicReference<String>();
+
+    private HttpServer server;
+
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    InputStream in = exchange.getRequestBody();
+                    postedEncoding.set(
+                            exchange.getRequestHeaders().getFirst("Content-Encoding"));
+                    if ("gzip".equals(postedEncoding.get())) {
+                        in = new GZIPInputStream(in);
+                    }
+                    postedBody.set(readAll(in));
+                    exchange.sendResponseHeaders(204, -1);
+                    exchange.close();
+                    return;
+                }
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+                byte[] body = gzip ? GZIP_BODY : BODY;
+                if (gzip) {
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                }
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    conditionalRequests.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/show/summary.json";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void test_revalidatedResponseIsNotDecodedAgain() throws Exception {
+        Transport transport = new Transport.Builder()
+                .setCache(cacheDirectory.getRoot(), 1024 * 1024)
+                .build();
+        Converter converter = transport.wrapConverter(
+                new GsonConverter(TraktHelper.getGsonBuilder().create()));
+
+        TvShow first = get(transport, converter);
+        TvShow second = get(transport, converter);
+        TvShow third = get(transport, converter);
+
+        assertThat(first.title).isEqualTo("Mad Men");
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+        assertThat(conditionalRequests.get()).isEqualTo(2);
+        assertThat(transport.getCacheMissCount()).isEqualTo(1);
+        assertThat(transport.getCacheRevalidationCount()).isEqualTo(2);
+        assertThat(transport.getCacheHitCount()).isZero();
+    }
+
+    @Test
+    public void test_noCacheByDefault() throws Exception {
+        Transport transport = new Transport.Builder().build();
+        Converter converter = transport.wrapConverter(
+                new GsonConverter(TraktHelper.getGsonBuilder().create()));
+
+        TvShow first = get(transport, converter);
+        TvShow second = get(transport, converter);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(conditionalRequests.get()).isZero();
+        assertThat(transport.getCacheMissCount()).isZero();
+    }
+
+    @Test
+    public void test_responsesAreDecompressedAndCounted() throws Exception {
+        Transport transport = new Transport.Builder().build();
+        Converter converter = new GsonConverter(TraktHelper.getGson());
+
+        assertThat(get(transport, converter).title).isEqualTo("Mad Men");
+        assertThat(get(transport, converter).tvdb_id).isEqualTo(80337);
+
+        Map<String, Transport.ResponseBytes> bytes = transport.getResponseBytes();
+        assertThat(bytes).hasSize(1);
+        Transport.ResponseBytes summary = bytes.get("/show/summary.json");
+        assertThat(summary.getCompressedBytes()).isEqualTo(2L * GZIP_BODY.length);
+        assertThat(summary.getUncompressedBytes()).isEqualTo(2L * BODY.length);
+    }
+
+    @Test
+    public void test_requestCompression() throws Exception {
+        byte[] small = new byte[GzipClient.MIN_COMPRESSED_REQUEST_SIZE - 1];
+        byte[] large = new byte[GzipClient.MIN_COMPRESSED_REQUEST_SIZE * 4];
+        Arrays.fill(small, (byte) 'a');
+        Arrays.fill(large, (byte) 'b');
+
+        Transport plain = new Transport.Builder().build();
+        post(plain, large);
+        assertThat(postedEncoding.get()).isNull();
+        assertThat(postedBody.get()).isEqualTo(large);
+
+        Transport compressing = new Transport.Builder().setRequestCompression(true).build();
+        post(compressing, small);
+        assertThat(postedEncoding.get()).isNull();
+        assertThat(postedBody.get()).isEqualTo(small);
+        post(compressing, large);
+        assertThat(postedEncoding.get()).isEqualTo("gzip");
+        assertThat(postedBody.get()).isEqualTo(large);
+    }
+
+    @Test
+    public void test_emptyCompressedBodiesAreNotInflated() throws Exception {
+        final List<Header> gzip = Collections.singletonList(new Header("Content-Encoding", "gzip"));
+        GzipClient client = new GzipClient(new Client() {
+            @Override
+            public Response execute(Request request) {
+                if (request.getUrl().endsWith("/not-modified")) {
+                    return new Response(304, "Not Modified", gzip,
+                            new TypedByteArray("application/json", new byte[0]));
+                }
+                // Chunked, so the body is only known to be empty once read.
+                return new Response(200, "OK", gzip, new TypedInput() {
+                    @Override
+                    public String mimeType() {
+                        return "application/json";
+                    }
+
+                    @Override
+                    public long length() {
+                        return -1;
+                    }
+
+                    @Override
+                    public InputStream in() {
+                        return new ByteArrayInputStream(new byte[0]);
+                    }
+                });
+            }
+        }, false);
+
+        Response notModified = client.execute(new Request("GET", url + "/not-modified",
+                Collections.<Header>emptyList(), null));
+        assertThat(readAll(notModified.getBody().in())).isEmpty();
+        Response empty = client.execute(new Request("GET", url, Collections.<Header>emptyList(),
+                null));
+        assertThat(readAll(empty.getBody().in())).isEmpty();
+        assertThat(client.getResponseBytes().keySet()).containsOnly("/show/summary.json");
+    }
+
+    private void post(Transport transport, byte[] body) throws Exception {
+        Response response = transport.getClient().execute(new Request("POST", url,
+                Collections.<Header>emptyList(), new TypedByteArray("application/json", body)));
+        assertThat(response.getStatus()).isEqualTo(204);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            OutputStream gzip = new GZIPOutputStream(out);
+            gzip.write(bytes);
+            gzip.close();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private TvShow get(Transport transport, Converter converter) throws Exception {
+        Response response = transport.getClient().execute(
+                new Request("GET", url, Collections.<Header>emptyList(), null));
+        assertThat(response.getStatus()).isEqualTo(200);
+        return (TvShow) converter.fromBody(response.getBody(), TvShow.class);
+    }
+}
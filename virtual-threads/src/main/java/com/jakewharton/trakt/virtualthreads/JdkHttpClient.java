@@ -0,0 +1,137 @@
+package com.jakewharton.trakt.virtualthreads;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import retrofit.client.Client;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+/**
+ * Retrofit client on top of {@link HttpClient}. Blocking in {@link #execute(Request)} parks the
+ * calling virtual thread without holding a monitor, so the carrier thread is free to run other
+ * virtual threads while waiting for the network.
+ */
+public final class JdkHttpClient implements Client, AutoCloseable {
+
+    /**
+     * Headers set by {@link HttpClient} itself, which it refuses to accept from callers.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient mHttpClient;
+
+    private final Duration mReadTimeout;
+
+    public JdkHttpClient(HttpClient httpClient, Duration readTimeout) {
+        mHttpClient = httpClient;
+        mReadTimeout = readTimeout;
+    }
+
+    /**
+     * Creates a client with the same timeouts as the default {@link
+     * com.jakewharton.trakt.Transport}.
+     */
+    public JdkHttpClient() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(15))
+                .build(), Duration.ofSeconds(20));
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()))
+                .timeout(mReadTimeout);
+        for (Header header : request.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.US))) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+
+        TypedOutput body = request.getBody();
+        if (body != null) {
+            builder.header("Content-Type", body.mimeType());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            body.writeTo(bytes);
+            builder.method(request.getMethod(),
+                    HttpRequest.BodyPublishers.ofByteArray(bytes.toByteArray()));
+        } else {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = mHttpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request to " + request.getUrl() + " interrupted.");
+        }
+
+        List<Header> headers = new ArrayList<Header>();
+        for (Map.Entry<String, List<String>> entry : response.headers().map().entrySet()) {
+            for (String value : entry.getValue()) {
+                headers.add(new Header(entry.getKey(), value));
+            }
+        }
+        String mimeType = response.headers().firstValue("Content-Type")
+                .orElse("application/octet-stream");
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return new Response(response.statusCode(), "", headers,
+                new StreamTypedInput(mimeType, length, response.body()));
+    }
+
+    /**
+     * Waits for requests in flight to complete, then closes the underlying {@link HttpClient}.
+     */
+    @Override
+    public void close() {
+        mHttpClient.close();
+    }
+
+    private static final class StreamTypedInput implements TypedInput {
+
+        private final String mMimeType;
+
+        private final long mLength;
+
+        private final InputStream mStream;
+
+        StreamTypedInput(String mimeType, long length, InputStream stream) {
+            mMimeType = mimeType;
+            mLength = length;
+            mStream = stream;
+        }
+
+        @Override
+        public String mimeType() {
+            return mMimeType;
+        }
+
+        @Override
+        public long length() {
+            return mLength;
+        }
+
+        @Override
+        public InputStream in() {
+            return mStream;
+        }
+    }
+}
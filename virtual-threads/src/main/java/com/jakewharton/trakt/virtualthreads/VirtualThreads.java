@@ -0,0 +1,80 @@
+package com.jakewharton.trakt.virtualthreads;
+
+import com.jakewharton.trakt.Trakt;
+import com.jakewharton.trakt.TraktConfiguration;
+import com.jakewharton.trakt.Transport;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual thread execution mode for {@link Trakt}: blocking service calls passed to {@link
+ * Trakt#submit(java.util.concurrent.Callable)} and all asynchronous service methods run on a new
+ * virtual thread each, and requests are executed by a {@link JdkHttpClient} which does not pin
+ * carrier threads while blocked on I/O.
+ *
+ * <pre>{@code
+ * VirtualThreads virtualThreads = new VirtualThreads();
+ * Trakt trakt = virtualThreads.enable(new Trakt().setApiKey("api_key"));
+ * Future<TvShow> show = trakt.submit(() -> trakt.showService().summary(153021));
+ * // once done with all instances using it:
+ * virtualThreads.close();
+ * }</pre>
+ *
+ * One executor and transport are shared by all instances enabled by the same object. Service
+ * methods may of course also be called directly from virtual threads created elsewhere.
+ */
+public final class VirtualThreads implements AutoCloseable {
+
+    private final ExecutorService mExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final JdkHttpClient mClient;
+
+    private final Transport mTransport;
+
+    public VirtualThreads() {
+        this(new JdkHttpClient());
+    }
+
+    /**
+     * Executes requests with the given client, which is closed together with this object.
+     */
+    public VirtualThreads(JdkHttpClient client) {
+        mClient = client;
+        mTransport = Transport.create(client);
+    }
+
+    /**
+     * Switches the given instance to virtual thread execution. Other settings changed concurrently
+     * are kept.
+     */
+    public Trakt enable(Trakt trakt) {
+        return trakt.updateConfiguration(this::configure);
+    }
+
+    /**
+     * Sets executors and transport for virtual thread execution on the given builder.
+     */
+    public TraktConfiguration.Builder configure(TraktConfiguration.Builder builder) {
+        return builder
+                .setExecutors(mExecutor, mExecutor)
+                .setTransport(mTransport);
+    }
+
+    /**
+     * Returns the client executing requests.
+     */
+    public JdkHttpClient getClient() {
+        return mClient;
+    }
+
+    /**
+     * Waits for submitted calls to complete, then stops the executor and the HTTP client. Instances
+     * enabled by this object can not make calls any more.
+     */
+    @Override
+    public void close() {
+        mExecutor.close();
+        mClient.close();
+    }
+}
@@ -0,0 +1,163 @@
+package com.jakewharton.trakt.virtualthreads;
+
+import com.jakewharton.trakt.Trakt;
+import com.jakewharton.trakt.TraktConfiguration;
+import com.jakewharton.trakt.Transport;
+import com.jakewharton.trakt.entities.TvShow;
+import com.sun.net.httpserver.HttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+/**
+ * Throughput of blocking {@code ShowService.summary} calls submitted through {@link
+ * Trakt#submit(java.util.concurrent.Callable)}, on a fixed pool of platform threads with the
+ * default transport versus one virtual thread per call with {@link VirtualThreads}. The stub server
+ * answers after {@link #LATENCY_MILLIS} to simulate network latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.net=ALL-UNNAMED")
+public class VirtualThreadBenchmark {
+
+    private static final int CALLS = 1000;
+
+    private static final int PLATFORM_THREADS = 64;
+
+    private static final long LATENCY_MILLIS = 100;
+
+    private static final String API_URL = "http://api.trakt.tv";
+
+    private static final byte[] BODY = "{\"title\":\"The League\",\"tvdb_id\":114701}".getBytes();
+
+    public enum Mode {
+        PLATFORM_POOL, VIRTUAL
+    }
+
+    @Param
+    public Mode mode;
+
+    private HttpServer server;
+
+    private ExecutorService platformPool;
+
+    private VirtualThreads virtualThreads;
+
+    private Trakt trakt;
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), CALLS);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        String stubUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        TraktConfiguration.Builder builder = new TraktConfiguration.Builder().setApiKey("benchmark");
+        Client client;
+        if (mode == Mode.VIRTUAL) {
+            virtualThreads = new VirtualThreads();
+            virtualThreads.configure(builder);
+            client = virtualThreads.getClient();
+        } else {
+            platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+            builder.setExecutors(platformPool, platformPool);
+            client = new Transport.Builder()
+                    .setMaxIdleConnections(PLATFORM_THREADS)
+                    .build()
+                    .getClient();
+        }
+        builder.setTransport(Transport.create(new RedirectingClient(client, stubUrl)));
+        trakt = new Trakt(builder.build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        if (platformPool != null) {
+            platformPool.shutdown();
+        }
+        if (virtualThreads != null) {
+            virtualThreads.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int summary() throws InterruptedException, ExecutionException {
+        List<Future<TvShow>> results = new ArrayList<>(CALLS);
+        for (int i = 0; i < CALLS; i++) {
+            results.add(trakt.submit(() -> trakt.showService().summary(114701)));
+        }
+        int count = 0;
+        for (Future<TvShow> result : results) {
+            if (result.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sends requests for the trakt API to the local stub server instead.
+     */
+    private static final class RedirectingClient implements Client {
+
+        private final Client mDelegate;
+
+        private final String mServerUrl;
+
+        RedirectingClient(Client delegate, String serverUrl) {
+            mDelegate = delegate;
+            mServerUrl = serverUrl;
+        }
+
+        @Override
+        public Response execute(Request request) throws IOException {
+            String url = mServerUrl + request.getUrl().substring(API_URL.length());
+            return mDelegate.execute(
+                    new Request(request.getMethod(), url, request.getHeaders(), request.getBody()));
+        }
+    }
+}